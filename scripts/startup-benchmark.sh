@@ -0,0 +1,134 @@
+#!/bin/sh
+# Compares startup of the default configuration with the fast-start one (lazy initialization,
+# Spring AOT when the jar was built with -PfastStart, and an AppCDS archive), and with the
+# GraalVM native executable when NATIVE_BINARY points to one.
+#
+# For each configuration the application is started RUNS times against the database configured
+# through the usual SPRING_DATASOURCE_* variables. The script reports the median time until
+# /actuator/health first answers and the resident set size at that moment. When wrk is installed
+# it then starts each configuration once more, warms it up with LOAD_SECONDS of GET /api/tasks
+# and reports the requests per second and peak RSS of a second LOAD_SECONDS run.
+#
+# Usage: scripts/startup-benchmark.sh build/libs/kanban-api-1.0.0.jar
+#    or: ./gradlew startupBenchmark -PfastStart [-Pnative]
+set -eu
+
+JAR=${1:?usage: $0 <boot jar>}
+JAR=$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+WORK_DIR=${WORK_DIR:-build/startup-benchmark}
+LOAD_SECONDS=${LOAD_SECONDS:-30}
+LOAD_CONNECTIONS=${LOAD_CONNECTIONS:-64}
+NATIVE_BINARY=${NATIVE_BINARY:-}
+BASE_URL="http://localhost:$PORT"
+HEALTH_URL="$BASE_URL/actuator/health"
+MAIN_CLASS=com.kanban.KanbanApiApplication
+
+pid=""
+trap '[ -n "$pid" ] && kill "$pid" 2>/dev/null || true' EXIT INT TERM
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# Starts the command given as arguments and waits for the health endpoint
+start_app() {
+    start=$(now_millis)
+    "$@" --server.port="$PORT" >"$WORK_DIR/last-run.log" 2>&1 &
+    pid=$!
+    deadline=$(( start + TIMEOUT_SECONDS * 1000 ))
+    until curl -sf -o /dev/null "$HEALTH_URL"; do
+        if ! kill -0 "$pid" 2>/dev/null || [ "$(now_millis)" -gt "$deadline" ]; then
+            echo "Application did not start, see $WORK_DIR/last-run.log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_millis) - start ))
+}
+
+stop_app() {
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    pid=""
+}
+
+# Prints "<millis to first response> <rss kB>"
+measure_once() {
+    start_app "$@"
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    stop_app
+    echo "$elapsed $rss"
+}
+
+# Prints "<requests per second> <peak rss kB>" of the second of two LOAD_SECONDS runs
+measure_throughput() {
+    start_app "$@"
+    token=$(curl -sf -H 'Content-Type: application/json' -d '{"username":"benchmark"}' \
+        "$BASE_URL/api/auth/login" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    wrk -t2 -c"$LOAD_CONNECTIONS" -d"${LOAD_SECONDS}s" -H "Authorization: Bearer $token" \
+        "$BASE_URL/api/tasks" >/dev/null
+    rps=$(wrk -t2 -c"$LOAD_CONNECTIONS" -d"${LOAD_SECONDS}s" -H "Authorization: Bearer $token" \
+        "$BASE_URL/api/tasks" | awk '/^Requests\/sec:/ { printf "%d", $2 }')
+    peak=$(awk '/^VmHWM:/ { print $2 }' "/proc/$pid/status")
+    stop_app
+    echo "$rps $peak"
+}
+
+report() {
+    name=$1
+    shift
+    : >"$WORK_DIR/samples"
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        measure_once "$@" >>"$WORK_DIR/samples"
+        i=$(( i + 1 ))
+    done
+    millis=$(awk '{ print $1 }' "$WORK_DIR/samples" | median)
+    rss=$(awk '{ print $2 }' "$WORK_DIR/samples" | median)
+    rps="-"
+    peak="-"
+    if command -v wrk >/dev/null 2>&1; then
+        set -- $(measure_throughput "$@")
+        rps=$1
+        peak=$(( $2 / 1024 ))
+    fi
+    printf '%-12s %12s %12s %12s %14s\n' "$name" "$millis" "$(( rss / 1024 ))" "$rps" "$peak"
+}
+
+mkdir -p "$WORK_DIR"
+rm -rf "$WORK_DIR/app"
+mkdir -p "$WORK_DIR/app"
+(cd "$WORK_DIR/app" && unzip -q "$JAR")
+# CDS only archives classes loaded from jars, so the application classes are repackaged
+jar cf "$WORK_DIR/app/application.jar" -C "$WORK_DIR/app/BOOT-INF/classes" .
+CLASSPATH_UNPACKED="$WORK_DIR/app/application.jar:$WORK_DIR/app/BOOT-INF/lib/*"
+
+AOT_FLAG=""
+if [ -f "$WORK_DIR/app/BOOT-INF/classes/com/kanban/KanbanApiApplication__ApplicationContextInitializer.class" ]; then
+    AOT_FLAG="-Dspring.aot.enabled=true"
+else
+    echo "No AOT classes in $JAR (build with -PfastStart); fast-start runs without AOT" >&2
+fi
+
+# Training run: refresh the context, record the loaded classes, exit
+java -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.profiles.active=fast-start -cp "$CLASSPATH_UNPACKED" "$MAIN_CLASS" >"$WORK_DIR/training.log" 2>&1
+
+if ! command -v wrk >/dev/null 2>&1; then
+    echo "wrk not found; throughput is not measured" >&2
+fi
+
+printf '%-12s %12s %12s %12s %14s\n' "config" "first req ms" "rss MB" "req/s" "peak rss MB"
+report "default" java -jar "$JAR"
+report "fast-start" java -XX:SharedArchiveFile="$WORK_DIR/app.jsa" $AOT_FLAG \
+    -Dspring.profiles.active=fast-start -cp "$CLASSPATH_UNPACKED" "$MAIN_CLASS"
+if [ -n "$NATIVE_BINARY" ]; then
+    report "native" "$NATIVE_BINARY" --spring.profiles.active=fast-start
+fi
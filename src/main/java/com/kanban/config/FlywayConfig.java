@@ -0,0 +1,24 @@
+package com.kanban.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets the AppCDS training run in the Dockerfile skip migrations. No database is reachable while
+ * the image is built, and with AOT enabled {@code spring.flyway.enabled=false} no longer removes
+ * the Flyway beans, so the switch has to be read when the migration would run.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${cds.training:false}") boolean cdsTraining) {
+        return flyway -> {
+            if (!cdsTraining) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.kanban.config;
+
+import com.kanban.controller.AuthController;
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskChangesDto;
+import com.kanban.dto.TaskFacetPageDto;
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.dto.TaskHistoryDto;
+import com.kanban.dto.TaskHistoryPageDto;
+import com.kanban.dto.TaskImportResultDto;
+import com.kanban.dto.TaskMoveRequestDto;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
+import com.kanban.exception.ErrorResponse;
+import com.kanban.graphql.TaskBatchUpdateInput;
+import com.kanban.graphql.TaskFilterInput;
+import com.kanban.graphql.TaskInput;
+import com.kanban.graphql.TaskMoveInput;
+import com.kanban.graphql.TaskPage;
+import com.kanban.graphql.TaskPartialInput;
+import com.kanban.service.TaskEventLog;
+import com.kanban.service.WebSocketNotificationService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the GraalVM native image ({@code ./gradlew nativeCompile -Pnative}).
+ * <p>
+ * Spring AOT covers beans, JPA entities and controller signatures on its own. These hints add what
+ * it cannot see: JJWT loads its implementation and Jackson serializer by class name, the GraphQL
+ * schema and Flyway migrations are read as classpath resources, and the Lombok DTOs are bound by
+ * Jackson in places AOT does not follow (idempotency replays, STOMP payloads, GraphQL arguments).
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.KanbanRuntimeHints.class)
+public class NativeImageConfig {
+
+    static class KanbanRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final String[] MAPPER_IMPLEMENTATIONS = {
+                "com.kanban.mapper.TaskMapperImpl",
+                "com.kanban.mapper.TaskHistoryMapperImpl"
+        };
+
+        // Classes jjwt-api instantiates by name through io.jsonwebtoken.lang.Classes or ServiceLoader
+        private static final String[] JJWT_IMPLEMENTATIONS = {
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        private static final Class<?>[] BINDING_TYPES = {
+                TaskRequestDto.class,
+                TaskResponseDto.class,
+                TaskMoveRequestDto.class,
+                TaskBatchUpdateDto.class,
+                TaskChangesDto.class,
+                TaskFilterDto.class,
+                TaskFacetPageDto.class,
+                TaskFacetPageDto.FacetCount.class,
+                TaskSuggestionDto.class,
+                TaskHistoryDto.class,
+                TaskHistoryPageDto.class,
+                TaskImportResultDto.class,
+                TaskImportResultDto.RowError.class,
+                ErrorResponse.class,
+                AuthController.LoginRequest.class,
+                TaskInput.class,
+                TaskPartialInput.class,
+                TaskMoveInput.class,
+                TaskBatchUpdateInput.class,
+                TaskFilterInput.class,
+                TaskPage.class,
+                WebSocketNotificationService.TaskEvent.class,
+                TaskEventLog.Replay.class
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String mapper : MAPPER_IMPLEMENTATIONS) {
+                hints.reflection().registerType(TypeReference.of(mapper),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            for (String implementation : JJWT_IMPLEMENTATIONS) {
+                hints.reflection().registerType(TypeReference.of(implementation),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            hints.resources().registerPattern("graphql/*.graphqls");
+            hints.resources().registerPattern("db/migration/*.sql");
+
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BINDING_TYPES);
+        }
+    }
+}
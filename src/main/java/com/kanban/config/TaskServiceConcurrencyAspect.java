@@ -0,0 +1,51 @@
+package com.kanban.config;
+
+import com.kanban.service.AdaptiveConcurrencyLimiter;
+import com.kanban.service.AdaptiveConcurrencyLimiter.Priority;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts every public {@code TaskService} call behind the {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * Ordered ahead of the transaction interceptor so that rejected calls never open a
+ * transaction or borrow a connection. Read-only transactional methods are classified as reads.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class TaskServiceConcurrencyAspect {
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Map<Method, Priority> priorities = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.kanban.service.TaskService.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Priority priority = priorities.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), TaskServiceConcurrencyAspect::classify);
+        long start = concurrencyLimiter.acquire(priority);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimiter.release(priority, start);
+        }
+    }
+
+    private static Priority classify(Method method) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+        return transactional != null && transactional.readOnly() ? Priority.READ : Priority.WRITE;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kanban.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a {@code task.service} observation, a timer and a trace span, around every public
+ * {@code TaskService} call.
+ * <p>
+ * Ordered inside {@link TaskServiceConcurrencyAspect} but outside the transaction interceptor,
+ * so the span covers the Hibernate flush and commit while calls rejected by the limiter get none.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class TaskServiceObservationAspect {
+
+    private final ObservationRegistry observationRegistry;
+
+    @Around("execution(public * com.kanban.service.TaskService.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        return Observation.createNotStarted("task.service", observationRegistry)
+                .contextualName("TaskService#" + method)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked((Observation.CheckedCallable<Object, Throwable>) joinPoint::proceed);
+    }
+}
@@ -0,0 +1,93 @@
+package com.kanban.config;
+
+import com.kanban.security.JwtTokenProvider;
+import com.kanban.security.TenantContext;
+import com.kanban.service.WebSocketNotificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * Keeps STOMP subscriptions inside the subscriber's tenant.
+ * <p>
+ * The tenant is taken from the JWT in the {@code Authorization} header of the CONNECT frame and
+ * stored in the session; connections without a token belong to the default tenant. Under
+ * {@code /topic} a session may only subscribe to its own tenant's topic. Destinations with pattern
+ * characters are rejected everywhere, as the broker would match them against every tenant's topic.
+ * Clients may not SEND to {@code /topic} at all: the broker would deliver such a frame to the
+ * topic's subscribers as is, so any client could forge events into any tenant's feed.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantSubscriptionInterceptor implements ChannelInterceptor {
+
+    private static final String TENANT_ATTRIBUTE = "tenantId";
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final JwtTokenProvider tokenProvider;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        if (accessor.getCommand() == StompCommand.CONNECT && sessionAttributes != null) {
+            sessionAttributes.put(TENANT_ATTRIBUTE, resolveTenant(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String tenantId = tenantOf(sessionAttributes);
+            String destination = accessor.getDestination();
+            if (isPattern(destination)) {
+                throw new MessageDeliveryException("Subscription to a destination pattern is not allowed: " + destination);
+            }
+            if (isTopic(destination) && !destination.equals(WebSocketNotificationService.topicFor(tenantId))) {
+                throw new MessageDeliveryException("Subscription to another tenant's topic is not allowed: " + destination);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND && isTopic(accessor.getDestination())) {
+            throw new MessageDeliveryException("Sending to a topic is not allowed: " + accessor.getDestination());
+        }
+        return message;
+    }
+
+    /**
+     * Returns the tenant of a STOMP session, given its attributes.
+     */
+    public static String tenantOf(Map<String, Object> sessionAttributes) {
+        return sessionAttributes != null && sessionAttributes.get(TENANT_ATTRIBUTE) instanceof String id
+                ? id
+                : TenantContext.DEFAULT_TENANT;
+    }
+
+    /**
+     * The simple broker treats {@code *}, {@code **} and {@code {var}} in a subscription as an Ant
+     * pattern, so {@code /topic/tenants/*}{@code /tasks} would receive every tenant's events.
+     */
+    private static boolean isPattern(String destination) {
+        return destination != null
+                && (destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0);
+    }
+
+    private static boolean isTopic(String destination) {
+        return destination != null && destination.startsWith(TOPIC_PREFIX);
+    }
+
+    private String resolveTenant(String authorization) {
+        if (StringUtils.hasText(authorization) && authorization.startsWith("Bearer ")) {
+            String jwt = authorization.substring(7);
+            if (tokenProvider.validateToken(jwt)) {
+                return tokenProvider.getTenantFromToken(jwt);
+            }
+        }
+        return TenantContext.DEFAULT_TENANT;
+    }
+}
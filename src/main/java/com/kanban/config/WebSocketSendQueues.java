@@ -0,0 +1,349 @@
+package com.kanban.config;
+
+import com.kanban.service.SenderPool;
+import com.kanban.service.WebSocketNotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gives every WebSocket session a bounded outbound queue of its own, so that a client on a bad
+ * network only slows down itself.
+ * <p>
+ * Otherwise frames are written by the broker's outbound channel threads. Because publish order is
+ * preserved, a blocked write holds back every later frame of the session in an unbounded queue, and
+ * a few stalled sessions tie up all outbound threads. Here {@code sendMessage} only queues the
+ * frame, and a small pool of sender threads writes each session's queue in order. A queued task
+ * update is dropped once a newer update of the same task is queued
+ * ({@code websocket.send.conflate-updates}). A session is closed when its queue still exceeds
+ * {@code websocket.send.buffer-size-limit}, or when one write takes longer than
+ * {@code websocket.send.time-limit}. The client then reconnects and catches up through the
+ * {@link com.kanban.service.TaskEventLog}.
+ * <p>
+ * Closing a session writes a close frame, which waits behind a stalled write, so sessions are
+ * closed on threads of their own. The time limit is also handed to Tomcat as the session's
+ * blocking send timeout, which makes a stalled write fail instead of blocking indefinitely; until
+ * it does, the {@link SenderPool} runs a replacement for the thread stuck in it.
+ */
+@Component
+@Slf4j
+public class WebSocketSendQueues implements WebSocketHandlerDecoratorFactory {
+
+    static final CloseStatus TOO_SLOW = CloseStatus.SESSION_NOT_RELIABLE.withReason("Client is not keeping up");
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "destination:";
+    private static final String TASK_ID_HEADER = WebSocketNotificationService.TASK_ID_HEADER + ":";
+    /**
+     * Session property read by Tomcat as the timeout, in milliseconds, of a blocking write.
+     */
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final long sendTimeLimitNanos;
+    private final long bufferSizeLimit;
+    private final boolean conflateUpdates;
+    private final SenderPool senders;
+    private final ExecutorService closers;
+    private final Map<String, QueuedSession> sessions = new ConcurrentHashMap<>();
+    private final DistributionSummary queueDepth;
+    private final Counter conflated;
+    private final Counter discarded;
+    private final Counter bufferLimitCloses;
+    private final Counter sendTimeLimitCloses;
+
+    public WebSocketSendQueues(MeterRegistry meterRegistry,
+                               @Value("${websocket.send.time-limit:PT10S}") Duration sendTimeLimit,
+                               @Value("${websocket.send.buffer-size-limit:512KB}") DataSize bufferSizeLimit,
+                               @Value("${websocket.send.conflate-updates:true}") boolean conflateUpdates,
+                               @Value("${websocket.send.sender-threads:8}") int senderThreads) {
+        this.sendTimeLimitNanos = sendTimeLimit.toNanos();
+        this.bufferSizeLimit = bufferSizeLimit.toBytes();
+        this.conflateUpdates = conflateUpdates;
+        this.senders = new SenderPool("websocket-send-", senderThreads);
+        CustomizableThreadFactory closerThreadFactory = new CustomizableThreadFactory("websocket-close-");
+        closerThreadFactory.setDaemon(true);
+        this.closers = Executors.newCachedThreadPool(closerThreadFactory);
+        this.queueDepth = DistributionSummary.builder("websocket.send.queue.depth")
+                .description("Frames queued in a session when another one is added")
+                .baseUnit("frames")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.conflated = Counter.builder("websocket.send.dropped").tag("reason", "conflated").register(meterRegistry);
+        this.discarded = Counter.builder("websocket.send.dropped").tag("reason", "session-closed").register(meterRegistry);
+        this.bufferLimitCloses = Counter.builder("websocket.send.slow_sessions_closed").tag("limit", "buffer-size").register(meterRegistry);
+        this.sendTimeLimitCloses = Counter.builder("websocket.send.slow_sessions_closed").tag("limit", "send-time").register(meterRegistry);
+        Gauge.builder("websocket.send.queued", sessions,
+                        map -> map.values().stream().mapToLong(QueuedSession::queuedBytes).sum())
+                .description("Bytes queued for all sessions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                limitBlockingWrites(session);
+                QueuedSession queued = new QueuedSession(session);
+                sessions.put(session.getId(), queued);
+                super.afterConnectionEstablished(queued);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                super.handleMessage(queuedOrSelf(session), message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                super.handleTransportError(queuedOrSelf(session), exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                QueuedSession queued = sessions.remove(session.getId());
+                if (queued != null) {
+                    queued.discard();
+                }
+                super.afterConnectionClosed(queued != null ? queued : session, closeStatus);
+            }
+
+            private WebSocketSession queuedOrSelf(WebSocketSession session) {
+                QueuedSession queued = sessions.get(session.getId());
+                return queued != null ? queued : session;
+            }
+        };
+    }
+
+    /**
+     * Closes sessions whose current write has been blocked for longer than the send time limit.
+     */
+    @Scheduled(fixedDelayString = "${websocket.send.check-interval:PT1S}")
+    public void closeStalledSessions() {
+        long now = System.nanoTime();
+        for (QueuedSession session : sessions.values()) {
+            long started = session.sendStarted;
+            if (started != 0 && now - started > sendTimeLimitNanos && session.closeTooSlow()) {
+                log.info("Closed WebSocket session {}: a write has been blocked for over {} ms",
+                        session.getId(), Duration.ofNanos(sendTimeLimitNanos).toMillis());
+                sendTimeLimitCloses.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        closers.shutdownNow();
+    }
+
+    private void limitBlockingWrites(WebSocketSession session) {
+        Session nativeSession = session.getNativeSession(Session.class);
+        if (nativeSession != null) {
+            nativeSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, Duration.ofNanos(sendTimeLimitNanos).toMillis());
+        }
+    }
+
+    /**
+     * Returns the key under which a frame supersedes earlier queued frames, or {@code null} when it
+     * must be delivered. Only MESSAGE frames carrying the task id header qualify, keyed by their
+     * destination and task. Just the headers are scanned, never the body.
+     */
+    static String conflationKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text) || !text.getPayload().startsWith(MESSAGE_FRAME)) {
+            return null;
+        }
+        String frame = text.getPayload();
+        String destination = null;
+        String taskId = null;
+        int start = MESSAGE_FRAME.length();
+        int end;
+        // Headers end at the first empty line
+        while ((end = frame.indexOf('\n', start)) > start) {
+            if (frame.startsWith(DESTINATION_HEADER, start)) {
+                destination = frame.substring(start + DESTINATION_HEADER.length(), end);
+            } else if (frame.startsWith(TASK_ID_HEADER, start)) {
+                taskId = frame.substring(start + TASK_ID_HEADER.length(), end);
+            }
+            start = end + 1;
+        }
+        return taskId != null ? destination + ' ' + taskId : null;
+    }
+
+    /**
+     * A session whose {@code sendMessage} queues the frame. Frames are written in order by at most
+     * one sender thread at a time. Frames that cannot be conflated are keyed by a fresh object, so
+     * the map keeps every frame in arrival order. Re-inserting a conflatable frame moves it to the
+     * end, which keeps sequence numbers increasing.
+     */
+    final class QueuedSession extends WebSocketSessionDecorator {
+
+        private final LinkedHashMap<Object, WebSocketMessage<?>> queue = new LinkedHashMap<>();
+        private long queuedBytes;
+        private boolean sending;
+        private boolean closed;
+        /**
+         * {@link System#nanoTime()} when the write in progress started, 0 when none is.
+         */
+        private volatile long sendStarted;
+        /**
+         * Set when the session was closed during a write, whose thread the pool then replaced.
+         */
+        private boolean abandoned;
+
+        QueuedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) {
+            synchronized (this) {
+                if (closed) {
+                    discarded.increment();
+                    return;
+                }
+                Object key = conflateUpdates ? conflationKey(message) : null;
+                if (key == null) {
+                    key = new Object();
+                } else {
+                    WebSocketMessage<?> superseded = queue.remove(key);
+                    if (superseded != null) {
+                        queuedBytes -= superseded.getPayloadLength();
+                        conflated.increment();
+                    }
+                }
+                queueDepth.record(queue.size());
+                queue.put(key, message);
+                queuedBytes += message.getPayloadLength();
+                if (queuedBytes <= bufferSizeLimit) {
+                    scheduleSend();
+                    return;
+                }
+            }
+            if (closeTooSlow()) {
+                log.info("Closed WebSocket session {}: more than {} bytes queued", getId(), bufferSizeLimit);
+                bufferLimitCloses.increment();
+            }
+        }
+
+        synchronized long queuedBytes() {
+            return queuedBytes;
+        }
+
+        /**
+         * @return whether this call closed the session
+         */
+        boolean closeTooSlow() {
+            if (!discard()) {
+                return false;
+            }
+            // Closing writes a close frame, which can block as long as the stalled write
+            closers.execute(() -> {
+                try {
+                    getDelegate().close(TOO_SLOW);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Cannot close WebSocket session {}", getId(), e);
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Stops accepting frames and drops the queued ones.
+         *
+         * @return whether the session was still open
+         */
+        synchronized boolean discard() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            discarded.increment(queue.size());
+            queue.clear();
+            queuedBytes = 0;
+            if (sendStarted != 0) {
+                abandoned = true;
+                senders.abandon();
+            }
+            return true;
+        }
+
+        private void scheduleSend() {
+            if (!sending && !queue.isEmpty()) {
+                sending = true;
+                senders.execute(this::sendQueued);
+            }
+        }
+
+        private void sendQueued() {
+            while (true) {
+                WebSocketMessage<?> message;
+                synchronized (this) {
+                    message = closed ? null : poll();
+                    if (message == null) {
+                        sending = false;
+                        return;
+                    }
+                    sendStarted = System.nanoTime();
+                }
+                boolean failed = false;
+                try {
+                    getDelegate().sendMessage(message);
+                } catch (IOException | RuntimeException e) {
+                    // The container reports the broken connection through afterConnectionClosed
+                    log.debug("Cannot write to WebSocket session {}", getId(), e);
+                    failed = true;
+                }
+                synchronized (this) {
+                    sendStarted = 0;
+                    if (abandoned) {
+                        senders.abandonedWriteReturned();
+                        return;
+                    }
+                }
+                if (failed) {
+                    discard();
+                    return;
+                }
+            }
+        }
+
+        private WebSocketMessage<?> poll() {
+            Iterator<WebSocketMessage<?>> messages = queue.values().iterator();
+            if (!messages.hasNext()) {
+                return null;
+            }
+            WebSocketMessage<?> message = messages.next();
+            messages.remove();
+            queuedBytes -= message.getPayloadLength();
+            return message;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.kanban.controller;
 
 import com.kanban.security.JwtTokenProvider;
+import com.kanban.security.TenantContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.Data;
@@ -22,17 +23,22 @@ public class AuthController {
     private final JwtTokenProvider jwtTokenProvider;
 
     @PostMapping("/login")
-    @Operation(summary = "Login", description = "Simple login endpoint that returns a JWT token")
+    @Operation(summary = "Login", description = "Simple login endpoint that returns a JWT token scoped to a tenant")
     public ResponseEntity<Map<String, String>> login(@RequestBody LoginRequest request) {
         // Simple authentication - in production, validate against user database
-        String token = jwtTokenProvider.generateToken(request.getUsername());
-        return ResponseEntity.ok(Map.of("token", token));
+        String tenantId = request.getTenant() != null ? request.getTenant() : TenantContext.DEFAULT_TENANT;
+        if (!TenantContext.isValidTenantId(tenantId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid tenant: " + tenantId));
+        }
+        String token = jwtTokenProvider.generateToken(request.getUsername(), tenantId);
+        return ResponseEntity.ok(Map.of("token", token, "tenant", tenantId));
     }
 
     @Data
     public static class LoginRequest {
         private String username;
         private String password;
+        private String tenant;
     }
 }
 
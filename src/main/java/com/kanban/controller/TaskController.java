@@ -1,9 +1,25 @@
 package com.kanban.controller;
 
+import com.kanban.dto.TaskFacetPageDto;
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.dto.TaskHistoryPageDto;
+import com.kanban.dto.TaskImportResultDto;
+import com.kanban.dto.TaskMoveRequestDto;
 import com.kanban.dto.TaskRequestDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
+import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import com.kanban.service.IdempotencyService;
+import com.kanban.service.TaskEventStream;
+import com.kanban.service.TaskHistoryService;
+import com.kanban.service.TaskImportService;
+import com.kanban.service.TaskReadModel;
 import com.kanban.service.TaskService;
+import com.kanban.service.TaskTitleIndex;
+import com.kanban.service.TaskUpdateResult;
+import com.kanban.service.TaskWriteQueue;
 import com.kanban.service.WebSocketNotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +28,20 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -25,17 +50,67 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskWriteQueue taskWriteQueue;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final IdempotencyService idempotencyService;
+    private final TaskHistoryService taskHistoryService;
+    private final TaskReadModel taskReadModel;
+    private final TaskTitleIndex taskTitleIndex;
+    private final TaskImportService taskImportService;
+    private final TaskEventStream taskEventStream;
 
     @GetMapping
     @Operation(summary = "List tasks", description = "Get paginated list of tasks with optional filtering by status")
     public ResponseEntity<Page<TaskResponseDto>> getAllTasks(
             @Parameter(description = "Filter by task status") @RequestParam(required = false) TaskStatus status,
             @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
-        Page<TaskResponseDto> tasks = taskService.getAllTasks(status, pageable);
+        Page<TaskResponseDto> tasks = taskReadModel.findAll(status, pageable)
+                .orElseGet(() -> taskService.getAllTasks(status, pageable));
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search tasks", description = "Filter tasks by any combination of statuses, priorities and creation range, "
+            + "with the number of matches per status and priority. With the facet index enabled, only sort=id is answered from "
+            + "memory; other sort orders are queried from the database")
+    public ResponseEntity<TaskFacetPageDto> searchTasks(
+            @Parameter(description = "Match any of these statuses") @RequestParam(required = false) Set<TaskStatus> status,
+            @Parameter(description = "Match any of these priorities") @RequestParam(required = false) Set<TaskPriority> priority,
+            @Parameter(description = "Created at or after") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Created before") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        TaskFilterDto filter = TaskFilterDto.builder()
+                .statuses(status)
+                .priorities(priority)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .build();
+        return ResponseEntity.ok(taskService.searchTasks(filter, pageable));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest tasks", description = "Type-ahead title search: tasks with a title word starting with each word of the prefix, "
+            + "highest priority and most recently updated first")
+    public ResponseEntity<List<TaskSuggestionDto>> suggestTasks(
+            @Parameter(description = "Text typed so far") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (max 25)") @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 25));
+        List<TaskSuggestionDto> suggestions = taskTitleIndex.suggest(prefix, boundedLimit)
+                .orElseGet(() -> taskService.suggestTasks(prefix, boundedLimit));
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task events", description = "Server-Sent Events feed of the task events sent to WebSocket subscribers. "
+            + "Send Last-Event-ID to resume after a disconnect")
+    public SseEmitter streamTasks(
+            @Parameter(description = "Only report tasks with these statuses") @RequestParam(required = false) List<TaskStatus> status,
+            @Parameter(description = "Sequence of the last event received") @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return taskEventStream.subscribe(TenantContext.currentTenant(), status, lastEventId);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get task details", description = "Get task by ID")
     public ResponseEntity<TaskResponseDto> getTaskById(
@@ -45,35 +120,77 @@ public class TaskController {
     }
 
     @PostMapping
-    @Operation(summary = "Create task", description = "Create a new task")
-    public ResponseEntity<TaskResponseDto> createTask(@Valid @RequestBody TaskRequestDto taskRequestDto) {
-        TaskResponseDto createdTask = taskService.createTask(taskRequestDto);
-        webSocketNotificationService.notifyTaskCreated(createdTask);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+    @Operation(summary = "Create task", description = "Create a new task. Retries carrying the same Idempotency-Key replay the original response")
+    public ResponseEntity<TaskResponseDto> createTask(
+            @Parameter(description = "Client generated key that makes retries safe") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody TaskRequestDto taskRequestDto) {
+        IdempotencyService.Result<TaskResponseDto> result = idempotencyService.execute(
+                idempotencyKey, "POST /api/tasks", taskRequestDto, TaskResponseDto.class, () -> {
+                    TaskResponseDto createdTask = taskService.createTask(taskRequestDto);
+                    webSocketNotificationService.notifyTaskCreated(createdTask);
+                    return createdTask;
+                });
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.response());
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import tasks", description = "Bulk import tasks from CSV with a header row or newline-delimited JSON. "
+            + "Invalid rows are skipped and reported; subscribers get a single IMPORTED event")
+    public ResponseEntity<TaskImportResultDto> importTasks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        TaskImportService.Format format = MediaType.valueOf("text/csv").includes(contentType)
+                ? TaskImportService.Format.CSV
+                : TaskImportService.Format.NDJSON;
+        TaskImportResultDto result = taskImportService.importTasks(body, format);
+        webSocketNotificationService.notifyTasksImported(result);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get task history", description = "Get the change history of a task, newest first, using keyset pagination")
+    public ResponseEntity<TaskHistoryPageDto> getTaskHistory(
+            @Parameter(description = "Task ID") @PathVariable Long id,
+            @Parameter(description = "Cursor from the previous page's nextCursor") @RequestParam(required = false) String before,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size) {
+        TaskHistoryPageDto history = taskHistoryService.getHistory(id, before, Math.max(1, Math.min(size, 100)));
+        return ResponseEntity.ok(history);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update task", description = "Full update of a task (uses optimistic locking)")
+    @Operation(summary = "Update task", description = "Full update of a task (uses optimistic locking). A request that changes nothing is not written")
     public ResponseEntity<TaskResponseDto> updateTask(
             @Parameter(description = "Task ID") @PathVariable Long id,
             @Valid @RequestBody TaskRequestDto taskRequestDto) {
-        TaskResponseDto updatedTask = taskService.updateTask(id, taskRequestDto);
-        webSocketNotificationService.notifyTaskUpdated(updatedTask);
-        return ResponseEntity.ok(updatedTask);
+        TaskUpdateResult update = taskWriteQueue.updateTask(id, taskRequestDto);
+        webSocketNotificationService.notifyTaskUpdated(update);
+        return ResponseEntity.ok(update.task());
     }
 
     @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
-    @Operation(summary = "Partial update task", description = "Partial update of a task using JSON Merge Patch")
+    @Operation(summary = "Partial update task", description = "Partial update of a task using JSON Merge Patch. A patch that changes nothing is not written")
     public ResponseEntity<TaskResponseDto> partialUpdateTask(
             @Parameter(description = "Task ID") @PathVariable Long id,
             @RequestBody TaskRequestDto taskRequestDto) {
-        TaskResponseDto updatedTask = taskService.partialUpdateTask(id, taskRequestDto);
-        webSocketNotificationService.notifyTaskUpdated(updatedTask);
-        return ResponseEntity.ok(updatedTask);
+        TaskUpdateResult update = taskWriteQueue.partialUpdateTask(id, taskRequestDto);
+        webSocketNotificationService.notifyTaskUpdated(update);
+        return ResponseEntity.ok(update.task());
+    }
+
+    @PostMapping("/{id}/move")
+    @Operation(summary = "Move task", description = "Move a task to another column and/or position between two neighbours")
+    public ResponseEntity<TaskResponseDto> moveTask(
+            @Parameter(description = "Task ID") @PathVariable Long id,
+            @RequestBody TaskMoveRequestDto moveRequestDto) {
+        TaskResponseDto movedTask = taskWriteQueue.moveTask(id, moveRequestDto);
+        webSocketNotificationService.notifyTaskUpdated(movedTask);
+        return ResponseEntity.ok(movedTask);
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete task", description = "Delete a task by ID")
+    @Operation(summary = "Delete task", description = "Delete a task by ID. The task can be restored until it is purged")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<Void> deleteTask(
             @Parameter(description = "Task ID") @PathVariable Long id) {
@@ -81,5 +198,14 @@ public class TaskController {
         webSocketNotificationService.notifyTaskDeleted(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restore task", description = "Restore a deleted task that has not been purged yet")
+    public ResponseEntity<TaskResponseDto> restoreTask(
+            @Parameter(description = "Task ID") @PathVariable Long id) {
+        TaskResponseDto restoredTask = taskService.restoreTask(id);
+        webSocketNotificationService.notifyTaskRestored(restoredTask);
+        return ResponseEntity.ok(restoredTask);
+    }
 }
 
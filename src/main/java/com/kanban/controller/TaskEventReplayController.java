@@ -0,0 +1,30 @@
+package com.kanban.controller;
+
+import com.kanban.config.TenantSubscriptionInterceptor;
+import com.kanban.service.TaskEventLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Lets a reconnecting WebSocket client catch up on the events it missed.
+ */
+@Controller
+@RequiredArgsConstructor
+public class TaskEventReplayController {
+
+    private final TaskEventLog taskEventLog;
+
+    /**
+     * Subscribing to {@code /app/tasks/replay} with a {@code last-sequence} header answers once,
+     * on that subscription, with the events of the session's tenant after that sequence.
+     */
+    @SubscribeMapping("/tasks/replay")
+    public TaskEventLog.Replay replay(@Header(name = "last-sequence", required = false) Long lastSequence,
+                                     SimpMessageHeaderAccessor headerAccessor) {
+        String tenantId = TenantSubscriptionInterceptor.tenantOf(headerAccessor.getSessionAttributes());
+        return taskEventLog.replay(tenantId, lastSequence);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kanban.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batched partial update: the task to change and its merge-patch style changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskBatchUpdateDto {
+
+    private Long id;
+
+    private TaskRequestDto changes;
+}
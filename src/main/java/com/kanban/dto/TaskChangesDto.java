@@ -0,0 +1,31 @@
+package com.kanban.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Payload of a {@code CHANGED} event: only the fields an update changed, keyed by field name.
+ * A cleared description is present with a {@code null} value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesDto {
+    private Long id;
+    private Long version;
+    private LocalDateTime updatedAt;
+    private Map<String, Object> changes;
+    /**
+     * Status before the update when {@code changes} holds a new status; absent otherwise.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TaskStatus previousStatus;
+}
@@ -0,0 +1,30 @@
+package com.kanban.dto;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of search results with facet counts. The count of a status is the number of tasks with
+ * that status matching every criterion except the statuses, so that a client can show how many
+ * results selecting it would add; priorities are counted the same way.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFacetPageDto {
+    private List<TaskResponseDto> content;
+    private long totalElements;
+    private int number;
+    private int size;
+    private List<FacetCount<TaskStatus>> statusCounts;
+    private List<FacetCount<TaskPriority>> priorityCounts;
+
+    public record FacetCount<T>(T value, long count) {}
+}
@@ -0,0 +1,28 @@
+package com.kanban.dto;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Criteria of a task search. The criteria are combined with AND, the values of one criterion
+ * with OR; an empty or {@code null} criterion matches every task.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilterDto {
+    private Set<TaskStatus> statuses;
+    private Set<TaskPriority> priorities;
+    /** Inclusive lower bound of {@code createdAt} */
+    private LocalDateTime createdFrom;
+    /** Exclusive upper bound of {@code createdAt} */
+    private LocalDateTime createdTo;
+}
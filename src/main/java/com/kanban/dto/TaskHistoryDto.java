@@ -0,0 +1,28 @@
+package com.kanban.dto;
+
+import com.kanban.model.TaskHistoryAction;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistoryDto {
+    private Long id;
+    private Long taskId;
+    private TaskHistoryAction action;
+    private String changedBy;
+    private LocalDateTime changedAt;
+    private TaskStatus fromStatus;
+    private TaskStatus toStatus;
+    private String title;
+    private TaskPriority priority;
+    private String rank;
+}
@@ -0,0 +1,21 @@
+package com.kanban.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of task history, newest first. {@code nextCursor} is passed back as {@code before}
+ * to fetch the following page and is {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistoryPageDto {
+    private List<TaskHistoryDto> content;
+    private String nextCursor;
+}
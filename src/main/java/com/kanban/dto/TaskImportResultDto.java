@@ -0,0 +1,29 @@
+package com.kanban.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rejected rows are skipped while the valid ones are imported;
+ * {@code errors} describes the first of them, up to {@code task-import.max-reported-errors}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportResultDto {
+    private long imported;
+    private long rejected;
+    private List<RowError> errors;
+
+    /**
+     * @param row     1-based position of the record in the input, not counting a CSV header
+     * @param message what is wrong with it
+     */
+    public record RowError(long row, String message) {
+    }
+}
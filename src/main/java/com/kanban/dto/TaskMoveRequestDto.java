@@ -0,0 +1,24 @@
+package com.kanban.dto;
+
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Target of a move: the column and the neighbours the task should be placed between.
+ * Without neighbours the task is moved to the bottom of the column.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskMoveRequestDto {
+
+    private TaskStatus status;
+
+    private Long afterTaskId;
+
+    private Long beforeTaskId;
+}
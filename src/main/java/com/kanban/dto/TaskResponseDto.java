@@ -1,5 +1,6 @@
 package com.kanban.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
 import lombok.AllArgsConstructor;
@@ -19,8 +20,14 @@ public class TaskResponseDto {
     private String description;
     private TaskStatus status;
     private TaskPriority priority;
+    private String rank;
     private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    /**
+     * Status before a write that moved the task to another column; absent otherwise.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TaskStatus previousStatus;
 }
 
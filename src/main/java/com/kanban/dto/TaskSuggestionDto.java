@@ -0,0 +1,22 @@
+package com.kanban.dto;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A task offered by the type-ahead title search, with just enough to display and open it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSuggestionDto {
+    private Long id;
+    private String title;
+    private TaskStatus status;
+    private TaskPriority priority;
+}
@@ -10,11 +10,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tasks")
+@DynamicUpdate
+@SQLDelete(sql = "UPDATE tasks SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND version = ?")
+@SQLRestriction("deleted_at IS NULL")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +32,14 @@ public class Task {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Owning tenant, assigned from the current request on insert. Hibernate restricts every
+     * query on tasks to the current tenant.
+     */
+    @TenantId
+    @Column(nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @NotBlank
     @Size(max = 255)
     @Column(nullable = false)
@@ -45,6 +60,12 @@ public class Task {
     @Builder.Default
     private TaskPriority priority = TaskPriority.MED;
 
+    /**
+     * Lexicographic position of the task inside its status column, see {@link com.kanban.service.LexoRank}.
+     */
+    @Column(name = "rank", nullable = false)
+    private String rank;
+
     @Version
     private Long version;
 
@@ -54,6 +75,12 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Set when the task is deleted; the row is kept as a tombstone until it is purged.
+     * Deleted tasks are invisible to every entity query.
+     */
+    private LocalDateTime deletedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,71 @@
+package com.kanban.entity;
+
+import com.kanban.model.TaskHistoryAction;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of a change to a task. Rows carry a snapshot of the task after the change
+ * (empty for deletions) and are never updated.
+ * <p>
+ * The table is range-partitioned by {@code changed_at}; ids come from a sequence with a large
+ * increment so inserts need no round trip per row and can be sent as one JDBC batch.
+ */
+@Entity
+@Table(name = "task_history")
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_history_id_seq")
+    @SequenceGenerator(name = "task_history_id_seq", sequenceName = "task_history_id_seq", allocationSize = 50)
+    private Long id;
+
+    @TenantId
+    @Column(nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false, updatable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TaskHistoryAction action;
+
+    @Column(nullable = false, updatable = false)
+    private String changedBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private TaskStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private TaskStatus toStatus;
+
+    @Column(updatable = false)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    private TaskPriority priority;
+
+    @Column(name = "rank", updatable = false)
+    private String rank;
+}
@@ -0,0 +1,7 @@
+package com.kanban.exception;
+
+public class ConflictingUpdateException extends RuntimeException {
+    public ConflictingUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.kanban.exception;
+
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
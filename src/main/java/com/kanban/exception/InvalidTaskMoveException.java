@@ -0,0 +1,7 @@
+package com.kanban.exception;
+
+public class InvalidTaskMoveException extends RuntimeException {
+    public InvalidTaskMoveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.kanban.graphql;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Exposes the {@code Idempotency-Key} HTTP header to mutation handlers through the GraphQL context.
+ */
+@Component
+public class IdempotencyKeyInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CONTEXT_KEY = "idempotencyKey";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String idempotencyKey = request.getHeaders().getFirst("Idempotency-Key");
+        if (StringUtils.hasText(idempotencyKey)) {
+            request.configureExecutionInput((executionInput, builder) ->
+                    builder.graphQLContext(Map.of(CONTEXT_KEY, idempotencyKey)).build());
+        }
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,34 @@
+package com.kanban.graphql;
+
+import com.kanban.exception.ServiceOverloadedException;
+import graphql.ErrorClassification;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.schema.DataFetchingEnvironment;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reports a call shed by the concurrency limiter as a retryable {@code UNAVAILABLE} error,
+ * the GraphQL counterpart of the REST {@code 503} with {@code Retry-After: 1}, instead of an
+ * opaque internal error.
+ */
+@Component
+public class ServiceOverloadedExceptionResolver extends DataFetcherExceptionResolverAdapter {
+
+    static final ErrorClassification UNAVAILABLE = ErrorClassification.errorClassification("UNAVAILABLE");
+
+    @Override
+    protected GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+        if (ex instanceof ServiceOverloadedException) {
+            return GraphqlErrorBuilder.newError(env)
+                    .errorType(UNAVAILABLE)
+                    .message(ex.getMessage())
+                    .extensions(Map.of("retryAfterSeconds", 1))
+                    .build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.kanban.graphql;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+
+public record TaskBatchUpdateInput(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority
+) {}
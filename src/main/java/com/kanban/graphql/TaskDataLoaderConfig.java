@@ -0,0 +1,20 @@
+package com.kanban.graphql;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.service.TaskService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Registers the task DataLoader: every {@code task(id:)} and {@code tasksByIds} lookup in one
+ * GraphQL operation is deduplicated and fetched with a single query.
+ */
+@Configuration
+public class TaskDataLoaderConfig {
+
+    public TaskDataLoaderConfig(BatchLoaderRegistry registry, TaskService taskService) {
+        registry.forTypePair(Long.class, TaskResponseDto.class)
+                .registerMappedBatchLoader((ids, environment) -> Mono.fromCallable(() -> taskService.getTasksByIds(ids)));
+    }
+}
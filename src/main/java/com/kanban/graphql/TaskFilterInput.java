@@ -0,0 +1,14 @@
+package com.kanban.graphql;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TaskFilterInput(
+        List<TaskStatus> statuses,
+        List<TaskPriority> priorities,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo
+) {}
@@ -0,0 +1,9 @@
+package com.kanban.graphql;
+
+import com.kanban.model.TaskStatus;
+
+public record TaskMoveInput(
+        TaskStatus status,
+        Long afterTaskId,
+        Long beforeTaskId
+) {}
@@ -1,32 +1,48 @@
 package com.kanban.graphql;
 
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskMoveRequestDto;
 import com.kanban.dto.TaskRequestDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.service.IdempotencyService;
+import com.kanban.service.TaskBatchUpdateResult;
 import com.kanban.service.TaskService;
+import com.kanban.service.TaskUpdateResult;
+import com.kanban.service.TaskWriteQueue;
 import com.kanban.service.WebSocketNotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 @RequiredArgsConstructor
 public class TaskMutationResolver {
 
     private final TaskService taskService;
+    private final TaskWriteQueue taskWriteQueue;
     private final WebSocketNotificationService webSocketNotificationService;
+    private final IdempotencyService idempotencyService;
 
     @MutationMapping
-    public TaskResponseDto createTask(@Argument("input") TaskInput input) {
+    public TaskResponseDto createTask(
+            @Argument("input") TaskInput input,
+            @ContextValue(name = IdempotencyKeyInterceptor.CONTEXT_KEY, required = false) String idempotencyKey) {
         TaskRequestDto requestDto = TaskRequestDto.builder()
                 .title(input.title())
                 .description(input.description())
                 .status(input.status())
                 .priority(input.priority())
                 .build();
-        TaskResponseDto createdTask = taskService.createTask(requestDto);
-        webSocketNotificationService.notifyTaskCreated(createdTask);
-        return createdTask;
+        return idempotencyService.execute(
+                idempotencyKey, "graphql:createTask", requestDto, TaskResponseDto.class, () -> {
+                    TaskResponseDto createdTask = taskService.createTask(requestDto);
+                    webSocketNotificationService.notifyTaskCreated(createdTask);
+                    return createdTask;
+                }).response();
     }
 
     @MutationMapping
@@ -39,9 +55,9 @@ public class TaskMutationResolver {
                 .status(input.status())
                 .priority(input.priority())
                 .build();
-        TaskResponseDto updatedTask = taskService.updateTask(id, requestDto);
-        webSocketNotificationService.notifyTaskUpdated(updatedTask);
-        return updatedTask;
+        TaskUpdateResult update = taskWriteQueue.updateTask(id, requestDto);
+        webSocketNotificationService.notifyTaskUpdated(update);
+        return update.task();
     }
 
     @MutationMapping
@@ -54,9 +70,44 @@ public class TaskMutationResolver {
                 .status(input.status())
                 .priority(input.priority())
                 .build();
-        TaskResponseDto updatedTask = taskService.partialUpdateTask(id, requestDto);
-        webSocketNotificationService.notifyTaskUpdated(updatedTask);
-        return updatedTask;
+        TaskUpdateResult update = taskWriteQueue.partialUpdateTask(id, requestDto);
+        webSocketNotificationService.notifyTaskUpdated(update);
+        return update.task();
+    }
+
+    @MutationMapping
+    public TaskResponseDto moveTask(
+            @Argument Long id,
+            @Argument("input") TaskMoveInput input) {
+        TaskMoveRequestDto moveRequestDto = TaskMoveRequestDto.builder()
+                .status(input.status())
+                .afterTaskId(input.afterTaskId())
+                .beforeTaskId(input.beforeTaskId())
+                .build();
+        TaskResponseDto movedTask = taskWriteQueue.moveTask(id, moveRequestDto);
+        webSocketNotificationService.notifyTaskUpdated(movedTask);
+        return movedTask;
+    }
+
+    @MutationMapping
+    public List<TaskResponseDto> batchUpdateTasks(@Argument("inputs") List<TaskBatchUpdateInput> inputs) {
+        List<TaskBatchUpdateDto> updates = inputs.stream()
+                .map(input -> TaskBatchUpdateDto.builder()
+                        .id(input.id())
+                        .changes(TaskRequestDto.builder()
+                                .title(input.title())
+                                .description(input.description())
+                                .status(input.status())
+                                .priority(input.priority())
+                                .build())
+                        .build())
+                .toList();
+        TaskBatchUpdateResult result = taskWriteQueue.batchPartialUpdateTasks(updates);
+        // Unchanged tasks are not announced, and a batch that changed nothing sends no event at all
+        if (!result.changed().isEmpty()) {
+            webSocketNotificationService.notifyTasksUpdated(result.changed());
+        }
+        return result.tasks();
     }
 
     @MutationMapping
@@ -65,5 +116,12 @@ public class TaskMutationResolver {
         webSocketNotificationService.notifyTaskDeleted(id);
         return true;
     }
+
+    @MutationMapping
+    public TaskResponseDto restoreTask(@Argument Long id) {
+        TaskResponseDto restoredTask = taskService.restoreTask(id);
+        webSocketNotificationService.notifyTaskRestored(restoredTask);
+        return restoredTask;
+    }
 }
 
@@ -2,6 +2,7 @@ package com.kanban.graphql;
 
 import com.kanban.dto.TaskResponseDto;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -27,5 +28,21 @@ public record TaskPage(
                 page.isLast()
         );
     }
+
+    /**
+     * Builds a page without totals; only used when the query does not select them.
+     */
+    public static TaskPage from(Slice<TaskResponseDto> slice) {
+        return new TaskPage(
+                slice.getContent(),
+                null,
+                null,
+                slice.getNumber(),
+                slice.getSize(),
+                slice.getNumberOfElements(),
+                slice.isFirst(),
+                slice.isLast()
+        );
+    }
 }
 
@@ -1,9 +1,17 @@
 package com.kanban.graphql;
 
+import com.kanban.dto.TaskFacetPageDto;
+import com.kanban.dto.TaskFilterDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
+import com.kanban.exception.ResourceNotFoundException;
 import com.kanban.model.TaskStatus;
+import com.kanban.service.TaskReadModel;
 import com.kanban.service.TaskService;
+import com.kanban.service.TaskTitleIndex;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
+import org.dataloader.DataLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,46 +22,99 @@ import org.springframework.stereotype.Controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequiredArgsConstructor
 public class TaskQueryResolver {
 
     private final TaskService taskService;
+    private final TaskReadModel taskReadModel;
+    private final TaskTitleIndex taskTitleIndex;
 
     @QueryMapping
     public TaskPage tasks(
             @Argument TaskStatus status,
             @Argument Integer page,
             @Argument Integer size,
-            @Argument List<String> sort) {
+            @Argument List<String> sort,
+            DataFetchingFieldSelectionSet selectionSet) {
         
-        int pageNumber = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
+        Pageable pageable = pageRequest(page, size, sort, Sort.by("createdAt").descending());
         
-        Pageable pageable;
-        if (sort != null && !sort.isEmpty()) {
-            List<Sort.Order> orders = new ArrayList<>();
-            for (String sortParam : sort) {
-                String[] parts = sortParam.split(",");
-                String field = parts[0];
-                Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1])
-                        ? Sort.Direction.DESC
-                        : Sort.Direction.ASC;
-                orders.add(new Sort.Order(direction, field));
-            }
-            pageable = PageRequest.of(pageNumber, pageSize, Sort.by(orders));
-        } else {
-            pageable = PageRequest.of(pageNumber, pageSize, Sort.by("createdAt").descending());
+        Optional<Page<TaskResponseDto>> fromReadModel = taskReadModel.findAll(status, pageable);
+        if (fromReadModel.isPresent()) {
+            return TaskPage.from(fromReadModel.get());
+        }
+
+        // Totals need a count query; skip it when the client did not ask for them
+        if (!selectionSet.contains("totalElements") && !selectionSet.contains("totalPages")) {
+            return TaskPage.from(taskService.getTaskSlice(status, pageable));
         }
-        
         Page<TaskResponseDto> taskPage = taskService.getAllTasks(status, pageable);
         return TaskPage.from(taskPage);
     }
 
     @QueryMapping
-    public TaskResponseDto task(@Argument Long id) {
-        return taskService.getTaskById(id);
+    public TaskFacetPageDto filterTasks(
+            @Argument TaskFilterInput filter,
+            @Argument Integer page,
+            @Argument Integer size,
+            @Argument List<String> sort) {
+        TaskFilterDto filterDto = new TaskFilterDto();
+        if (filter != null) {
+            filterDto.setStatuses(filter.statuses() != null ? Set.copyOf(filter.statuses()) : null);
+            filterDto.setPriorities(filter.priorities() != null ? Set.copyOf(filter.priorities()) : null);
+            filterDto.setCreatedFrom(filter.createdFrom());
+            filterDto.setCreatedTo(filter.createdTo());
+        }
+        return taskService.searchTasks(filterDto, pageRequest(page, size, sort, Sort.by("id").descending()));
+    }
+
+    @QueryMapping
+    public List<TaskSuggestionDto> suggestTasks(@Argument String prefix, @Argument Integer limit) {
+        int boundedLimit = limit == null ? 10 : Math.max(1, Math.min(limit, 25));
+        return taskTitleIndex.suggest(prefix, boundedLimit)
+                .orElseGet(() -> taskService.suggestTasks(prefix, boundedLimit));
+    }
+
+    @QueryMapping
+    public CompletableFuture<TaskResponseDto> task(@Argument Long id, DataLoader<Long, TaskResponseDto> taskLoader) {
+        // The batch leaves unknown ids out; report them as before the lookups were batched
+        return taskLoader.load(id).thenApply(task -> {
+            if (task == null) {
+                throw new ResourceNotFoundException("Task not found with id: " + id);
+            }
+            return task;
+        });
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<TaskResponseDto>> tasksByIds(@Argument List<Long> ids,
+                                                               DataLoader<Long, TaskResponseDto> taskLoader) {
+        return taskLoader.loadMany(ids);
     }
-}
 
+    /**
+     * Builds a page request from {@code field,direction} sort strings, using {@code defaultSort} when none are given.
+     */
+    private static Pageable pageRequest(Integer page, Integer size, List<String> sort, Sort defaultSort) {
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? size : 20;
+        if (sort == null || sort.isEmpty()) {
+            return PageRequest.of(pageNumber, pageSize, defaultSort);
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String sortParam : sort) {
+            String[] parts = sortParam.split(",");
+            String field = parts[0];
+            Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1])
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            orders.add(new Sort.Order(direction, field));
+        }
+        return PageRequest.of(pageNumber, pageSize, Sort.by(orders));
+    }
+}
@@ -0,0 +1,11 @@
+package com.kanban.mapper;
+
+import com.kanban.dto.TaskHistoryDto;
+import com.kanban.entity.TaskHistory;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface TaskHistoryMapper {
+
+    TaskHistoryDto toDto(TaskHistory entity);
+}
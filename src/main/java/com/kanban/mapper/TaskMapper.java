@@ -2,6 +2,7 @@ package com.kanban.mapper;
 
 import com.kanban.dto.TaskRequestDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
 import com.kanban.entity.Task;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -15,22 +16,34 @@ public interface TaskMapper {
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "rank", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "status", expression = "java(dto.getStatus() != null ? dto.getStatus() : com.kanban.model.TaskStatus.TO_DO)")
     @Mapping(target = "priority", expression = "java(dto.getPriority() != null ? dto.getPriority() : com.kanban.model.TaskPriority.MED)")
     Task toEntity(TaskRequestDto dto);
 
+    @Mapping(target = "previousStatus", ignore = true)
     TaskResponseDto toDto(Task entity);
 
+    TaskSuggestionDto toSuggestionDto(Task entity);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "rank", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     void updateEntityFromDto(TaskRequestDto dto, @MappingTarget Task entity);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "rank", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "tenantId", ignore = true)
     @Mapping(target = "title", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "description", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "status", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -0,0 +1,9 @@
+package com.kanban.model;
+
+public enum TaskHistoryAction {
+    CREATED,
+    UPDATED,
+    MOVED,
+    DELETED,
+    RESTORED
+}
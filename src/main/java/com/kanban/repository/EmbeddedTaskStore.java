@@ -0,0 +1,672 @@
+package com.kanban.repository;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskStore} keeping tasks in a memory-mapped append-only {@link TaskLog} instead of
+ * Postgres, for small single-node deployments ({@code task-store.type=embedded}). History and
+ * idempotency keys still use the configured data source.
+ * <p>
+ * Every write appends the full task (or a tombstone when a task is purged) and points an
+ * off-heap index from the task id to the new record. On startup the log is replayed to rebuild
+ * the index, stopping at the first record a crash left incomplete. Superseded records are
+ * reclaimed by rewriting the live ones to a new file once they make up enough of the log.
+ * <p>
+ * Writes are applied immediately and serialized by a lock. Inside a transaction they are undone
+ * if it rolls back, unless another transaction has written the task since. Queries scan all live
+ * tasks, which suits boards of up to some tens of thousands of tasks. {@link #lockColumn} holds an
+ * in-process lock per column until the transaction completes; outside a transaction it does nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "task-store.type", havingValue = "embedded")
+@Slf4j
+public class EmbeddedTaskStore implements TaskStore {
+
+    private static final String LOG_FILE = "tasks.log";
+    private static final String COMPACTION_FILE = "tasks.log.compacting";
+    private static final byte PUT = 1;
+    private static final byte PURGE = 2;
+
+    private static final Map<String, Function<Task, Comparable<?>>> SORT_PROPERTIES = Map.of(
+            "id", Task::getId,
+            "title", Task::getTitle,
+            "description", Task::getDescription,
+            "status", Task::getStatus,
+            "priority", Task::getPriority,
+            "rank", Task::getRank,
+            "version", Task::getVersion,
+            "createdAt", Task::getCreatedAt,
+            "updatedAt", Task::getUpdatedAt);
+
+    private final Path directory;
+    private final long initialFileSize;
+    private final boolean syncOnWrite;
+    private final double compactionGarbageRatio;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OffHeapLongIndex index = new OffHeapLongIndex(1024);
+    private final Map<String, ReentrantLock> columnLocks = new ConcurrentHashMap<>();
+
+    // Guarded by lock
+    private TaskLog taskLog;
+    private long liveBytes;
+
+    public EmbeddedTaskStore(MeterRegistry meterRegistry,
+                             @Value("${task-store.embedded.directory:data}") Path directory,
+                             @Value("${task-store.embedded.initial-file-size:16MB}") DataSize initialFileSize,
+                             @Value("${task-store.embedded.sync-on-write:true}") boolean syncOnWrite,
+                             @Value("${task-store.embedded.compaction-garbage-ratio:0.5}") double compactionGarbageRatio) {
+        this.directory = directory;
+        this.initialFileSize = initialFileSize.toBytes();
+        this.syncOnWrite = syncOnWrite;
+        this.compactionGarbageRatio = compactionGarbageRatio;
+        open();
+
+        Gauge.builder("task_store.log.bytes", this, store -> store.readLocked(() -> store.taskLog.usedBytes()))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("task_store.log.live.bytes", this, store -> store.readLocked(() -> store.liveBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        List<Task> tasks = query(task -> true, pageable.getSort());
+        return new PageImpl<>(page(tasks, pageable), pageable, tasks.size());
+    }
+
+    @Override
+    public Page<Task> findByStatus(TaskStatus status, Pageable pageable) {
+        List<Task> tasks = query(task -> task.getStatus() == status, pageable.getSort());
+        return new PageImpl<>(page(tasks, pageable), pageable, tasks.size());
+    }
+
+    @Override
+    public Slice<Task> findSliceBy(Pageable pageable) {
+        List<Task> tasks = query(task -> true, pageable.getSort());
+        return new SliceImpl<>(page(tasks, pageable), pageable, pageable.getOffset() + pageable.getPageSize() < tasks.size());
+    }
+
+    @Override
+    public Slice<Task> findSliceByStatus(TaskStatus status, Pageable pageable) {
+        List<Task> tasks = query(task -> task.getStatus() == status, pageable.getSort());
+        return new SliceImpl<>(page(tasks, pageable), pageable, pageable.getOffset() + pageable.getPageSize() < tasks.size());
+    }
+
+    @Override
+    public Page<Task> findByFilter(Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                   LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable) {
+        List<Task> tasks = query(task -> statuses.contains(task.getStatus()) && priorities.contains(task.getPriority())
+                && createdIn(task, createdFrom, createdTo), pageable.getSort());
+        return new PageImpl<>(page(tasks, pageable), pageable, tasks.size());
+    }
+
+    @Override
+    public List<TaskFacetCount> countByStatusAndPriority(LocalDateTime createdFrom, LocalDateTime createdTo) {
+        Map<TaskStatus, Map<TaskPriority, Long>> counts = new EnumMap<>(TaskStatus.class);
+        for (Task task : query(task -> createdIn(task, createdFrom, createdTo), Sort.unsorted())) {
+            counts.computeIfAbsent(task.getStatus(), status -> new EnumMap<>(TaskPriority.class))
+                    .merge(task.getPriority(), 1L, Long::sum);
+        }
+        List<TaskFacetCount> result = new ArrayList<>();
+        counts.forEach((status, byPriority) -> byPriority.forEach((priority, count) ->
+                result.add(new TaskFacetCount(status, priority, count))));
+        return result;
+    }
+
+    @Override
+    public List<Task> findByTitleWordPrefix(String prefix, int limit) {
+        String[] prefixes = TitleWords.split(prefix);
+        if (prefixes.length == 0) {
+            return List.of();
+        }
+        List<Task> tasks = query(task -> TitleWords.allPrefixWords(prefixes, TitleWords.split(task.getTitle())),
+                Sort.by(Sort.Direction.DESC, "priority", "updatedAt", "id"));
+        return tasks.subList(0, Math.min(limit, tasks.size()));
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        String tenantId = TenantContext.currentTenant();
+        return readLocked(() -> Optional.ofNullable(load(id))
+                .filter(task -> task.getDeletedAt() == null && task.getTenantId().equals(tenantId)));
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        List<Task> tasks = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(tasks::add);
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusOrderByRankDesc(TaskStatus status) {
+        return query(task -> task.getStatus() == status, Sort.by("rank").descending()).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndIdNotOrderByRankDesc(TaskStatus status, Long id) {
+        return query(task -> task.getStatus() == status && !task.getId().equals(id), Sort.by("rank").descending())
+                .stream().findFirst();
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(TaskStatus status, String rank, Long id) {
+        return query(task -> task.getStatus() == status && task.getRank().compareTo(rank) > 0 && !task.getId().equals(id),
+                Sort.by("rank")).stream().findFirst();
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(TaskStatus status, String rank, Long id) {
+        return query(task -> task.getStatus() == status && task.getRank().compareTo(rank) < 0 && !task.getId().equals(id),
+                Sort.by("rank").descending()).stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void lockColumn(TaskStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String column = TenantContext.currentTenant() + ":" + status.name();
+        List<ReentrantLock> held = (List<ReentrantLock>) TransactionSynchronizationManager.getResource(columnLocks);
+        if (held == null) {
+            List<ReentrantLock> transactionLocks = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(columnLocks, transactionLocks);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(columnLocks);
+                    transactionLocks.forEach(ReentrantLock::unlock);
+                }
+            });
+            held = transactionLocks;
+        }
+        ReentrantLock columnLock = columnLocks.computeIfAbsent(column, key -> new ReentrantLock());
+        if (!columnLock.isHeldByCurrentThread()) {
+            columnLock.lock();
+            held.add(columnLock);
+        }
+    }
+
+    @Override
+    public List<Task> findByStatusForRebalance(TaskStatus status) {
+        return query(task -> task.getStatus() == status, Sort.by("rank", "id"));
+    }
+
+    @Override
+    public Task save(Task task) {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (task.getId() == null) {
+                long id = taskLog.nextId();
+                taskLog.setNextId(id + 1);
+                task.setId(id);
+                task.setTenantId(TenantContext.currentTenant());
+                task.setVersion(0L);
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                write(task, null);
+                return task;
+            }
+
+            Task current = load(task.getId());
+            if (current == null || current.getDeletedAt() != null
+                    || !current.getTenantId().equals(TenantContext.currentTenant())
+                    || !current.getVersion().equals(task.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+            }
+            task.setTenantId(current.getTenantId());
+            task.setCreatedAt(current.getCreatedAt());
+            task.setDeletedAt(null);
+            task.setUpdatedAt(current.getUpdatedAt());
+            // Like Hibernate, only write and increment the version when something changed
+            if (!Arrays.equals(encode(task), encode(current))) {
+                task.setVersion(current.getVersion() + 1);
+                task.setUpdatedAt(now);
+                write(task, current);
+            }
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Task> saveAllAndFlush(Iterable<Task> tasks) {
+        List<Task> saved = new ArrayList<>();
+        for (Task task : tasks) {
+            saved.add(save(task));
+        }
+        return saved;
+    }
+
+    @Override
+    public long importTasks(Iterator<Task> tasks) {
+        long imported = 0;
+        while (tasks.hasNext()) {
+            save(tasks.next());
+            imported++;
+        }
+        return imported;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        lock.writeLock().lock();
+        try {
+            findById(id).ifPresent(current -> {
+                Task deleted = copy(current);
+                deleted.setDeletedAt(LocalDateTime.now());
+                write(deleted, current);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int restoreById(Long id, String tenantId) {
+        lock.writeLock().lock();
+        try {
+            Task current = load(id);
+            if (current == null || current.getDeletedAt() == null || !current.getTenantId().equals(tenantId)) {
+                return 0;
+            }
+            Task restored = copy(current);
+            restored.setDeletedAt(null);
+            restored.setVersion(current.getVersion() + 1);
+            write(restored, current);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int purgeDeletedBefore(LocalDateTime cutoff, int batchSize) {
+        lock.writeLock().lock();
+        try {
+            List<Task> expired = new ArrayList<>();
+            forEachTask(task -> {
+                if (task.getDeletedAt() != null && task.getDeletedAt().isBefore(cutoff)) {
+                    expired.add(task);
+                }
+            });
+            expired.sort(Comparator.comparing(Task::getDeletedAt));
+            List<Task> purged = expired.subList(0, Math.min(batchSize, expired.size()));
+            for (Task task : purged) {
+                liveBytes -= taskLog.recordBytes(index.remove(task.getId()));
+                taskLog.append(tombstone(task.getId()));
+            }
+            return purged.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the log without superseded records and tombstones once they make up at least
+     * {@code task-store.embedded.compaction-garbage-ratio} of it.
+     */
+    @Scheduled(fixedDelayString = "${task-store.embedded.compaction-interval:PT10M}")
+    public void compactIfNeeded() {
+        boolean needed = readLocked(() -> {
+            long used = taskLog.usedBytes();
+            return used > 0 && (double) (used - liveBytes) / used >= compactionGarbageRatio;
+        });
+        if (needed) {
+            compact();
+        }
+    }
+
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            long before = taskLog.usedBytes();
+            Path target = directory.resolve(COMPACTION_FILE);
+            Files.deleteIfExists(target);
+            List<long[]> entries = new ArrayList<>(index.size());
+            index.forEach((id, offset) -> {
+                entries.add(new long[] {id, offset});
+                return 0;
+            });
+            // Keep the records in log order so that a later replay sees the same history
+            entries.sort(Comparator.comparingLong(entry -> entry[1]));
+
+            try (TaskLog compacted = TaskLog.open(target, Math.max(initialFileSize, liveBytes * 2), false)) {
+                compacted.setNextId(taskLog.nextId());
+                for (long[] entry : entries) {
+                    index.put(entry[0], compacted.append(taskLog.read(entry[1])));
+                }
+                compacted.force();
+            }
+            taskLog.close();
+            Files.move(target, directory.resolve(LOG_FILE), StandardCopyOption.ATOMIC_MOVE);
+            taskLog = TaskLog.open(directory.resolve(LOG_FILE), initialFileSize, syncOnWrite);
+            taskLog.recover((offset, body) -> { });
+            log.info("Compacted task log from {} to {} bytes", before, taskLog.usedBytes());
+        } catch (IOException | RuntimeException e) {
+            // The index may already point into the new file; rebuild it from whichever log is in place
+            open();
+            throw new IllegalStateException("Cannot compact task log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            taskLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            // An interrupted compaction leaves the original log untouched
+            Files.deleteIfExists(directory.resolve(COMPACTION_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare task store directory " + directory, e);
+        }
+        long start = System.nanoTime();
+        taskLog = TaskLog.open(directory.resolve(LOG_FILE), initialFileSize, syncOnWrite);
+        index.clear();
+        liveBytes = 0;
+        try {
+            taskLog.recover((offset, body) -> {
+                long id = readId(body);
+                long previous = body[0] == PURGE ? index.remove(id) : index.put(id, offset);
+                if (previous >= 0) {
+                    liveBytes -= taskLog.recordBytes(previous);
+                }
+                if (body[0] == PUT) {
+                    liveBytes += TaskLog.RECORD_OVERHEAD + body.length;
+                }
+            });
+        } catch (RuntimeException e) {
+            taskLog.close();
+            throw e;
+        }
+        log.info("Replayed task log {} with {} tasks in {} ms", taskLog.file(), index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Task> query(Predicate<Task> filter, Sort sort) {
+        String tenantId = TenantContext.currentTenant();
+        List<Task> tasks = new ArrayList<>();
+        readLocked(() -> {
+            forEachTask(task -> {
+                if (task.getDeletedAt() == null && task.getTenantId().equals(tenantId) && filter.test(task)) {
+                    tasks.add(task);
+                }
+            });
+            return null;
+        });
+        tasks.sort(comparator(sort));
+        return tasks;
+    }
+
+    private static boolean createdIn(Task task, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return !task.getCreatedAt().isBefore(createdFrom) && task.getCreatedAt().isBefore(createdTo);
+    }
+
+    private static List<Task> page(List<Task> tasks, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return tasks;
+        }
+        int from = (int) Math.min(pageable.getOffset(), tasks.size());
+        return tasks.subList(from, Math.min(from + pageable.getPageSize(), tasks.size()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Task> comparator(Sort sort) {
+        Comparator<Task> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Function<Task, Comparable<?>> property = SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new PropertyReferenceException(order.getProperty(), TypeInformation.of(Task.class), List.of());
+            }
+            // Postgres sorts nulls as larger than any value
+            Comparator<Task> byProperty = Comparator.comparing(task -> (Comparable) property.apply(task),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isDescending() ? byProperty.reversed() : byProperty);
+        }
+        return comparator.thenComparing(Task::getId);
+    }
+
+    private void write(Task task, Task previous) {
+        byte[] body = encode(task);
+        long previousOffset = index.put(task.getId(), taskLog.append(body));
+        if (previousOffset >= 0) {
+            liveBytes -= taskLog.recordBytes(previousOffset);
+        }
+        liveBytes += TaskLog.RECORD_OVERHEAD + body.length;
+        registerUndo(task.getId(), previous != null ? encode(previous) : null, body);
+    }
+
+    /**
+     * Remembers how to revert a write if the surrounding transaction rolls back.
+     */
+    @SuppressWarnings("unchecked")
+    private void registerUndo(long id, byte[] previous, byte[] written) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<Undo> undos = (List<Undo>) TransactionSynchronizationManager.getResource(this);
+        if (undos == null) {
+            List<Undo> transactionUndos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionUndos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EmbeddedTaskStore.this);
+                    if (status == STATUS_ROLLED_BACK) {
+                        undo(transactionUndos);
+                    }
+                }
+            });
+            undos = transactionUndos;
+        }
+        undos.add(new Undo(id, previous, written));
+    }
+
+    private void undo(List<Undo> undos) {
+        lock.writeLock().lock();
+        try {
+            // Newest first, so a task written twice ends up at its state before the transaction
+            for (int i = undos.size() - 1; i >= 0; i--) {
+                Undo undo = undos.get(i);
+                long offset = index.get(undo.id());
+                if (offset < 0 || !Arrays.equals(taskLog.read(offset), undo.written())) {
+                    log.warn("Not undoing rolled back write of task {}: it was written again since", undo.id());
+                    continue;
+                }
+                liveBytes -= taskLog.recordBytes(offset);
+                if (undo.previous() == null) {
+                    index.remove(undo.id());
+                    taskLog.append(tombstone(undo.id()));
+                } else {
+                    index.put(undo.id(), taskLog.append(undo.previous()));
+                    liveBytes += TaskLog.RECORD_OVERHEAD + undo.previous().length;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forEachTask(Consumer<Task> action) {
+        index.forEach((id, offset) -> {
+            action.accept(decode(taskLog.read(offset)));
+            return 0;
+        });
+    }
+
+    private Task load(long id) {
+        long offset = index.get(id);
+        return offset >= 0 ? decode(taskLog.read(offset)) : null;
+    }
+
+    private <T> T readLocked(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Task copy(Task task) {
+        return decode(encode(task));
+    }
+
+    private static byte[] encode(Task task) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(PUT);
+            out.writeLong(task.getId());
+            out.writeLong(task.getVersion());
+            out.writeUTF(task.getTenantId());
+            out.writeUTF(task.getTitle());
+            writeNullable(out, task.getDescription());
+            out.writeUTF(task.getStatus().name());
+            out.writeUTF(task.getPriority().name());
+            out.writeUTF(task.getRank());
+            writeTimestamp(out, task.getCreatedAt());
+            writeTimestamp(out, task.getUpdatedAt());
+            writeTimestamp(out, task.getDeletedAt());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Task decode(byte[] body) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            in.readByte();
+            return Task.builder()
+                    .id(in.readLong())
+                    .version(in.readLong())
+                    .tenantId(in.readUTF())
+                    .title(in.readUTF())
+                    .description(readNullable(in))
+                    .status(TaskStatus.valueOf(in.readUTF()))
+                    .priority(TaskPriority.valueOf(in.readUTF()))
+                    .rank(in.readUTF())
+                    .createdAt(readTimestamp(in))
+                    .updatedAt(readTimestamp(in))
+                    .deletedAt(readTimestamp(in))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] tombstone(long id) {
+        byte[] body = new byte[9];
+        body[0] = PURGE;
+        for (int i = 0; i < 8; i++) {
+            body[1 + i] = (byte) (id >>> (56 - 8 * i));
+        }
+        return body;
+    }
+
+    private static long readId(byte[] body) {
+        long id = 0;
+        for (int i = 1; i <= 8; i++) {
+            id = (id << 8) | (body[i] & 0xFF);
+        }
+        return id;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    private record Undo(long id, byte[] previous, byte[] written) {}
+}
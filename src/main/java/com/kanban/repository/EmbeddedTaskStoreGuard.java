@@ -0,0 +1,37 @@
+package com.kanban.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Refuses to start the embedded task store together with the in-memory indexes. They load and
+ * check themselves against the Postgres {@code tasks} table, which the embedded store leaves
+ * empty, so they would serve empty or stale results.
+ */
+@Component
+@ConditionalOnProperty(name = "task-store.type", havingValue = "embedded")
+class EmbeddedTaskStoreGuard {
+
+    EmbeddedTaskStoreGuard(@Value("${read-model.enabled:false}") boolean readModelEnabled,
+                           @Value("${facet-index.enabled:false}") boolean facetIndexEnabled,
+                           @Value("${title-index.enabled:false}") boolean titleIndexEnabled) {
+        List<String> enabled = new ArrayList<>();
+        if (readModelEnabled) {
+            enabled.add("read-model.enabled");
+        }
+        if (facetIndexEnabled) {
+            enabled.add("facet-index.enabled");
+        }
+        if (titleIndexEnabled) {
+            enabled.add("title-index.enabled");
+        }
+        if (!enabled.isEmpty()) {
+            throw new IllegalStateException("task-store.type=embedded cannot be combined with " + String.join(", ", enabled)
+                    + ": these indexes load from the Postgres tasks table");
+        }
+    }
+}
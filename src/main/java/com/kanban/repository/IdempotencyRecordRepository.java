@@ -0,0 +1,34 @@
+package com.kanban.repository;
+
+import com.kanban.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Inserts a key without a response yet, or takes over an expired one, returning 1 if the
+     * caller now owns the key and 0 if a live key exists. A concurrent uncommitted claim of the
+     * same key blocks this statement until that transaction ends.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (storage_key, request_fingerprint, response_body, created_at, expires_at) "
+            + "VALUES (:storageKey, :fingerprint, '', :now, :expiresAt) "
+            + "ON CONFLICT (storage_key) DO UPDATE SET request_fingerprint = EXCLUDED.request_fingerprint, "
+            + "response_body = '', created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at "
+            + "WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(String storageKey, String fingerprint, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseBody = :responseBody WHERE r.storageKey = :storageKey")
+    int complete(String storageKey, String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,278 @@
+package com.kanban.repository;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Default {@link TaskStore}: the {@code tasks} table through {@link TaskRepository}.
+ * <p>
+ * {@link #importTasks} streams rows into a temporary staging table with the Postgres
+ * {@code COPY} protocol and moves them into {@code tasks} with a single {@code INSERT ... SELECT},
+ * which routes them to their partitions and fills in tenant, version and timestamps.
+ */
+@Component
+@ConditionalOnProperty(name = "task-store.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaTaskStore implements TaskStore {
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMPORARY TABLE IF NOT EXISTS task_import ("
+            + "line BIGINT NOT NULL, title VARCHAR(255) NOT NULL, description VARCHAR(1000), "
+            + "status VARCHAR(20) NOT NULL, priority VARCHAR(10) NOT NULL, rank VARCHAR(255) COLLATE \"C\" NOT NULL"
+            + ") ON COMMIT DROP";
+    private static final String TRUNCATE_STAGING_TABLE = "TRUNCATE task_import";
+    private static final String COPY_TO_STAGING_TABLE =
+            "COPY task_import (line, title, description, status, priority, rank) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_FROM_STAGING_TABLE = "INSERT INTO tasks "
+            + "(tenant_id, title, description, status, priority, rank, version, created_at, updated_at) "
+            + "SELECT ?, title, description, status, priority, rank, 0, ?, ? FROM task_import ORDER BY line";
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    private static final String SELECT_TITLE_CANDIDATES =
+            "SELECT id, title FROM tasks WHERE tenant_id = ? AND deleted_at IS NULL";
+    private static final String ORDER_BY_SUGGESTION_RANKING = " ORDER BY CASE priority "
+            + "WHEN 'HIGH' THEN 0 WHEN 'MED' THEN 1 ELSE 2 END, updated_at DESC NULLS LAST, id DESC";
+    private static final int SUGGESTION_FETCH_SIZE = 256;
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Page<Task> findAll(Pageable pageable) {
+        return taskRepository.findAll(pageable);
+    }
+
+    @Override
+    public Page<Task> findByStatus(TaskStatus status, Pageable pageable) {
+        return taskRepository.findByStatus(status, pageable);
+    }
+
+    @Override
+    public Slice<Task> findSliceBy(Pageable pageable) {
+        return taskRepository.findSliceBy(pageable);
+    }
+
+    @Override
+    public Slice<Task> findSliceByStatus(TaskStatus status, Pageable pageable) {
+        return taskRepository.findSliceByStatus(status, pageable);
+    }
+
+    @Override
+    public Page<Task> findByFilter(Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                                   LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable) {
+        return taskRepository.findByFilter(statuses, priorities, createdFrom, createdTo, pageable);
+    }
+
+    @Override
+    public List<TaskFacetCount> countByStatusAndPriority(LocalDateTime createdFrom, LocalDateTime createdTo) {
+        return taskRepository.countByStatusAndPriority(createdFrom, createdTo);
+    }
+
+    @Override
+    public List<Task> findByTitleWordPrefix(String prefix, int limit) {
+        String[] prefixes = TitleWords.split(prefix);
+        if (prefixes.length == 0) {
+            return List.of();
+        }
+        // One LIKE per query word narrows the rows; whether the word starts a title word is then
+        // checked on the title's words, as the title index does
+        StringBuilder sql = new StringBuilder(SELECT_TITLE_CANDIDATES);
+        List<Object> args = new ArrayList<>();
+        args.add(TenantContext.currentTenant());
+        for (String word : prefixes) {
+            // Words hold only letters and digits, so there is nothing to escape
+            sql.append(" AND lower(title) LIKE ?");
+            args.add("%" + word + "%");
+        }
+        sql.append(ORDER_BY_SUGGESTION_RANKING);
+        List<Long> ids = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(SUGGESTION_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            List<Long> matched = new ArrayList<>();
+            while (matched.size() < limit && rs.next()) {
+                if (TitleWords.allPrefixWords(prefixes, TitleWords.split(rs.getString("title")))) {
+                    matched.add(rs.getLong("id"));
+                }
+            }
+            return matched;
+        });
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream().map(tasks::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return taskRepository.findById(id);
+    }
+
+    @Override
+    public List<Task> findAllById(Iterable<Long> ids) {
+        return taskRepository.findAllById(ids);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return taskRepository.existsById(id);
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusOrderByRankDesc(TaskStatus status) {
+        return taskRepository.findFirstByStatusOrderByRankDesc(status);
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndIdNotOrderByRankDesc(TaskStatus status, Long id) {
+        return taskRepository.findFirstByStatusAndIdNotOrderByRankDesc(status, id);
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(TaskStatus status, String rank, Long id) {
+        return taskRepository.findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(status, rank, id);
+    }
+
+    @Override
+    public Optional<Task> findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(TaskStatus status, String rank, Long id) {
+        return taskRepository.findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(status, rank, id);
+    }
+
+    @Override
+    public void lockColumn(TaskStatus status) {
+        // Through JDBC rather than a native query, which would make Hibernate flush pending changes
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", (ResultSet rs) -> { },
+                "task_column:" + TenantContext.currentTenant() + ":" + status.name());
+    }
+
+    @Override
+    public List<Task> findByStatusForRebalance(TaskStatus status) {
+        return taskRepository.findByStatusForRebalance(status);
+    }
+
+    @Override
+    public Task save(Task task) {
+        return taskRepository.save(task);
+    }
+
+    @Override
+    public List<Task> saveAllAndFlush(Iterable<Task> tasks) {
+        return taskRepository.saveAllAndFlush(tasks);
+    }
+
+    @Override
+    public long importTasks(Iterator<Task> tasks) {
+        // JdbcTemplate runs on the connection of the surrounding JPA transaction, so the import commits or rolls back with it
+        Long imported = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+                statement.execute(TRUNCATE_STAGING_TABLE);
+            }
+            copyToStagingTable(connection, tasks);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_FROM_STAGING_TABLE)) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                statement.setString(1, TenantContext.currentTenant());
+                statement.setTimestamp(2, now);
+                statement.setTimestamp(3, now);
+                return (long) statement.executeUpdate();
+            }
+        });
+        return imported != null ? imported : 0;
+    }
+
+    private static void copyToStagingTable(Connection connection, Iterator<Task> tasks) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TO_STAGING_TABLE);
+        try {
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_CHARS + 4096);
+            long line = 0;
+            while (tasks.hasNext()) {
+                Task task = tasks.next();
+                rows.append(++line).append(',');
+                appendCsv(rows, task.getTitle()).append(',');
+                appendCsv(rows, task.getDescription()).append(',');
+                rows.append(task.getStatus().name()).append(',')
+                        .append(task.getPriority().name()).append(',');
+                appendCsv(rows, task.getRank()).append('\n');
+                if (rows.length() >= COPY_BUFFER_CHARS) {
+                    writeToCopy(copyIn, rows);
+                }
+            }
+            writeToCopy(copyIn, rows);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+
+    /**
+     * Appends a CSV field: quoted, so that an empty string stays distinct from {@code NULL}, which is left empty.
+     */
+    private static StringBuilder appendCsv(StringBuilder rows, String value) {
+        if (value == null) {
+            return rows;
+        }
+        rows.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                rows.append('"');
+            }
+            rows.append(c);
+        }
+        return rows.append('"');
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        taskRepository.deleteById(id);
+    }
+
+    @Override
+    public int restoreById(Long id, String tenantId) {
+        return taskRepository.restoreById(id, tenantId);
+    }
+
+    @Override
+    public int purgeDeletedBefore(LocalDateTime cutoff, int batchSize) {
+        return taskRepository.purgeDeletedBefore(cutoff, batchSize);
+    }
+}
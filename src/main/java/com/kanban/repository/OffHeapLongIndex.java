@@ -0,0 +1,150 @@
+package com.kanban.repository;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Hash map from positive {@code long} keys to {@code long} values stored outside the Java heap,
+ * in a direct buffer of 16-byte slots with linear probing. A million entries take 32 MB of native
+ * memory at the maximum load factor and nothing the garbage collector has to trace.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+final class OffHeapLongIndex {
+
+    private static final int SLOT_BYTES = 16;
+    private static final long EMPTY = 0;
+    private static final double MAX_LOAD = 0.7;
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    OffHeapLongIndex(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the key, or {@code -1} when absent.
+     */
+    long get(long key) {
+        int slot = find(key);
+        return keyAt(slot) == key ? valueAt(slot) : -1;
+    }
+
+    /**
+     * Associates the value with the key, returning the previous value or {@code -1}.
+     */
+    long put(long key, long value) {
+        if (key <= EMPTY) {
+            throw new IllegalArgumentException("Keys must be positive: " + key);
+        }
+        int slot = find(key);
+        if (keyAt(slot) == key) {
+            long previous = valueAt(slot);
+            slots.putLong(slot * SLOT_BYTES + 8, value);
+            return previous;
+        }
+        slots.putLong(slot * SLOT_BYTES, key);
+        slots.putLong(slot * SLOT_BYTES + 8, value);
+        if (++size > capacity * MAX_LOAD) {
+            resize(capacity * 2);
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the key, returning its value or {@code -1}. Later entries of the probe sequence are
+     * shifted back so that lookups never need tombstones.
+     */
+    long remove(long key) {
+        int slot = find(key);
+        if (keyAt(slot) != key) {
+            return -1;
+        }
+        long previous = valueAt(slot);
+        int mask = capacity - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keyAt(next) != EMPTY) {
+            int home = home(keyAt(next));
+            // Move the entry into the hole unless its home lies cyclically in (hole, next]
+            boolean movable = hole <= next ? home <= hole || home > next : home <= hole && home > next;
+            if (movable) {
+                slots.putLong(hole * SLOT_BYTES, keyAt(next));
+                slots.putLong(hole * SLOT_BYTES + 8, valueAt(next));
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots.putLong(hole * SLOT_BYTES, EMPTY);
+        slots.putLong(hole * SLOT_BYTES + 8, 0);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Calls {@code action} with each key and value, in no particular order. The index must not be
+     * modified meanwhile.
+     */
+    void forEach(LongBinaryOperator action) {
+        for (int slot = 0; slot < capacity; slot++) {
+            long key = keyAt(slot);
+            if (key != EMPTY) {
+                action.applyAsLong(key, valueAt(slot));
+            }
+        }
+    }
+
+    void clear() {
+        allocate(16);
+    }
+
+    private int find(long key) {
+        int mask = capacity - 1;
+        int slot = home(key);
+        while (true) {
+            long current = keyAt(slot);
+            if (current == key || current == EMPTY) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int home(long key) {
+        // Fibonacci hashing spreads sequential ids across the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1);
+    }
+
+    private long keyAt(int slot) {
+        return slots.getLong(slot * SLOT_BYTES);
+    }
+
+    private long valueAt(int slot) {
+        return slots.getLong(slot * SLOT_BYTES + 8);
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key = old.getLong(slot * SLOT_BYTES);
+            if (key != EMPTY) {
+                put(key, old.getLong(slot * SLOT_BYTES + 8));
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        size = 0;
+        // Direct buffers start zeroed, so every slot is empty
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+    }
+}
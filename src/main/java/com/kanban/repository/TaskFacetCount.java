@@ -0,0 +1,9 @@
+package com.kanban.repository;
+
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+
+/**
+ * Number of tasks with one combination of status and priority.
+ */
+public record TaskFacetCount(TaskStatus status, TaskPriority priority, Long count) {}
@@ -0,0 +1,28 @@
+package com.kanban.repository;
+
+import com.kanban.entity.TaskHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+
+    List<TaskHistory> findByTaskIdOrderByChangedAtDescIdDesc(Long taskId, Pageable pageable);
+
+    /**
+     * Keyset page of entries older than the given {@code (changedAt, id)} position.
+     */
+    @Query("SELECT h FROM TaskHistory h WHERE h.taskId = :taskId "
+            + "AND (h.changedAt < :changedAt OR (h.changedAt = :changedAt AND h.id < :id)) "
+            + "ORDER BY h.changedAt DESC, h.id DESC")
+    List<TaskHistory> findByTaskIdBefore(@Param("taskId") Long taskId,
+                                         @Param("changedAt") LocalDateTime changedAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+}
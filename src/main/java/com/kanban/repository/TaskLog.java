@@ -0,0 +1,227 @@
+package com.kanban.repository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of task records, memory-mapped so that appends and reads are plain memory
+ * accesses. The file starts with a 16-byte header (magic number, format version, next task id);
+ * each record is its body length, the CRC-32 of its body, then the body.
+ * <p>
+ * The file is preallocated and grown by doubling, so unwritten space reads as zeros. A record cut
+ * short by a crash fails its checksum and {@link #recover} discards it, provided it is the last
+ * one. A bad record followed by intact ones is corruption rather than a crash, and opening fails
+ * instead of silently dropping the records after it. Mappings are limited to 2 GB. Not
+ * thread-safe; callers synchronize.
+ */
+@Slf4j
+final class TaskLog implements AutoCloseable {
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_OVERHEAD = 8;
+
+    private static final int MAGIC = 0x4B424E4C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NEXT_ID_OFFSET = 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean syncOnWrite;
+    private MappedByteBuffer buffer;
+    private int writeOffset = HEADER_BYTES;
+
+    interface RecordVisitor {
+        void visit(long offset, byte[] body);
+    }
+
+    private TaskLog(Path file, FileChannel channel, MappedByteBuffer buffer, boolean syncOnWrite) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    static TaskLog open(Path file, long initialSize, boolean syncOnWrite) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean created = channel.size() == 0;
+            long size = Math.max(channel.size(), Math.max(initialSize, HEADER_BYTES));
+            TaskLog log = new TaskLog(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), syncOnWrite);
+            if (created) {
+                log.buffer.putInt(0, MAGIC);
+                log.buffer.putInt(4, FORMAT_VERSION);
+                log.buffer.putLong(NEXT_ID_OFFSET, 1);
+                log.buffer.force(0, HEADER_BYTES);
+            } else if (log.buffer.getInt(0) != MAGIC || log.buffer.getInt(4) != FORMAT_VERSION) {
+                channel.close();
+                throw new IllegalStateException(file + " is not a task log of format version " + FORMAT_VERSION);
+            }
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open task log " + file, e);
+        }
+    }
+
+    /**
+     * Calls the visitor with every intact record in append order and positions the log after the
+     * last one. Returns the number of bytes discarded after a torn last record.
+     *
+     * @throws IllegalStateException if intact records follow a bad one
+     */
+    int recover(RecordVisitor visitor) {
+        int offset = HEADER_BYTES;
+        byte[] body;
+        while ((body = intactRecord(offset)) != null) {
+            visitor.visit(offset, body);
+            offset += RECORD_OVERHEAD + body.length;
+        }
+        writeOffset = offset;
+
+        int end = lastNonZeroByte(offset) + 1;
+        for (int position = offset + 1; position + RECORD_OVERHEAD < end; position++) {
+            if (intactRecord(position) != null) {
+                throw new IllegalStateException("Task log " + file + " has a corrupt record at offset " + offset
+                        + " followed by intact records; restore it from a backup or move it aside");
+            }
+        }
+        int discarded = end - offset;
+        if (discarded > 0) {
+            // Zero the leftovers so that later appends are not followed by stale bytes
+            log.warn("Discarding {} bytes of incomplete records at offset {} of {}", discarded, offset, file);
+            buffer.put(offset, new byte[discarded]);
+            buffer.force(offset, discarded);
+        }
+        return discarded;
+    }
+
+    /**
+     * Appends a record and returns its offset.
+     */
+    long append(byte[] body) {
+        int recordBytes = RECORD_OVERHEAD + body.length;
+        ensureCapacity((long) writeOffset + recordBytes);
+        int offset = writeOffset;
+        buffer.put(offset + RECORD_OVERHEAD, body);
+        buffer.putInt(offset + 4, crc(body));
+        buffer.putInt(offset, body.length);
+        writeOffset += recordBytes;
+        if (syncOnWrite) {
+            buffer.force(offset, recordBytes);
+        }
+        return offset;
+    }
+
+    byte[] read(long offset) {
+        int length = buffer.getInt((int) offset);
+        byte[] body = new byte[length];
+        buffer.get((int) offset + RECORD_OVERHEAD, body);
+        return body;
+    }
+
+    int recordBytes(long offset) {
+        return RECORD_OVERHEAD + buffer.getInt((int) offset);
+    }
+
+    long nextId() {
+        return buffer.getLong(NEXT_ID_OFFSET);
+    }
+
+    void setNextId(long nextId) {
+        buffer.putLong(NEXT_ID_OFFSET, nextId);
+        if (syncOnWrite) {
+            buffer.force(0, HEADER_BYTES);
+        }
+    }
+
+    /**
+     * Bytes taken by records, including superseded ones.
+     */
+    long usedBytes() {
+        return writeOffset - HEADER_BYTES;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close task log " + file, e);
+        }
+    }
+
+    /**
+     * Returns the body of the record at {@code offset} if its length is plausible and its checksum
+     * matches, otherwise {@code null}.
+     */
+    private byte[] intactRecord(int offset) {
+        if (offset + RECORD_OVERHEAD > buffer.capacity()) {
+            return null;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || length > buffer.capacity() - offset - RECORD_OVERHEAD) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        buffer.get(offset + RECORD_OVERHEAD, body);
+        return crc(body) == buffer.getInt(offset + 4) ? body : null;
+    }
+
+    /**
+     * Returns the position of the last non-zero byte at or after {@code from}, or {@code from - 1}.
+     */
+    private int lastNonZeroByte(int from) {
+        int position = buffer.capacity();
+        while (position - Long.BYTES >= from && buffer.getLong(position - Long.BYTES) == 0) {
+            position -= Long.BYTES;
+        }
+        while (position > from && buffer.get(position - 1) == 0) {
+            position--;
+        }
+        return position - 1;
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long size = buffer.capacity();
+        while (size < required) {
+            size *= 2;
+        }
+        if (size > Integer.MAX_VALUE) {
+            size = Integer.MAX_VALUE;
+            if (required > size) {
+                throw new IllegalStateException("Task log " + file + " exceeds 2 GB; compact it or move to Postgres");
+            }
+        }
+        try {
+            // Mapping past the end grows the file; the previous mapping is released by the garbage collector
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow task log " + file, e);
+        }
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -1,17 +1,69 @@
 package com.kanban.repository;
 
 import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
+    /**
+     * Declared as a query because Hibernate applies the tenant restriction to queries only,
+     * not to loads by primary key.
+     */
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
     Optional<Task> findById(Long id);
-}
 
+    Slice<Task> findSliceByStatus(TaskStatus status, Pageable pageable);
+
+    @Query("SELECT t FROM Task t")
+    Slice<Task> findSliceBy(Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.status IN :statuses AND t.priority IN :priorities "
+            + "AND t.createdAt >= :createdFrom AND t.createdAt < :createdTo")
+    Page<Task> findByFilter(Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                            LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
+
+    @Query("SELECT new com.kanban.repository.TaskFacetCount(t.status, t.priority, count(t)) FROM Task t "
+            + "WHERE t.createdAt >= :createdFrom AND t.createdAt < :createdTo GROUP BY t.status, t.priority")
+    List<TaskFacetCount> countByStatusAndPriority(LocalDateTime createdFrom, LocalDateTime createdTo);
+
+    Optional<Task> findFirstByStatusOrderByRankDesc(TaskStatus status);
+
+    Optional<Task> findFirstByStatusAndIdNotOrderByRankDesc(TaskStatus status, Long id);
+
+    Optional<Task> findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(TaskStatus status, String rank, Long id);
+
+    Optional<Task> findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(TaskStatus status, String rank, Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.status = :status ORDER BY t.rank, t.id")
+    List<Task> findByStatusForRebalance(TaskStatus status);
+
+    // Native statements below bypass the deleted_at and tenant restrictions of the Task entity on purpose
+
+    @Modifying
+    @Query(value = "UPDATE tasks SET deleted_at = NULL, version = version + 1 "
+            + "WHERE id = :id AND tenant_id = :tenantId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int restoreById(Long id, String tenantId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN ("
+            + "SELECT id FROM tasks WHERE deleted_at < :cutoff ORDER BY deleted_at LIMIT :batchSize)",
+            nativeQuery = true)
+    int purgeDeletedBefore(LocalDateTime cutoff, int batchSize);
+}
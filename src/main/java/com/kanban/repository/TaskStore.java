@@ -0,0 +1,109 @@
+package com.kanban.repository;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence of tasks as seen by the service layer. {@link JpaTaskStore}, backed by Postgres,
+ * is the default; {@link EmbeddedTaskStore} keeps tasks in a local log file for deployments
+ * without a database server ({@code task-store.type=embedded}).
+ * <p>
+ * Implementations share the semantics of the {@link Task} entity: every read is restricted to
+ * the current tenant and skips deleted tasks, {@link #save} assigns ids and timestamps and
+ * rejects a task whose {@code version} is no longer current with an optimistic locking failure.
+ */
+public interface TaskStore {
+
+    Page<Task> findAll(Pageable pageable);
+
+    Page<Task> findByStatus(TaskStatus status, Pageable pageable);
+
+    Slice<Task> findSliceBy(Pageable pageable);
+
+    Slice<Task> findSliceByStatus(TaskStatus status, Pageable pageable);
+
+    /**
+     * Returns the tasks with one of the statuses and one of the priorities, created in
+     * {@code [createdFrom, createdTo)}.
+     */
+    Page<Task> findByFilter(Collection<TaskStatus> statuses, Collection<TaskPriority> priorities,
+                            LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable);
+
+    /**
+     * Counts the tasks created in {@code [createdFrom, createdTo)} by status and priority.
+     * Combinations without tasks are left out.
+     */
+    List<TaskFacetCount> countByStatusAndPriority(LocalDateTime createdFrom, LocalDateTime createdTo);
+
+    /**
+     * Returns up to {@code limit} tasks whose title has, for every word of {@code prefix}, a word
+     * starting with it, ignoring case, highest priority first and then most recently updated first.
+     * Words are split by {@link TitleWords}, as in the title index.
+     */
+    List<Task> findByTitleWordPrefix(String prefix, int limit);
+
+    Optional<Task> findById(Long id);
+
+    List<Task> findAllById(Iterable<Long> ids);
+
+    boolean existsById(Long id);
+
+    Optional<Task> findFirstByStatusOrderByRankDesc(TaskStatus status);
+
+    Optional<Task> findFirstByStatusAndIdNotOrderByRankDesc(TaskStatus status, Long id);
+
+    Optional<Task> findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(TaskStatus status, String rank, Long id);
+
+    Optional<Task> findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(TaskStatus status, String rank, Long id);
+
+    /**
+     * Locks the column of the current tenant until the transaction ends, so that no other
+     * transaction appends to it or moves a task within it in the meantime.
+     */
+    void lockColumn(TaskStatus status);
+
+    /**
+     * Returns the column ordered by rank, locked against concurrent moves until the transaction ends.
+     */
+    List<Task> findByStatusForRebalance(TaskStatus status);
+
+    Task save(Task task);
+
+    /**
+     * Saves the tasks and writes them out immediately, so that conflicts surface here.
+     */
+    List<Task> saveAllAndFlush(Iterable<Task> tasks);
+
+    /**
+     * Inserts new tasks of the current tenant in bulk, consuming the iterator once, and returns
+     * the number inserted. The tasks are written as given, in iteration order, without going
+     * through the entity lifecycle: their ids are not set afterwards.
+     */
+    long importTasks(Iterator<Task> tasks);
+
+    /**
+     * Soft-deletes the task; it stays restorable until it is purged.
+     */
+    void deleteById(Long id);
+
+    /**
+     * Undeletes a task of the given tenant, returning the number of restored tasks.
+     */
+    int restoreById(Long id, String tenantId);
+
+    /**
+     * Permanently removes up to {@code batchSize} tasks of any tenant deleted before {@code cutoff},
+     * oldest first, returning the number removed.
+     */
+    int purgeDeletedBefore(LocalDateTime cutoff, int batchSize);
+}
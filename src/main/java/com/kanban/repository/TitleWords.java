@@ -0,0 +1,49 @@
+package com.kanban.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * How task titles and suggestion queries are split into words, shared by the title index and the
+ * {@link TaskStore#findByTitleWordPrefix} fallbacks so that both find the same tasks.
+ */
+public final class TitleWords {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TitleWords() {
+    }
+
+    /**
+     * Splits the text into its distinct lower-case runs of letters and digits.
+     */
+    public static String[] split(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Whether every one of {@code prefixes} starts one of {@code words}.
+     */
+    public static boolean allPrefixWords(String[] prefixes, String[] words) {
+        for (String prefix : prefixes) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(prefix)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
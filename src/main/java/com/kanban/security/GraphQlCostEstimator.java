@@ -0,0 +1,104 @@
+package com.kanban.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the cost of a GraphQL request as the number of fields it selects,
+ * so that one large document is charged more than one {@code task(id:)} lookup.
+ * <p>
+ * A named fragment is charged at every spread that uses it, as that is where it is executed;
+ * fragment definitions on their own cost nothing. Each fragment is counted once and its cost reused
+ * at every spread, and counting stops at {@link #MAX_COST}, so nested spreads that multiply the
+ * size of a small document cannot make the estimate itself expensive.
+ */
+@Component
+@RequiredArgsConstructor
+public class GraphQlCostEstimator {
+
+    /**
+     * Far above any bucket's capacity; costs are capped here rather than counted exactly.
+     */
+    static final long MAX_COST = 1_000_000;
+
+    private final ObjectMapper objectMapper;
+
+    public long estimate(byte[] body) {
+        try {
+            JsonNode query = objectMapper.readTree(body).get("query");
+            if (query == null || !query.isTextual()) {
+                return 1;
+            }
+            Document document = Parser.parse(query.asText());
+            Map<String, FragmentDefinition> fragments = new HashMap<>();
+            for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+                fragments.put(fragment.getName(), fragment);
+            }
+            Map<String, Long> fragmentCosts = new HashMap<>();
+            long cost = 0;
+            for (OperationDefinition operation : document.getDefinitionsOfType(OperationDefinition.class)) {
+                cost = add(cost, countFields(operation.getSelectionSet(), fragments, fragmentCosts, new HashSet<>()));
+            }
+            return Math.max(cost, 1);
+        } catch (IOException | InvalidSyntaxException e) {
+            // Malformed requests are rejected by the GraphQL endpoint itself
+            return 1;
+        }
+    }
+
+    /**
+     * @param expanding fragments being expanded on the current path; a cyclic spread is invalid
+     *                  and rejected by the endpoint, so it is only guarded against here
+     */
+    private long countFields(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments,
+                             Map<String, Long> fragmentCosts, Set<String> expanding) {
+        if (selectionSet == null) {
+            return 0;
+        }
+        long count = 0;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (count >= MAX_COST) {
+                break;
+            }
+            if (selection instanceof Field field) {
+                count = add(count, 1 + countFields(field.getSelectionSet(), fragments, fragmentCosts, expanding));
+            } else if (selection instanceof InlineFragment fragment) {
+                count = add(count, countFields(fragment.getSelectionSet(), fragments, fragmentCosts, expanding));
+            } else if (selection instanceof FragmentSpread spread) {
+                String name = spread.getName();
+                Long cached = fragmentCosts.get(name);
+                if (cached != null) {
+                    count = add(count, cached);
+                } else if (fragments.containsKey(name) && expanding.add(name)) {
+                    long fragmentCost = countFields(fragments.get(name).getSelectionSet(), fragments, fragmentCosts, expanding);
+                    expanding.remove(name);
+                    fragmentCosts.put(name, fragmentCost);
+                    count = add(count, fragmentCost);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long add(long count, long cost) {
+        return Math.min(count + cost, MAX_COST);
+    }
+}
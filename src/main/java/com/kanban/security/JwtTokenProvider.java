@@ -13,6 +13,8 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
 
+    private static final String TENANT_CLAIM = "tenant";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -24,11 +26,16 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(String username) {
+        return generateToken(username, TenantContext.DEFAULT_TENANT);
+    }
+
+    public String generateToken(String username, String tenantId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
                 .subject(username)
+                .claim(TENANT_CLAIM, tenantId)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
@@ -44,6 +51,19 @@ public class JwtTokenProvider {
         return claims.getSubject();
     }
 
+    /**
+     * Returns the tenant claim, or the default tenant for tokens issued before tenants existed.
+     */
+    public String getTenantFromToken(String token) {
+        Claims claims = Jwts.parser()
+                .verifyWith(getSigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        String tenantId = claims.get(TENANT_CLAIM, String.class);
+        return tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT;
+    }
+
     public boolean validateToken(String token) {
         try {
             Jwts.parser()
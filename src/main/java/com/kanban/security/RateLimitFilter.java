@@ -0,0 +1,152 @@
+package com.kanban.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the per-route token bucket budgets from {@code rate-limit.routes}.
+ * <p>
+ * Runs after {@link JwtAuthenticationFilter} so that clients are keyed by their JWT subject;
+ * unauthenticated requests are keyed by remote address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final GraphQlCostEstimator graphQlCostEstimator;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<CompiledRoute> routes;
+
+    public RateLimitFilter(RateLimiter rateLimiter, GraphQlCostEstimator graphQlCostEstimator,
+                           ObjectMapper objectMapper, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.graphQlCostEstimator = graphQlCostEstimator;
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().stream()
+                .map(CompiledRoute::new)
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CompiledRoute route = findRoute(request);
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest effectiveRequest = request;
+        long cost = route.cost;
+        if (route.graphqlCost) {
+            CachedBodyHttpServletRequest cachedRequest;
+            try {
+                cachedRequest = new CachedBodyHttpServletRequest(request, route.maxBodyBytes);
+            } catch (RequestBodyTooLargeException e) {
+                writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+                return;
+            }
+            cost = graphQlCostEstimator.estimate(cachedRequest.getBody());
+            effectiveRequest = cachedRequest;
+            // The bucket could never hold enough tokens, so waiting would not help
+            long capacity = rateLimiter.capacity(route.bucket);
+            if (cost > capacity) {
+                writeError(response, HttpStatus.BAD_REQUEST,
+                        "Query cost of " + cost + " exceeds the " + route.bucket + " budget of " + capacity);
+                return;
+            }
+        }
+
+        long waitNanos = rateLimiter.tryConsume(route.bucket, clientKey(request), cost);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded for " + route.bucket + " requests");
+            return;
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .build();
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private CompiledRoute findRoute(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        String method = request.getMethod();
+        for (CompiledRoute route : routes) {
+            if ((route.methods.isEmpty() || route.methods.contains(method)) && route.pattern.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "sub:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static final class CompiledRoute {
+
+        private final PathPattern pattern;
+        private final Set<String> methods;
+        private final String bucket;
+        private final long cost;
+        private final boolean graphqlCost;
+        private final int maxBodyBytes;
+
+        private CompiledRoute(RateLimitProperties.Route route) {
+            this.pattern = PathPatternParser.defaultInstance.parse(route.getPattern());
+            this.methods = route.getMethods().stream()
+                    .map(method -> method.toUpperCase(Locale.ROOT))
+                    .collect(Collectors.toUnmodifiableSet());
+            this.bucket = route.getBucket();
+            this.cost = route.getCost();
+            this.graphqlCost = route.isGraphqlCost();
+            this.maxBodyBytes = Math.toIntExact(route.getMaxBodySize().toBytes());
+        }
+    }
+}
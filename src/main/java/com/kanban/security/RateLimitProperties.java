@@ -0,0 +1,54 @@
+package com.kanban.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Buckets are idle once refilled completely and evicted after this delay.
+     */
+    private Duration idleEviction = Duration.ofMinutes(5);
+
+    private Map<String, Bucket> buckets = new LinkedHashMap<>();
+
+    /**
+     * Evaluated in order; the first route matching the request path and method applies.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Bucket {
+        private long capacity;
+        private double refillPerSecond;
+    }
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private List<String> methods = new ArrayList<>();
+        private String bucket;
+        private long cost = 1;
+        /**
+         * Charge the number of fields selected by the GraphQL document instead of {@link #cost}.
+         */
+        private boolean graphqlCost;
+        /**
+         * Largest body buffered to estimate the GraphQL cost; longer requests are rejected with 413.
+         */
+        private DataSize maxBodySize = DataSize.ofKilobytes(64);
+    }
+}
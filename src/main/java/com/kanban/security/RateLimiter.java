@@ -0,0 +1,84 @@
+package com.kanban.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-client token buckets for each configured budget (reads, writes, GraphQL cost...).
+ */
+@Component
+public class RateLimiter {
+
+    private final Map<String, BucketGroup> groups = new HashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        properties.getBuckets().forEach((name, bucket) -> groups.put(name, new BucketGroup(name, bucket, meterRegistry)));
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket.
+     *
+     * @return {@code 0} when allowed, otherwise the nanoseconds until the request could be retried
+     */
+    public long tryConsume(String bucketName, String clientKey, long cost) {
+        BucketGroup group = groups.get(bucketName);
+        if (group == null) {
+            throw new IllegalStateException("Unknown rate limit bucket: " + bucketName);
+        }
+        return group.tryConsume(clientKey, cost);
+    }
+
+    /**
+     * The most tokens a request can ever take from the bucket.
+     */
+    public long capacity(String bucketName) {
+        BucketGroup group = groups.get(bucketName);
+        if (group == null) {
+            throw new IllegalStateException("Unknown rate limit bucket: " + bucketName);
+        }
+        return group.config.getCapacity();
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.idle-eviction:PT5M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        groups.values().forEach(group -> group.buckets.values().removeIf(bucket -> bucket.isFull(now)));
+    }
+
+    private static final class BucketGroup {
+
+        private final RateLimitProperties.Bucket config;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private BucketGroup(String name, RateLimitProperties.Bucket config, MeterRegistry meterRegistry) {
+            this.config = config;
+            this.allowed = Counter.builder("rate_limit.requests").tag("bucket", name).tag("result", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("rate_limit.requests").tag("bucket", name).tag("result", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("rate_limit.buckets.active", buckets, Map::size).tag("bucket", name)
+                    .register(meterRegistry);
+        }
+
+        private long tryConsume(String clientKey, long cost) {
+            long now = System.nanoTime();
+            TokenBucket bucket = buckets.get(clientKey);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(clientKey,
+                        key -> new TokenBucket(config.getCapacity(), config.getRefillPerSecond(), now));
+            }
+            long waitNanos = bucket.tryConsume(cost, now);
+            (waitNanos == 0 ? allowed : rejected).increment();
+            return waitNanos;
+        }
+    }
+}
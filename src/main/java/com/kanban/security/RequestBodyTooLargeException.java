@@ -0,0 +1,13 @@
+package com.kanban.security;
+
+import java.io.IOException;
+
+/**
+ * Thrown by {@link CachedBodyHttpServletRequest} when a body exceeds the size it may buffer.
+ */
+public class RequestBodyTooLargeException extends IOException {
+
+    public RequestBodyTooLargeException(int maxBytes) {
+        super("Request body exceeds " + maxBytes + " bytes");
+    }
+}
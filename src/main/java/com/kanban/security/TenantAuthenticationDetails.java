@@ -0,0 +1,21 @@
+package com.kanban.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Request details of an authenticated request plus the tenant from its JWT.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class TenantAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final String tenantId;
+
+    public TenantAuthenticationDetails(HttpServletRequest request, String tenantId) {
+        super(request);
+        this.tenantId = tenantId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kanban.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant that the current request or job acts for.
+ * <p>
+ * Requests carry the tenant in their {@link TenantAuthenticationDetails}, taken from the JWT
+ * {@code tenant} claim. Background jobs, which have no authentication, select a tenant
+ * explicitly with {@link #runAs}. Everything else belongs to {@link #DEFAULT_TENANT}.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final ThreadLocal<String> OVERRIDE = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String currentTenant() {
+        String override = OVERRIDE.get();
+        if (override != null) {
+            return override;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof TenantAuthenticationDetails details) {
+            return details.getTenantId();
+        }
+        return DEFAULT_TENANT;
+    }
+
+    /**
+     * Runs {@code action} on behalf of {@code tenantId}, regardless of the current authentication.
+     */
+    public static void runAs(String tenantId, Runnable action) {
+        String previous = OVERRIDE.get();
+        OVERRIDE.set(tenantId);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                OVERRIDE.set(previous);
+            } else {
+                OVERRIDE.remove();
+            }
+        }
+    }
+
+    /**
+     * Tenant ids end up in SQL parameters and STOMP destinations, so only a safe alphabet is accepted.
+     */
+    public static boolean isValidTenantId(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+}
@@ -0,0 +1,53 @@
+package com.kanban.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA).
+ * <p>
+ * The whole bucket state is a single timestamp, the instant at which the bucket would
+ * have been empty, updated with one CAS. This is equivalent to a bucket of
+ * {@code capacity} tokens refilled at {@code refillPerSecond} but needs neither locks
+ * nor allocation per request.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong emptyAt;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.emptyAt = new AtomicLong(nowNanos - burstNanos);
+    }
+
+    /**
+     * Tries to take {@code cost} tokens. A cost above the capacity is never granted; callers reject
+     * such requests up front, as no wait would let them through.
+     *
+     * @return {@code 0} when the tokens were taken, otherwise the nanoseconds to wait before retrying
+     */
+    public long tryConsume(long cost, long nowNanos) {
+        long increment = nanosPerToken * cost;
+        while (true) {
+            long current = emptyAt.get();
+            long start = Math.max(current, nowNanos - burstNanos);
+            long next = start + increment;
+            long waitNanos = next - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has refilled completely carries no state worth keeping.
+     */
+    public boolean isFull(long nowNanos) {
+        return emptyAt.get() <= nowNanos - burstNanos;
+    }
+}
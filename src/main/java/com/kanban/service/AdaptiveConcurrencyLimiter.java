@@ -0,0 +1,131 @@
+package com.kanban.service;
+
+import com.kanban.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit on the number of concurrent {@link TaskService} calls, following the
+ * gradient algorithm of Netflix concurrency-limits.
+ * <p>
+ * A slow moving average of call latency approximates the no-load latency and a fast one
+ * tracks current latency. Their ratio (the gradient) shrinks the limit as soon as
+ * the database starts queueing work and lets it grow again once latency recovers.
+ * Calls over the limit are rejected immediately instead of waiting for a connection.
+ * Reads may only use {@code read-share} of the limit so writes keep headroom during read storms.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority { READ, WRITE }
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double readShare;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, AtomicInteger> inFlightByPriority = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${concurrency-limit.enabled:true}") boolean enabled,
+                                      @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${concurrency-limit.min-limit:4}") int minLimit,
+                                      @Value("${concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${concurrency-limit.read-share:0.8}") double readShare,
+                                      @Value("${concurrency-limit.smoothing:0.2}") double smoothing) {
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.readShare = readShare;
+        this.smoothing = smoothing;
+
+        Gauge.builder("concurrency_limit.limit", this, limiter -> limiter.limit).register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            AtomicInteger counter = new AtomicInteger();
+            inFlightByPriority.put(priority, counter);
+            Gauge.builder("concurrency_limit.in_flight", counter, AtomicInteger::get)
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+            rejected.put(priority, Counter.builder("concurrency_limit.rejected")
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits a call or fails fast with {@link ServiceOverloadedException}.
+     *
+     * @return the start time to pass to {@link #release}
+     */
+    public long acquire(Priority priority) {
+        if (!enabled) {
+            return System.nanoTime();
+        }
+        double currentLimit = limit;
+        AtomicInteger priorityInFlight = inFlightByPriority.get(priority);
+        while (true) {
+            int current = inFlight.get();
+            boolean readShareExceeded = priority == Priority.READ
+                    && priorityInFlight.get() >= currentLimit * readShare;
+            if (current >= currentLimit || readShareExceeded) {
+                rejected.get(priority).increment();
+                throw new ServiceOverloadedException("Service is overloaded, please retry shortly");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                priorityInFlight.incrementAndGet();
+                return System.nanoTime();
+            }
+        }
+    }
+
+    public void release(Priority priority, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        int current = inFlight.getAndDecrement();
+        inFlightByPriority.get(priority).decrementAndGet();
+        onSample(System.nanoTime() - startNanos, current);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos = shortRttNanos * (1 - smoothing) + rttNanos * smoothing;
+        // The long-term average adapts ~50x slower and approximates latency without queueing
+        longRttNanos = longRttNanos * (1 - smoothing / 50) + rttNanos * (smoothing / 50);
+
+        // Do not grow the limit while the service is far from using it
+        if (inFlightAtCompletion < limit / 2 && shortRttNanos <= longRttNanos) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
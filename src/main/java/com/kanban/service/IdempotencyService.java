@@ -0,0 +1,228 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.exception.IdempotencyKeyConflictException;
+import com.kanban.exception.IdempotencyKeyMismatchException;
+import com.kanban.repository.IdempotencyRecordRepository;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates retried writes carrying an {@code Idempotency-Key}.
+ * <p>
+ * Stored responses are looked up in a bounded in-memory LRU first and in the
+ * {@code idempotency_keys} table second, so a replay is answered without running
+ * the original action again, even when the retry lands on another node.
+ * <p>
+ * The key row is inserted before the action runs, in the same transaction, and receives the
+ * response when the action returns. A concurrent request with the same key on another node
+ * blocks on that row until the first transaction commits and then replays its response; if
+ * the action fails, the key is rolled back with it.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Map<String, CachedResponse> cache;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter hits;
+    private final Counter misses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.cache.max-entries:10000}") int maxEntries) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("idempotency.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("idempotency.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("idempotency.cache.hit.ratio", this, IdempotencyService::hitRatio).register(meterRegistry);
+        Gauge.builder("idempotency.cache.size", this, IdempotencyService::cacheSize).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code action} once per idempotency key and replays its stored response for retries.
+     * Without a key the action simply runs.
+     *
+     * @param idempotencyKey client supplied key, may be {@code null}
+     * @param scope          operation the key is bound to, e.g. {@code "POST /api/tasks"}
+     * @param request        request payload used to detect a key reused for a different request
+     */
+    public <T> Result<T> execute(String idempotencyKey, String scope, Object request,
+                                 Class<T> responseType, Supplier<T> action) {
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return new Result<>(action.get(), false);
+        }
+
+        String storageKey = sha256(currentPrincipal() + ":" + scope + ":" + idempotencyKey);
+        String fingerprint = sha256(scope + ":" + toJson(request));
+
+        CachedResponse stored = lookup(storageKey);
+        if (stored != null) {
+            return replay(stored, fingerprint, responseType);
+        }
+
+        if (!inFlight.add(storageKey)) {
+            throw new IdempotencyKeyConflictException(
+                    "A request with this Idempotency-Key is already being processed");
+        }
+        try {
+            // Another thread may have completed between the lookup and acquiring the key
+            stored = lookup(storageKey);
+            if (stored != null) {
+                return replay(stored, fingerprint, responseType);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(ttl);
+            Result<T> result = transactionTemplate.execute(tx -> {
+                if (idempotencyRecordRepository.claim(storageKey, fingerprint, now, expiresAt) == 0) {
+                    // Another node committed this key while the claim waited for it
+                    CachedResponse committed = lookup(storageKey);
+                    if (committed == null) {
+                        throw new IdempotencyKeyConflictException(
+                                "A request with this Idempotency-Key is already being processed");
+                    }
+                    return replay(committed, fingerprint, responseType);
+                }
+                misses.increment();
+                T response = action.get();
+                idempotencyRecordRepository.complete(storageKey, toJson(response));
+                return new Result<>(response, false);
+            });
+            if (!result.replayed()) {
+                cache(storageKey, new CachedResponse(fingerprint, toJson(result.response()), expiresAt));
+            }
+            return result;
+        } finally {
+            inFlight.remove(storageKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.expiresAt().isBefore(now));
+        }
+        int removed = idempotencyRecordRepository.deleteExpired(now);
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private <T> Result<T> replay(CachedResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key was already used for a different request");
+        }
+        hits.increment();
+        try {
+            return new Result<>(objectMapper.readValue(stored.responseBody(), responseType), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private CachedResponse lookup(String storageKey) {
+        LocalDateTime now = LocalDateTime.now();
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(storageKey);
+        }
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return cached;
+        }
+
+        return idempotencyRecordRepository.findById(storageKey)
+                .filter(record -> record.getExpiresAt().isAfter(now))
+                .map(record -> cache(storageKey, new CachedResponse(
+                        record.getRequestFingerprint(), record.getResponseBody(), record.getExpiresAt())))
+                .orElse(null);
+    }
+
+    private CachedResponse cache(String storageKey, CachedResponse response) {
+        synchronized (cache) {
+            cache.put(storageKey, response);
+        }
+        return response;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String name = authentication != null ? authentication.getName() : "anonymous";
+        // Subjects are only unique within a tenant
+        return TenantContext.currentTenant() + "/" + name;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request could not be serialized for idempotency check", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Result<T>(T response, boolean replayed) {}
+
+    private record CachedResponse(String fingerprint, String responseBody, LocalDateTime expiresAt) {}
+}
@@ -0,0 +1,352 @@
+package com.kanban.service;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant in-memory copy of the live tasks, kept in step with {@code tasks} for
+ * {@link TaskReadModel}, {@link TaskFacetIndex} and {@link TaskTitleIndex}. Each of them only
+ * supplies how one tenant's {@link Partition} stores a task.
+ * <p>
+ * {@link #reload} streams the tasks from the database and swaps in the new partitions one tenant
+ * at a time, so queries keep using the previous ones meanwhile. {@link TaskChangedEvent}s that
+ * arrive during a reload are applied to the current partitions and replayed on the loaded ones.
+ * Writes to a partition are serialized by its tenant's lock, so tenants do not wait for each other.
+ * <p>
+ * {@link #checkConsistency} compares per-status counts and version sums with the database. A
+ * tenant that differs on two consecutive checks (a single difference may be a commit whose event
+ * is still on its way) is reloaded.
+ * <p>
+ * With a memory budget, a copy whose estimated size outgrows it is dropped for good and queries
+ * go to the database until the next restart.
+ *
+ * @param <P> one tenant's share of the index
+ */
+@Slf4j
+public class InMemoryTaskIndex<P extends InMemoryTaskIndex.Partition> {
+
+    private static final String SELECT_AGGREGATES = "SELECT tenant_id, status, count(*), coalesce(sum(version), 0) "
+            + "FROM tasks WHERE deleted_at IS NULL GROUP BY tenant_id, status";
+
+    /**
+     * One tenant's tasks. Writes are serialized by the index; queries run concurrently with them.
+     * Events of concurrent transactions may arrive out of commit order, so {@link #put} ignores a
+     * task whose version is older than the one held.
+     */
+    public interface Partition {
+
+        void put(Task task);
+
+        void remove(long id);
+
+        /**
+         * Count and version sum of the tasks of each status.
+         */
+        Map<TaskStatus, long[]> aggregates();
+
+        long size();
+
+        default long estimatedBytes() {
+            return 0;
+        }
+    }
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String selectTasks;
+    private final RowMapper<Task> rowMapper;
+    private final Supplier<P> newPartition;
+    private final int loadFetchSize;
+    private final long maxBytes;
+    private final Counter inconsistencies;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final Map<String, P> partitions = new ConcurrentHashMap<>();
+    private final Map<String, TenantState> tenants = new ConcurrentHashMap<>();
+    private volatile boolean serving;
+    private volatile boolean reloadingAll;
+    private volatile boolean overBudget;
+
+    // Only touched by the scheduled consistency check
+    private final Set<String> suspectTenants = new HashSet<>();
+
+    /**
+     * @param metricPrefix prefix of the {@code .tasks} and {@code .inconsistencies} meters, also
+     *                     naming the index in log messages
+     * @param selectTasks  query of the live tasks with their {@code tenant_id}, without ordering
+     * @param rowMapper    maps a row of {@code selectTasks}, tenant included, to a task
+     * @param maxBytes     memory budget, {@link Long#MAX_VALUE} for none
+     */
+    InMemoryTaskIndex(String metricPrefix,
+                      JdbcTemplate jdbcTemplate,
+                      TransactionTemplate transactionTemplate,
+                      MeterRegistry meterRegistry,
+                      String selectTasks,
+                      RowMapper<Task> rowMapper,
+                      Supplier<P> newPartition,
+                      int loadFetchSize,
+                      long maxBytes) {
+        this.name = metricPrefix.replace('_', ' ');
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.selectTasks = selectTasks;
+        this.rowMapper = rowMapper;
+        this.newPartition = newPartition;
+        this.loadFetchSize = loadFetchSize;
+        this.maxBytes = maxBytes;
+        this.inconsistencies = Counter.builder(metricPrefix + ".inconsistencies").register(meterRegistry);
+
+        Gauge.builder(metricPrefix + ".tasks", partitions, map -> map.values().stream().mapToLong(Partition::size).sum())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether the index is loaded and within its budget.
+     */
+    public boolean isServing() {
+        return serving;
+    }
+
+    /**
+     * The tenant's partition, or {@code null} when the tenant has no tasks.
+     */
+    P partition(String tenantId) {
+        return partitions.get(tenantId);
+    }
+
+    long estimatedBytes() {
+        return partitions.values().stream().mapToLong(Partition::estimatedBytes).sum();
+    }
+
+    void onTaskChanged(TaskChangedEvent event) {
+        if (overBudget) {
+            return;
+        }
+        TenantState state = stateOf(event.tenantId());
+        synchronized (state) {
+            if (reloadingAll || state.reloading) {
+                state.pendingEvents.add(event);
+            }
+            apply(partitions, event);
+        }
+        if (serving && maxBytes < Long.MAX_VALUE && estimatedBytes() > maxBytes) {
+            dropOverBudget();
+        }
+    }
+
+    /**
+     * Bulk imports carry no tasks, so the tenant is reloaded. Should another reload be running
+     * already, the consistency check picks up the difference.
+     */
+    void onTasksImported(TasksImportedEvent event) {
+        if (serving && event.imported() > 0) {
+            reload(event.tenantId());
+        }
+    }
+
+    void checkConsistency() {
+        if (!serving) {
+            return;
+        }
+        Map<String, Map<TaskStatus, long[]>> expected = new HashMap<>();
+        jdbcTemplate.query(SELECT_AGGREGATES, (ResultSet rs) -> {
+            expected.computeIfAbsent(rs.getString(1), tenant -> new EnumMap<>(TaskStatus.class))
+                    .put(TaskStatus.valueOf(rs.getString(2)), new long[] {rs.getLong(3), rs.getLong(4)});
+        });
+
+        Set<String> all = new HashSet<>(expected.keySet());
+        all.addAll(partitions.keySet());
+        Set<String> stale = new HashSet<>();
+        for (String tenant : all) {
+            P partition = partitions.get(tenant);
+            Map<TaskStatus, long[]> actual = partition != null ? partition.aggregates() : Map.of();
+            if (!matches(expected.getOrDefault(tenant, Map.of()), actual)) {
+                stale.add(tenant);
+            }
+        }
+
+        List<String> toReload = new ArrayList<>();
+        for (String tenant : stale) {
+            if (suspectTenants.contains(tenant)) {
+                toReload.add(tenant);
+            }
+        }
+        suspectTenants.clear();
+        suspectTenants.addAll(stale);
+        suspectTenants.removeAll(toReload);
+        for (String tenant : toReload) {
+            inconsistencies.increment();
+            log.warn("{} of tenant {} differs from the database, reloading it", StringUtils.capitalize(name), tenant);
+            reload(tenant);
+        }
+    }
+
+    /**
+     * Rebuilds the partitions of one tenant, or of all tenants when {@code tenantId} is
+     * {@code null}, from the database. Returns at once when another reload is running. A load
+     * that would exceed the memory budget stops adding rows and drops the index.
+     */
+    void reload(String tenantId) {
+        if (overBudget || !reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            if (tenantId == null) {
+                reloadingAll = true;
+                for (TenantState state : tenants.values()) {
+                    synchronized (state) {
+                        state.pendingEvents.clear();
+                    }
+                }
+            } else {
+                TenantState state = stateOf(tenantId);
+                synchronized (state) {
+                    state.reloading = true;
+                    state.pendingEvents.clear();
+                }
+            }
+            long start = System.nanoTime();
+            // A tenant reload replaces that tenant's share of the budget
+            long otherTenantsBytes = tenantId == null ? 0 : estimatedBytes()
+                    - (partitions.containsKey(tenantId) ? partitions.get(tenantId).estimatedBytes() : 0);
+            long[] loadedBytes = {otherTenantsBytes};
+            Map<String, P> loaded = new HashMap<>();
+            // A transaction lets the driver stream the result set with a cursor instead of buffering it
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            tenantId == null ? selectTasks : selectTasks + " AND tenant_id = ?");
+                    statement.setFetchSize(loadFetchSize);
+                    if (tenantId != null) {
+                        statement.setString(1, tenantId);
+                    }
+                    return statement;
+                }, (ResultSet rs) -> {
+                    if (loadedBytes[0] > maxBytes) {
+                        return;
+                    }
+                    Task task = rowMapper.mapRow(rs, 0);
+                    P partition = loaded.computeIfAbsent(task.getTenantId(), tenant -> newPartition.get());
+                    long before = partition.estimatedBytes();
+                    partition.put(task);
+                    loadedBytes[0] += partition.estimatedBytes() - before;
+                });
+            });
+
+            Set<String> reloaded = new HashSet<>();
+            if (tenantId == null) {
+                reloaded.addAll(loaded.keySet());
+                reloaded.addAll(partitions.keySet());
+                reloaded.addAll(tenants.keySet());
+            } else {
+                reloaded.add(tenantId);
+            }
+            if (loadedBytes[0] > maxBytes) {
+                reloaded.forEach(this::finishReload);
+                reloadingAll = false;
+                dropOverBudget();
+                return;
+            }
+            for (String tenant : reloaded) {
+                TenantState state = stateOf(tenant);
+                synchronized (state) {
+                    Map<String, P> target = new HashMap<>();
+                    if (loaded.containsKey(tenant)) {
+                        target.put(tenant, loaded.get(tenant));
+                    }
+                    for (TaskChangedEvent event : state.pendingEvents) {
+                        apply(target, event);
+                    }
+                    P partition = target.get(tenant);
+                    if (partition != null) {
+                        partitions.put(tenant, partition);
+                    } else {
+                        partitions.remove(tenant);
+                    }
+                }
+                finishReload(tenant);
+            }
+            reloadingAll = false;
+            serving = true;
+            log.info("Loaded {} tasks into the {}{} in {} ms",
+                    loaded.values().stream().mapToLong(Partition::size).sum(),
+                    name,
+                    tenantId != null ? " for tenant " + tenantId : "",
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void finishReload(String tenant) {
+        TenantState state = stateOf(tenant);
+        synchronized (state) {
+            state.pendingEvents.clear();
+            state.reloading = false;
+        }
+    }
+
+    private void dropOverBudget() {
+        overBudget = true;
+        serving = false;
+        partitions.clear();
+        log.warn("The {} exceeds its memory budget of {} bytes, queries fall back to the database", name, maxBytes);
+    }
+
+    private TenantState stateOf(String tenantId) {
+        return tenants.computeIfAbsent(tenantId, tenant -> new TenantState());
+    }
+
+    private void apply(Map<String, P> target, TaskChangedEvent event) {
+        P partition = target.computeIfAbsent(event.tenantId(), tenant -> newPartition.get());
+        for (Task task : event.changed()) {
+            partition.put(task);
+        }
+        for (Long id : event.deletedIds()) {
+            partition.remove(id);
+        }
+    }
+
+    private static boolean matches(Map<TaskStatus, long[]> expected, Map<TaskStatus, long[]> actual) {
+        for (TaskStatus status : TaskStatus.values()) {
+            long[] left = expected.getOrDefault(status, new long[2]);
+            long[] right = actual.getOrDefault(status, new long[2]);
+            if (left[0] != right[0] || left[1] != right[1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lock of one tenant's partition, and the events that arrived while a reload was reading it
+     * from the database. Fields are guarded by the instance itself.
+     */
+    private static final class TenantState {
+
+        private final List<TaskChangedEvent> pendingEvents = new ArrayList<>();
+        private boolean reloading;
+    }
+}
@@ -0,0 +1,173 @@
+package com.kanban.service;
+
+import java.math.BigInteger;
+
+/**
+ * Lexicographic ranks used to order tasks inside a status column.
+ * <p>
+ * Ranks are base-36 strings ({@code 0-9a-z}) compared with plain string ordering. A new
+ * rank can always be generated between two existing ones, so moving a task only rewrites
+ * that task's row. Generated ranks never end with {@code '0'}, which keeps the space
+ * between any two ranks non-empty.
+ */
+public final class LexoRank {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final int APPEND_WIDTH = 6;
+    private static final String INITIAL = "i";
+
+    private LexoRank() {
+    }
+
+    /**
+     * Returns a rank sorting after {@code previous}, or the initial rank when the column is empty.
+     * Appends increment the rank as a fixed-width number so that they grow very slowly.
+     */
+    public static String after(String previous) {
+        if (previous == null || previous.isEmpty()) {
+            return INITIAL;
+        }
+        StringBuilder rank = new StringBuilder(previous);
+        while (rank.length() < APPEND_WIDTH) {
+            rank.append('0');
+        }
+        for (int i = rank.length() - 1; i >= 0; i--) {
+            int digit = digit(rank.charAt(i));
+            if (digit < BASE - 1) {
+                rank.setCharAt(i, DIGITS.charAt(digit + 1));
+                return stripTrailingZeros(rank);
+            }
+            rank.setCharAt(i, '0');
+        }
+        // Every digit was 'z': extend instead of wrapping around
+        return previous + DIGITS.charAt(BASE / 2);
+    }
+
+    /**
+     * Returns a rank strictly between {@code lower} and {@code upper}.
+     *
+     * @param lower lower bound, {@code null} for the top of the column
+     * @param upper upper bound, {@code null} for the bottom of the column
+     */
+    public static String between(String lower, String upper) {
+        String low = lower != null ? lower : "";
+        if (upper != null && low.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Lower rank must sort before upper rank: " + lower + " >= " + upper);
+        }
+
+        StringBuilder rank = new StringBuilder();
+        boolean upperBounded = upper != null;
+        for (int i = 0; ; i++) {
+            int lowDigit = i < low.length() ? digit(low.charAt(i)) : 0;
+            int highDigit;
+            if (!upperBounded) {
+                highDigit = BASE;
+            } else if (i < upper.length()) {
+                highDigit = digit(upper.charAt(i));
+            } else {
+                throw new IllegalArgumentException("Rank ends with a zero digit: " + upper);
+            }
+
+            if (lowDigit == highDigit) {
+                rank.append(DIGITS.charAt(lowDigit));
+                continue;
+            }
+            int middle = (lowDigit + highDigit) / 2;
+            if (middle > lowDigit) {
+                rank.append(DIGITS.charAt(middle));
+                return rank.toString();
+            }
+            // Adjacent digits: keep the lower one and search the unbounded space below the upper rank
+            rank.append(DIGITS.charAt(lowDigit));
+            upperBounded = false;
+        }
+    }
+
+    /**
+     * Returns {@code count} evenly spaced ranks of equal width, used when rebalancing a column.
+     */
+    public static String[] evenlySpaced(int count) {
+        int width = 1;
+        long space = BASE;
+        while (space <= count) {
+            width++;
+            space *= BASE;
+        }
+        // One spare digit leaves room for future moves between neighbours
+        width++;
+        space *= BASE;
+
+        long step = space / (count + 1L);
+        String[] ranks = new String[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = stripTrailingZeros(new StringBuilder(toBase36((i + 1) * step, width)));
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns {@code count} evenly spaced ranks strictly between {@code lower} and {@code upper},
+     * as short as the gap allows plus one spare digit.
+     *
+     * @param lower lower bound, {@code null} for the top of the column
+     * @param upper upper bound, {@code null} for the bottom of the column
+     */
+    public static String[] evenlySpacedBetween(String lower, String upper, int count) {
+        String low = lower != null ? lower : "";
+        if (upper != null && low.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Lower rank must sort before upper rank: " + lower + " >= " + upper);
+        }
+        BigInteger base = BigInteger.valueOf(BASE);
+        BigInteger slots = BigInteger.valueOf(count + 1L);
+        int width = Math.max(1, Math.max(low.length(), upper != null ? upper.length() : 0));
+        BigInteger lowValue = padded(low, width);
+        BigInteger highValue = upper != null ? padded(upper, width) : base.pow(width);
+        while (highValue.subtract(lowValue).compareTo(slots) <= 0) {
+            width++;
+            lowValue = lowValue.multiply(base);
+            highValue = highValue.multiply(base);
+        }
+        // One spare digit leaves room for future moves between neighbours
+        width++;
+        lowValue = lowValue.multiply(base);
+        highValue = highValue.multiply(base);
+
+        BigInteger step = highValue.subtract(lowValue).divide(slots);
+        String[] ranks = new String[count];
+        for (int i = 0; i < count; i++) {
+            String digits = lowValue.add(step.multiply(BigInteger.valueOf(i + 1L))).toString(BASE);
+            ranks[i] = stripTrailingZeros(new StringBuilder("0".repeat(width - digits.length()) + digits));
+        }
+        return ranks;
+    }
+
+    private static BigInteger padded(String rank, int width) {
+        return new BigInteger(rank + "0".repeat(width - rank.length()), BASE);
+    }
+
+    private static String toBase36(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    private static String stripTrailingZeros(StringBuilder rank) {
+        int end = rank.length();
+        while (end > 1 && rank.charAt(end - 1) == '0') {
+            end--;
+        }
+        return rank.substring(0, end);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank character: " + c);
+        }
+        return digit;
+    }
+}
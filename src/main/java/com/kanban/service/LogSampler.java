@@ -0,0 +1,54 @@
+package com.kanban.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a hot-path event is logged, using the per-event rates from {@code log-sampling.rates}.
+ * <p>
+ * Sampling is random rather than every n-th event so that concurrent requests cannot line up with
+ * the sampling period. Events that are not sampled cost a map lookup and no message formatting.
+ */
+@Component
+@RequiredArgsConstructor
+public class LogSampler {
+
+    public static final String TASK_CREATED = "task-created";
+    public static final String TASK_UPDATED = "task-updated";
+    public static final String TASK_BATCH_UPDATED = "task-batch-updated";
+    public static final String TASK_MOVED = "task-moved";
+    public static final String TASK_DELETED = "task-deleted";
+    public static final String TASK_RESTORED = "task-restored";
+    public static final String WEBSOCKET_NOTIFICATION = "websocket-notification";
+
+    private final LogSamplingProperties properties;
+
+    public boolean shouldLog(String event) {
+        Double rate = properties.getRates().get(event);
+        if (rate == null || rate >= 1.0) {
+            return true;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Logs at INFO if {@code event} is sampled.
+     */
+    public void info(Logger logger, String event, String format, Object arg) {
+        if (shouldLog(event)) {
+            logger.info(format, arg);
+        }
+    }
+
+    /**
+     * Logs at INFO if {@code event} is sampled.
+     */
+    public void info(Logger logger, String event, String format, Object arg1, Object arg2) {
+        if (shouldLog(event)) {
+            logger.info(format, arg1, arg2);
+        }
+    }
+}
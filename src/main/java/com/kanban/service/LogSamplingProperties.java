@@ -0,0 +1,20 @@
+package com.kanban.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "log-sampling")
+public class LogSamplingProperties {
+
+    /**
+     * Fraction (0 to 1) of each hot-path event that is logged, keyed by event name
+     * such as {@code task-created}. Events without a rate are always logged.
+     */
+    private Map<String, Double> rates = new LinkedHashMap<>();
+}
@@ -0,0 +1,52 @@
+package com.kanban.service;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed pool of threads writing to client connections.
+ * <p>
+ * A write to a client that stopped reading blocks until the container's write timeout fires. When
+ * such a connection is given up, its thread is {@linkplain #abandon() abandoned}: the pool starts
+ * a replacement, so stalled clients never tie up the threads other clients depend on. The extra
+ * thread goes away once the blocked write {@linkplain #abandonedWriteReturned() returns}.
+ */
+public class SenderPool {
+
+    private final ThreadPoolExecutor executor;
+
+    public SenderPool(String threadNamePrefix, int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Starts a replacement for a thread blocked in a write that is no longer waited for.
+     */
+    public synchronized void abandon() {
+        // The maximum may never drop below the core size
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+        executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+    }
+
+    /**
+     * Undoes one {@link #abandon()} once the abandoned write has returned.
+     */
+    public synchronized void abandonedWriteReturned() {
+        executor.setCorePoolSize(executor.getCorePoolSize() - 1);
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() - 1);
+    }
+
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
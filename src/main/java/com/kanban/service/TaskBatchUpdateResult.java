@@ -0,0 +1,15 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskResponseDto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch of partial updates.
+ *
+ * @param tasks   the tasks as stored after the batch, one per update and in the order of the updates
+ * @param changed the tasks the batch changed, once each; empty when nothing was written, in which
+ *                case no event is due
+ */
+public record TaskBatchUpdateResult(List<TaskResponseDto> tasks, List<TaskResponseDto> changed) {
+}
@@ -0,0 +1,31 @@
+package com.kanban.service;
+
+import com.kanban.entity.Task;
+import com.kanban.security.TenantContext;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published inside the transaction that wrote tasks. Listeners use
+ * {@code @TransactionalEventListener} so they only see committed changes; by then Hibernate
+ * has flushed the entities, so their version and timestamps are final.
+ *
+ * @param tenantId   tenant the tasks belong to
+ * @param changed    created, updated or restored tasks
+ * @param deletedIds ids of deleted tasks
+ */
+public record TaskChangedEvent(String tenantId, List<Task> changed, List<Long> deletedIds) {
+
+    public static TaskChangedEvent changed(Task task) {
+        return changed(List.of(task));
+    }
+
+    public static TaskChangedEvent changed(Collection<Task> tasks) {
+        return new TaskChangedEvent(TenantContext.currentTenant(), List.copyOf(tasks), List.of());
+    }
+
+    public static TaskChangedEvent deleted(Long id) {
+        return new TaskChangedEvent(TenantContext.currentTenant(), List.of(), List.of(id));
+    }
+}
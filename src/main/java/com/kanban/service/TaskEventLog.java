@@ -0,0 +1,316 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.service.WebSocketNotificationService.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Numbers every {@link TaskEvent} and keeps the latest {@code task-events.buffer-size} of each
+ * tenant in a ring buffer, so that a client that lost its connection can ask for the events after
+ * the last sequence it saw instead of reloading the board.
+ * <p>
+ * Sequences are unique and increasing per instance, but not consecutive within a tenant. They
+ * start at the startup time in microseconds, so sequences handed out before a restart are older
+ * than anything the new instance knows and the client is told to resync. With
+ * {@code task-events.spill.enabled}, events pushed out of a ring buffer are appended to a per-tenant
+ * file of up to {@code task-events.spill.max-size}, which lengthens the replayable window; a new
+ * file is started when it is full and all of them are deleted on startup. A replay reads the spill
+ * file outside the tenant's lock, so appends of the tenant do not wait for it.
+ */
+@Component
+@Slf4j
+public class TaskEventLog {
+
+    private static final String SPILL_SUFFIX = ".events";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Path spillDirectory;
+    private final long maxSpillBytes;
+    private final long firstSequence;
+    private final AtomicLong sequence;
+    private final Map<String, TenantEvents> tenants = new ConcurrentHashMap<>();
+    private final Counter replays;
+    private final Counter resyncs;
+
+    /**
+     * Answer to a replay request. When {@code resyncRequired} is set some of the missed events are
+     * gone and the client has to reload the board; {@code events} is then empty.
+     */
+    public record Replay(boolean resyncRequired, long latestSequence, List<TaskEvent> events) {
+    }
+
+    public TaskEventLog(ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${task-events.buffer-size:1000}") int bufferSize,
+                        @Value("${task-events.spill.enabled:false}") boolean spillEnabled,
+                        @Value("${task-events.spill.directory:${java.io.tmpdir}/kanban-events}") Path spillDirectory,
+                        @Value("${task-events.spill.max-size:16MB}") DataSize maxSpillSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("task-events.buffer-size must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.spillDirectory = spillEnabled ? spillDirectory : null;
+        this.maxSpillBytes = maxSpillSize.toBytes();
+        this.firstSequence = System.currentTimeMillis() * 1000;
+        this.sequence = new AtomicLong(firstSequence);
+        this.replays = Counter.builder("task_events.replays").tag("outcome", "replayed").register(meterRegistry);
+        this.resyncs = Counter.builder("task_events.replays").tag("outcome", "resync").register(meterRegistry);
+        if (this.spillDirectory != null) {
+            deleteStaleSpillFiles();
+        }
+    }
+
+    /**
+     * Numbers an event of the tenant, keeps it and hands it to {@code publisher}. Events of one
+     * tenant reach the publisher one at a time, in sequence order.
+     */
+    public TaskEvent append(String tenantId, String eventType, Object payload, Consumer<TaskEvent> publisher) {
+        TenantEvents events = tenants.computeIfAbsent(tenantId, TenantEvents::new);
+        synchronized (events) {
+            TaskEvent event = new TaskEvent(sequence.incrementAndGet(), eventType, payload);
+            events.add(event);
+            publisher.accept(event);
+            return event;
+        }
+    }
+
+    /**
+     * Returns the tenant's events with a sequence greater than {@code lastSequence}, oldest first.
+     */
+    public Replay replay(String tenantId, Long lastSequence) {
+        long latest = sequence.get();
+        if (lastSequence == null || lastSequence < firstSequence || lastSequence > latest) {
+            // No position, or one handed out by an earlier run or another instance
+            return resync(latest);
+        }
+        TenantEvents events = tenants.get(tenantId);
+        if (events == null) {
+            replays.increment();
+            return new Replay(false, latest, List.of());
+        }
+        SpillSnapshot spilled;
+        List<TaskEvent> buffered;
+        synchronized (events) {
+            if (lastSequence < events.lostThrough) {
+                return resync(latest);
+            }
+            spilled = events.spilledSince(lastSequence);
+            buffered = events.bufferedSince(lastSequence);
+        }
+        List<TaskEvent> replayed = new ArrayList<>();
+        if (spilled != null) {
+            try {
+                readSpill(spilled, lastSequence, replayed);
+            } catch (NoSuchFileException e) {
+                // A new spill file was started since the snapshot, so the missed events are gone
+                return resync(latest);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read spilled events of tenant " + tenantId, e);
+            }
+        }
+        replayed.addAll(buffered);
+        replays.increment();
+        return new Replay(false, latest, replayed);
+    }
+
+    public long latestSequence() {
+        return sequence.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (TenantEvents events : tenants.values()) {
+            synchronized (events) {
+                events.closeSpill();
+            }
+        }
+    }
+
+    private Replay resync(long latest) {
+        resyncs.increment();
+        return new Replay(true, latest, List.of());
+    }
+
+    /**
+     * Reads the first {@code spilled.length()} bytes of the spill file, which were complete when the
+     * snapshot was taken; later appends to the file are ignored.
+     */
+    private void readSpill(SpillSnapshot spilled, long lastSequence, List<TaskEvent> events) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(spilled.file(), StandardCharsets.UTF_8)) {
+            long read = 0;
+            String line;
+            while (read < spilled.length() && (line = reader.readLine()) != null) {
+                read += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                TaskEvent event = objectMapper.readValue(line, TaskEvent.class);
+                if (event.sequence() > lastSequence) {
+                    events.add(event);
+                }
+            }
+        }
+    }
+
+    private void deleteStaleSpillFiles() {
+        try {
+            Files.createDirectories(spillDirectory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(spillDirectory, "*" + SPILL_SUFFIX)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare event spill directory " + spillDirectory, e);
+        }
+    }
+
+    /**
+     * The spill file of a tenant and how many bytes of it hold complete events.
+     */
+    private record SpillSnapshot(Path file, long length) {
+    }
+
+    /**
+     * The ring buffer and spill file of one tenant. Guarded by its own monitor.
+     */
+    private final class TenantEvents {
+
+        private final String tenantId;
+        private final TaskEvent[] ring = new TaskEvent[bufferSize];
+        private int oldest;
+        private int size;
+        /**
+         * Sequence of the newest event that can no longer be replayed.
+         */
+        private long lostThrough;
+        private OutputStream spill;
+        private Path spillFile;
+        private long spillGeneration;
+        private long spillBytes;
+        private long spillLastSequence;
+
+        TenantEvents(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        void add(TaskEvent event) {
+            if (size < ring.length) {
+                ring[(oldest + size++) % ring.length] = event;
+                return;
+            }
+            evict(ring[oldest]);
+            ring[oldest] = event;
+            oldest = (oldest + 1) % ring.length;
+        }
+
+        /**
+         * Returns where to read the spilled events after {@code lastSequence}, or {@code null} when
+         * none of them was spilled.
+         */
+        SpillSnapshot spilledSince(long lastSequence) {
+            if (spillBytes == 0 || lastSequence >= spillLastSequence) {
+                return null;
+            }
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot flush spilled events of tenant " + tenantId, e);
+            }
+            return new SpillSnapshot(spillFile, spillBytes);
+        }
+
+        List<TaskEvent> bufferedSince(long lastSequence) {
+            List<TaskEvent> events = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                TaskEvent event = ring[(oldest + i) % ring.length];
+                if (event.sequence() > lastSequence) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+
+        private void evict(TaskEvent event) {
+            if (spillDirectory == null || !spill(event)) {
+                lostThrough = event.sequence();
+            }
+        }
+
+        private boolean spill(TaskEvent event) {
+            try {
+                byte[] line = objectMapper.writeValueAsBytes(event);
+                if (spill == null || spillBytes + line.length + 1 > maxSpillBytes) {
+                    // Start a new file; whatever the old one held can no longer be replayed. Replays
+                    // still reading the old file keep their open handle.
+                    closeSpill();
+                    deleteSpillFile();
+                    lostThrough = Math.max(lostThrough, spillLastSequence);
+                    spillFile = spillDirectory.resolve(URLEncoder.encode(tenantId, StandardCharsets.UTF_8)
+                            + "." + ++spillGeneration + SPILL_SUFFIX);
+                    spill = new BufferedOutputStream(Files.newOutputStream(spillFile,
+                            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+                    spillBytes = 0;
+                }
+                spill.write(line);
+                spill.write('\n');
+                spillBytes += line.length + 1;
+                spillLastSequence = event.sequence();
+                return true;
+            } catch (IOException e) {
+                log.warn("Cannot spill event {} of tenant {}, it will not be replayable", event.sequence(), tenantId, e);
+                closeSpill();
+                spillBytes = 0;
+                return false;
+            }
+        }
+
+        private void closeSpill() {
+            if (spill == null) {
+                return;
+            }
+            try {
+                spill.close();
+            } catch (IOException e) {
+                log.warn("Cannot close event spill file of tenant {}", tenantId, e);
+            }
+            spill = null;
+        }
+
+        private void deleteSpillFile() {
+            if (spillFile == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                log.warn("Cannot delete event spill file {} of tenant {}", spillFile, tenantId, e);
+            }
+            spillFile = null;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskChangesDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.WebSocketNotificationService.TaskEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Read-only Server-Sent Events feed of the {@link TaskEvent}s sent to WebSocket subscribers.
+ * <p>
+ * Streams are held as asynchronous servlet requests, so an idle stream occupies a connection and
+ * a few small objects but no thread. Events are queued per stream and written by a small pool of
+ * sender threads, so a slow client never holds up the code publishing the event; a stream whose
+ * queue exceeds {@code task-stream.max-queued-events} is closed and the client resumes from its
+ * {@code Last-Event-ID} through the {@link TaskEventLog}. A stream whose write has been blocked
+ * for longer than {@code task-stream.send-time-limit} is dropped as well, and the {@link SenderPool}
+ * replaces the thread stuck in that write. Heartbeat comments keep proxies from timing out idle
+ * streams and reveal dead connections.
+ */
+@Component
+@Slf4j
+public class TaskEventStream {
+
+    static final String RESYNC_EVENT = "RESYNC";
+
+    private final TaskEventLog taskEventLog;
+    private final long timeoutMillis;
+    private final long sendTimeLimitNanos;
+    private final int maxQueuedEvents;
+    private final SenderPool senders;
+    private final ExecutorService closers;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Counter queueLimitCloses;
+    private final Counter sendTimeLimitCloses;
+
+    public TaskEventStream(TaskEventLog taskEventLog,
+                           MeterRegistry meterRegistry,
+                           @Value("${task-stream.timeout:PT30M}") Duration timeout,
+                           @Value("${task-stream.send-time-limit:PT10S}") Duration sendTimeLimit,
+                           @Value("${task-stream.max-queued-events:1000}") int maxQueuedEvents,
+                           @Value("${task-stream.sender-threads:4}") int senderThreads) {
+        this.taskEventLog = taskEventLog;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeLimitNanos = sendTimeLimit.toNanos();
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.senders = new SenderPool("task-stream-", senderThreads);
+        CustomizableThreadFactory closerThreadFactory = new CustomizableThreadFactory("task-stream-close-");
+        closerThreadFactory.setDaemon(true);
+        this.closers = Executors.newCachedThreadPool(closerThreadFactory);
+        this.queueLimitCloses = Counter.builder("task_stream.slow_streams_closed").tag("limit", "queued-events").register(meterRegistry);
+        this.sendTimeLimitCloses = Counter.builder("task_stream.slow_streams_closed").tag("limit", "send-time").register(meterRegistry);
+        Gauge.builder("task_stream.connections", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the tenant's events. With {@code lastEventId} the stream starts with the
+     * events missed since then, or with a {@code RESYNC} event when they are no longer kept.
+     *
+     * @param statuses statuses of the tasks to report; empty for all
+     */
+    public SseEmitter subscribe(String tenantId, Collection<TaskStatus> statuses, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<TaskStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(TaskStatus.class)
+                : EnumSet.copyOf(statuses);
+        Subscriber subscriber = new Subscriber(tenantId, emitter, filter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+
+        // Registered before the replay is read, so no event falls between the two
+        subscribers.computeIfAbsent(tenantId, tenant -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        List<Object> initial = new ArrayList<>();
+        if (lastEventId != null) {
+            TaskEventLog.Replay replay = taskEventLog.replay(tenantId, lastEventId);
+            if (replay.resyncRequired()) {
+                initial.add(SseEmitter.event().id(String.valueOf(replay.latestSequence())).name(RESYNC_EVENT).data(""));
+                lastEventId = replay.latestSequence();
+            } else {
+                initial.addAll(replay.events());
+            }
+        }
+        subscriber.start(initial, lastEventId != null ? lastEventId : Long.MIN_VALUE);
+        return emitter;
+    }
+
+    /**
+     * Queues the event for every stream of the tenant that is interested in it.
+     */
+    public void publish(String tenantId, TaskEvent event) {
+        Set<Subscriber> tenantSubscribers = subscribers.get(tenantId);
+        if (tenantSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : tenantSubscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Drops streams whose current write has been blocked for longer than the send time limit.
+     */
+    @Scheduled(fixedDelayString = "${task-stream.check-interval:PT1S}")
+    public void closeStalledStreams() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+                if (subscriber.evictIfStalled(now)) {
+                    subscriber.remove();
+                    log.info("Closing event stream of tenant {}: a write has been blocked for over {} ms",
+                            subscriber.tenantId, Duration.ofNanos(sendTimeLimitNanos).toMillis());
+                    sendTimeLimitCloses.increment();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        closers.shutdownNow();
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Returns the event as it should be sent to a stream filtering on {@code statuses}, or
+     * {@code null} when none of it concerns them. A task passes when its status or, after a status
+     * change, its previous status is filtered on, so the stream sees tasks leave its columns too.
+     * Events that do not carry a task status, such as deletions, always pass.
+     */
+    static TaskEvent filter(TaskEvent event, Set<TaskStatus> statuses) {
+        if (statuses.size() == TaskStatus.values().length) {
+            return event;
+        }
+        if (event.payload() instanceof List<?> tasks) {
+            List<Object> matching = new ArrayList<>();
+            for (Object task : tasks) {
+                if (matches(task, statuses)) {
+                    matching.add(task);
+                }
+            }
+            if (matching.isEmpty()) {
+                return null;
+            }
+            return matching.size() == tasks.size() ? event : new TaskEvent(event.sequence(), event.eventType(), matching);
+        }
+        return matches(event.payload(), statuses) ? event : null;
+    }
+
+    private static boolean matches(Object task, Set<TaskStatus> statuses) {
+        Object status;
+        Object previousStatus;
+        if (task instanceof TaskResponseDto dto) {
+            status = dto.getStatus();
+            previousStatus = dto.getPreviousStatus();
+        } else if (task instanceof TaskChangesDto changes) {
+            status = changes.getChanges().get("status");
+            previousStatus = changes.getPreviousStatus();
+        } else if (task instanceof Map<?, ?> spilled) {
+            // Events replayed from a spill file come back as parsed JSON
+            status = spilled.get("changes") instanceof Map<?, ?> changes ? changes.get("status") : spilled.get("status");
+            previousStatus = spilled.get("previousStatus");
+        } else {
+            return true;
+        }
+        if (status == null) {
+            return true;
+        }
+        return isFiltered(status, statuses) || (previousStatus != null && isFiltered(previousStatus, statuses));
+    }
+
+    private static boolean isFiltered(Object status, Set<TaskStatus> statuses) {
+        String name = status instanceof TaskStatus taskStatus ? taskStatus.name() : status.toString();
+        return statuses.stream().anyMatch(candidate -> candidate.name().equals(name));
+    }
+
+    /**
+     * One open stream. Events queue up until {@link #start} and are then written in order by at
+     * most one sender thread at a time.
+     */
+    private final class Subscriber {
+
+        private final String tenantId;
+        private final SseEmitter emitter;
+        private final Set<TaskStatus> statuses;
+        private final Deque<Object> queue = new ArrayDeque<>();
+        private long lastSequence;
+        private boolean started;
+        private boolean sending;
+        private boolean closed;
+        /**
+         * {@link System#nanoTime()} when the write in progress started, 0 when none is.
+         */
+        private long sendStarted;
+        /**
+         * Set when the stream was dropped during a write, whose thread the pool then replaced.
+         */
+        private boolean abandoned;
+
+        Subscriber(String tenantId, SseEmitter emitter, Set<TaskStatus> statuses) {
+            this.tenantId = tenantId;
+            this.emitter = emitter;
+            this.statuses = statuses;
+        }
+
+        synchronized void start(List<Object> initial, long lastSequence) {
+            List<Object> queued = new ArrayList<>(queue);
+            queue.clear();
+            queue.addAll(initial);
+            queue.addAll(queued);
+            this.lastSequence = lastSequence;
+            started = true;
+            scheduleSend();
+        }
+
+        /**
+         * Runs on the publishing thread, which may hold the {@link TaskEventLog}'s tenant lock, so
+         * it never waits for a write.
+         */
+        void offer(Object item) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() < maxQueuedEvents) {
+                    queue.add(item);
+                    if (started) {
+                        scheduleSend();
+                    }
+                    return;
+                }
+                closed = true;
+                queue.clear();
+                if (sendStarted != 0) {
+                    // The write in progress completes the emitter once it returns
+                    abandoned = true;
+                    senders.abandon();
+                } else {
+                    // Completing waits for a write that may start meanwhile
+                    closers.execute(emitter::complete);
+                }
+            }
+            remove();
+            log.info("Closing event stream of tenant {}: more than {} events queued", tenantId, maxQueuedEvents);
+            queueLimitCloses.increment();
+        }
+
+        /**
+         * Stops the stream if its current write started before the send time limit.
+         *
+         * @return whether this call stopped it
+         */
+        synchronized boolean evictIfStalled(long now) {
+            if (closed || sendStarted == 0 || now - sendStarted <= sendTimeLimitNanos) {
+                return false;
+            }
+            closed = true;
+            abandoned = true;
+            queue.clear();
+            // Under the lock, so the write cannot return and shrink the pool before it has grown
+            senders.abandon();
+            return true;
+        }
+
+        void remove() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            Set<Subscriber> tenantSubscribers = subscribers.get(tenantId);
+            if (tenantSubscribers != null) {
+                tenantSubscribers.remove(this);
+            }
+        }
+
+        private void scheduleSend() {
+            if (!sending && !queue.isEmpty()) {
+                sending = true;
+                senders.execute(this::sendQueued);
+            }
+        }
+
+        private void sendQueued() {
+            while (true) {
+                SseEmitter.SseEventBuilder message;
+                synchronized (this) {
+                    message = closed ? null : nextMessage();
+                    if (message == null) {
+                        sending = false;
+                        return;
+                    }
+                    sendStarted = System.nanoTime();
+                }
+                Exception failure = null;
+                try {
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    failure = e;
+                }
+                boolean evicted;
+                synchronized (this) {
+                    sendStarted = 0;
+                    evicted = abandoned;
+                }
+                if (evicted) {
+                    senders.abandonedWriteReturned();
+                }
+                if (failure != null) {
+                    // The client went away; the container reports it through onError or onCompletion
+                    remove();
+                    emitter.completeWithError(failure);
+                    return;
+                }
+                if (evicted) {
+                    // Completing waits for the write to finish, so it is done here rather than by the check
+                    emitter.complete();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Takes the next message to write, skipping events the client has already seen.
+         */
+        private SseEmitter.SseEventBuilder nextMessage() {
+            Object item;
+            while ((item = queue.poll()) != null) {
+                if (item instanceof SseEmitter.SseEventBuilder builder) {
+                    return builder;
+                }
+                TaskEvent event = (TaskEvent) item;
+                if (event.sequence() <= lastSequence) {
+                    continue;
+                }
+                lastSequence = event.sequence();
+                TaskEvent filtered = filter(event, statuses);
+                if (filtered != null) {
+                    return SseEmitter.event()
+                            .id(String.valueOf(filtered.sequence()))
+                            .name(filtered.eventType())
+                            .data(filtered, MediaType.APPLICATION_JSON);
+                }
+            }
+            return null;
+        }
+    }
+}
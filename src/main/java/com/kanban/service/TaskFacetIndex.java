@@ -0,0 +1,373 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index of the live tasks' status, priority and creation day, answering
+ * {@link TaskFilterDto} searches and their facet counts with bitmap unions and intersections.
+ * Enabled with {@code facet-index.enabled}.
+ * <p>
+ * Each tenant has one compressed bitmap of task ids per status, per priority and per creation
+ * day. A search unions the bitmaps of the selected values of each criterion, intersects the
+ * criteria and returns the ids of the requested page in id order; the caller loads only those
+ * rows. A creation range unions the days it covers completely and checks the tasks of its first
+ * and last day one by one.
+ * <p>
+ * Only searches ordered by {@code id} can be answered; other sort orders go to the database.
+ * The bitmaps are loaded once the application is ready and kept in step with the database by an
+ * {@link InMemoryTaskIndex}.
+ */
+@Component
+public class TaskFacetIndex {
+
+    private static final String SELECT_TASKS = "SELECT id, tenant_id, status, priority, version, created_at "
+            + "FROM tasks WHERE deleted_at IS NULL";
+
+    private final boolean enabled;
+    private final InMemoryTaskIndex<Facets> index;
+
+    public TaskFacetIndex(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${facet-index.enabled:false}") boolean enabled,
+                          @Value("${facet-index.load-fetch-size:10000}") int loadFetchSize) {
+        this.enabled = enabled;
+        this.index = new InMemoryTaskIndex<>("facet_index", jdbcTemplate, transactionTemplate, meterRegistry,
+                SELECT_TASKS, TaskFacetIndex::toTask, Facets::new, loadFetchSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches the current tenant's tasks, or returns empty when the index cannot answer:
+     * disabled, not loaded yet, or sorted by anything but {@code id}.
+     */
+    public Optional<Result> search(TaskFilterDto filter, Pageable pageable) {
+        if (!index.isServing()) {
+            return Optional.empty();
+        }
+        Boolean descending = idDirection(pageable.getSort());
+        if (descending == null) {
+            return Optional.empty();
+        }
+        Facets facets = index.partition(TenantContext.currentTenant());
+        if (facets == null) {
+            return Optional.of(Result.empty());
+        }
+        return Optional.of(facets.search(filter, descending, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    public boolean isServing() {
+        return index.isServing();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            index.reload(null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (enabled) {
+            index.onTaskChanged(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        if (enabled) {
+            index.onTasksImported(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${facet-index.consistency-check-interval:PT5M}",
+            initialDelayString = "${facet-index.consistency-check-interval:PT5M}")
+    public void checkConsistency() {
+        index.checkConsistency();
+    }
+
+    /**
+     * Returns whether the sort is by {@code id} descending, ascending ({@code false}) or by
+     * something the index does not order by ({@code null}). Unsorted requests get id order.
+     */
+    private static Boolean idDirection(Sort sort) {
+        if (sort.isUnsorted()) {
+            return false;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !"id".equals(orders.get(0).getProperty())) {
+            return null;
+        }
+        return orders.get(0).isDescending();
+    }
+
+    private static Task toTask(ResultSet rs, int row) throws SQLException {
+        return Task.builder()
+                .id(rs.getLong("id"))
+                .tenantId(rs.getString("tenant_id"))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .priority(TaskPriority.valueOf(rs.getString("priority")))
+                .version(rs.getLong("version"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+
+    /**
+     * Ids of one page of matching tasks, in the requested order, with the total number of matches
+     * and the facet counts described in {@link com.kanban.dto.TaskFacetPageDto}.
+     */
+    public record Result(List<Long> ids, long total,
+                         Map<TaskStatus, Long> statusCounts, Map<TaskPriority, Long> priorityCounts) {
+
+        static Result empty() {
+            Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                statusCounts.put(status, 0L);
+            }
+            Map<TaskPriority, Long> priorityCounts = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                priorityCounts.put(priority, 0L);
+            }
+            return new Result(List.of(), 0, statusCounts, priorityCounts);
+        }
+    }
+
+    private record Entry(TaskStatus status, TaskPriority priority, LocalDateTime createdAt, long version) {}
+
+    /**
+     * One tenant's bitmaps. Roaring bitmaps are not thread-safe, so searches hold the read lock
+     * and writes the write lock.
+     */
+    static final class Facets implements InMemoryTaskIndex.Partition {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<TaskStatus, Roaring64Bitmap> byStatus = new EnumMap<>(TaskStatus.class);
+        private final Map<TaskPriority, Roaring64Bitmap> byPriority = new EnumMap<>(TaskPriority.class);
+        private final NavigableMap<LocalDate, Roaring64Bitmap> byCreatedDay = new TreeMap<>();
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        Facets() {
+            for (TaskStatus status : TaskStatus.values()) {
+                byStatus.put(status, new Roaring64Bitmap());
+            }
+            for (TaskPriority priority : TaskPriority.values()) {
+                byPriority.put(priority, new Roaring64Bitmap());
+            }
+        }
+
+        @Override
+        public long size() {
+            lock.readLock().lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void put(Task task) {
+            long id = task.getId();
+            Entry entry = new Entry(task.getStatus(), task.getPriority(), task.getCreatedAt(),
+                    task.getVersion() != null ? task.getVersion() : 0L);
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.get(id);
+                if (previous != null) {
+                    if (entry.version() < previous.version()) {
+                        return;
+                    }
+                    unindex(id, previous);
+                }
+                entries.put(id, entry);
+                byStatus.get(entry.status()).addLong(id);
+                byPriority.get(entry.priority()).addLong(id);
+                byCreatedDay.computeIfAbsent(entry.createdAt().toLocalDate(), day -> new Roaring64Bitmap()).addLong(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    unindex(id, previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void unindex(long id, Entry entry) {
+            byStatus.get(entry.status()).removeLong(id);
+            byPriority.get(entry.priority()).removeLong(id);
+            LocalDate day = entry.createdAt().toLocalDate();
+            Roaring64Bitmap created = byCreatedDay.get(day);
+            created.removeLong(id);
+            if (created.isEmpty()) {
+                byCreatedDay.remove(day);
+            }
+        }
+
+        Result search(TaskFilterDto filter, boolean descending, long offset, int limit) {
+            lock.readLock().lock();
+            try {
+                // null stands for a criterion that matches everything
+                Roaring64Bitmap statuses = union(filter.getStatuses(), byStatus);
+                Roaring64Bitmap priorities = union(filter.getPriorities(), byPriority);
+                Roaring64Bitmap created = createdBetween(filter.getCreatedFrom(), filter.getCreatedTo());
+
+                Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+                for (TaskStatus status : TaskStatus.values()) {
+                    statusCounts.put(status, cardinality(byStatus.get(status), priorities, created));
+                }
+                Map<TaskPriority, Long> priorityCounts = new EnumMap<>(TaskPriority.class);
+                for (TaskPriority priority : TaskPriority.values()) {
+                    priorityCounts.put(priority, cardinality(byPriority.get(priority), statuses, created));
+                }
+
+                Roaring64Bitmap matching = statuses != null ? statuses : union(byStatus.keySet(), byStatus);
+                matching = intersect(matching, priorities, created);
+                List<Long> ids = new ArrayList<>(limit);
+                LongIterator iterator = descending ? matching.getReverseLongIterator() : matching.getLongIterator();
+                for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+                    iterator.next();
+                }
+                while (ids.size() < limit && iterator.hasNext()) {
+                    ids.add(iterator.next());
+                }
+                return new Result(ids, matching.getLongCardinality(), statusCounts, priorityCounts);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Tasks created in {@code [from, to)}, or {@code null} when both bounds are open.
+         */
+        private Roaring64Bitmap createdBetween(LocalDateTime from, LocalDateTime to) {
+            if (from == null && to == null) {
+                return null;
+            }
+            Roaring64Bitmap result = new Roaring64Bitmap();
+            if (from != null && to != null && !from.isBefore(to)) {
+                return result;
+            }
+            LocalDate firstDay = from != null ? from.toLocalDate() : null;
+            LocalDate lastDay = to != null ? to.toLocalDate() : null;
+            NavigableMap<LocalDate, Roaring64Bitmap> days = byCreatedDay;
+            if (firstDay != null) {
+                days = days.tailMap(firstDay, false);
+            }
+            if (lastDay != null) {
+                days = days.headMap(lastDay, false);
+            }
+            for (Roaring64Bitmap day : days.values()) {
+                result.or(day);
+            }
+            // The bounds' own days are only partly covered
+            for (LocalDate day : new LocalDate[] {firstDay, lastDay}) {
+                Roaring64Bitmap ids = day != null ? byCreatedDay.get(day) : null;
+                if (ids == null) {
+                    continue;
+                }
+                LongIterator iterator = ids.getLongIterator();
+                while (iterator.hasNext()) {
+                    long id = iterator.next();
+                    LocalDateTime createdAt = entries.get(id).createdAt();
+                    if ((from == null || !createdAt.isBefore(from)) && (to == null || createdAt.isBefore(to))) {
+                        result.addLong(id);
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Map<TaskStatus, long[]> aggregates() {
+            lock.readLock().lock();
+            try {
+                Map<TaskStatus, long[]> aggregates = new EnumMap<>(TaskStatus.class);
+                for (Entry entry : entries.values()) {
+                    long[] aggregate = aggregates.computeIfAbsent(entry.status(), status -> new long[2]);
+                    aggregate[0]++;
+                    aggregate[1] += entry.version();
+                }
+                return aggregates;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Union of the bitmaps of the selected values, or {@code null} when none are selected.
+         */
+        private static <K> Roaring64Bitmap union(Collection<K> selected, Map<K, Roaring64Bitmap> bitmaps) {
+            if (selected == null || selected.isEmpty()) {
+                return null;
+            }
+            Roaring64Bitmap result = new Roaring64Bitmap();
+            for (K value : selected) {
+                result.or(bitmaps.get(value));
+            }
+            return result;
+        }
+
+        /**
+         * Intersection of {@code bitmap} with the non-null filters, leaving all arguments unchanged.
+         */
+        private static Roaring64Bitmap intersect(Roaring64Bitmap bitmap, Roaring64Bitmap... filters) {
+            Roaring64Bitmap result = bitmap.clone();
+            for (Roaring64Bitmap filter : filters) {
+                if (filter != null) {
+                    result.and(filter);
+                }
+            }
+            return result;
+        }
+
+        private static long cardinality(Roaring64Bitmap bitmap, Roaring64Bitmap... filters) {
+            for (Roaring64Bitmap filter : filters) {
+                if (filter != null) {
+                    return intersect(bitmap, filters).getLongCardinality();
+                }
+            }
+            return bitmap.getLongCardinality();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.kanban.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code task_history} ahead of time and detaches expired ones.
+ * <p>
+ * Expired partitions are detached and left in place as plain tables so they can be archived before
+ * being dropped. PostgreSQL does not allow {@code DETACH PARTITION CONCURRENTLY} while a default
+ * partition exists, so a plain detach runs with a short {@code lock_timeout}: it needs an exclusive
+ * lock on {@code task_history}, and rather than queueing writers behind a long transaction it gives
+ * up and is retried by the next run.
+ * Rows written while no partition covered their month wait in {@code task_history_default} and are
+ * moved into the monthly partition when it is created.
+ * PostgreSQL specific, so it can be switched off with {@code task-history.partition-maintenance.enabled}.
+ */
+@Component
+@ConditionalOnProperty(name = "task-history.partition-maintenance.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskHistoryPartitionMaintainer {
+
+    private static final String PARTITION_PREFIX = "task_history_";
+    private static final String DEFAULT_PARTITION = "task_history_default";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Duration detachLockTimeout;
+
+    public TaskHistoryPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${task-history.partition-maintenance.months-ahead:3}") int monthsAhead,
+                                          @Value("${task-history.partition-maintenance.retention-months:24}") int retentionMonths,
+                                          @Value("${task-history.partition-maintenance.detach-lock-timeout:PT5S}") Duration detachLockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.detachLockTimeout = detachLockTimeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${task-history.partition-maintenance.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(currentMonth.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            detachPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String partition = partitionName(month);
+        // PostgreSQL refuses to create a partition whose range has rows in the default partition, so
+        // such rows are moved into a new table which is then attached, all in one statement
+        jdbcTemplate.execute("DO $$ BEGIN "
+                + "IF to_regclass('" + partition + "') IS NULL AND EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                + " WHERE changed_at >= '" + from + "' AND changed_at < '" + to + "') THEN "
+                + "CREATE TABLE " + partition + " (LIKE task_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS); "
+                + "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE changed_at >= '" + from + "' AND changed_at < '" + to + "' RETURNING *) "
+                + "INSERT INTO " + partition + " SELECT * FROM moved; "
+                + "ALTER TABLE task_history ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "'); "
+                + "END IF; END $$");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition
+                + " PARTITION OF task_history FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void detachPartitionsBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT child.relname FROM pg_inherits "
+                        + "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent "
+                        + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid "
+                        + "WHERE parent.relname = 'task_history'", String.class);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                try {
+                    // SET LOCAL only lasts until the end of the transaction, so the pooled connection keeps its default
+                    transactionTemplate.executeWithoutResult(tx -> {
+                        jdbcTemplate.execute("SET LOCAL lock_timeout = " + detachLockTimeout.toMillis());
+                        jdbcTemplate.execute("ALTER TABLE task_history DETACH PARTITION " + partition);
+                    });
+                    log.info("Detached task history partition {}", partition);
+                } catch (DataAccessException e) {
+                    log.warn("Could not detach task history partition {}, retrying on the next run", partition, e);
+                }
+            }
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX_FORMAT);
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
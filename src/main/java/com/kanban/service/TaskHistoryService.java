@@ -0,0 +1,126 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskHistoryDto;
+import com.kanban.dto.TaskHistoryPageDto;
+import com.kanban.entity.Task;
+import com.kanban.entity.TaskHistory;
+import com.kanban.exception.InvalidCursorException;
+import com.kanban.mapper.TaskHistoryMapper;
+import com.kanban.model.TaskHistoryAction;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Writes and reads the append-only task history.
+ * <p>
+ * Entries are recorded inside the caller's transaction, so a change and its history entry commit
+ * or roll back together. Persisting only queues the insert; Hibernate sends all inserts of a
+ * transaction as one JDBC batch at flush time.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskHistoryService {
+
+    private static final String SYSTEM_ACTOR = "system";
+
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskHistoryMapper taskHistoryMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Task task, TaskHistoryAction action, TaskStatus fromStatus) {
+        taskHistoryRepository.save(TaskHistory.builder()
+                .taskId(task.getId())
+                .action(action)
+                .changedBy(currentActor())
+                .changedAt(LocalDateTime.now())
+                .fromStatus(fromStatus)
+                .toStatus(task.getStatus())
+                .title(task.getTitle())
+                .priority(task.getPriority())
+                .rank(task.getRank())
+                .build());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(Long taskId) {
+        taskHistoryRepository.save(TaskHistory.builder()
+                .taskId(taskId)
+                .action(TaskHistoryAction.DELETED)
+                .changedBy(currentActor())
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Returns history entries of a task, newest first, starting after the {@code before} cursor.
+     * Pages are read with a keyset condition so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public TaskHistoryPageDto getHistory(Long taskId, String before, int size) {
+        // One extra row tells whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TaskHistory> entries;
+        if (before == null || before.isBlank()) {
+            entries = taskHistoryRepository.findByTaskIdOrderByChangedAtDescIdDesc(taskId, limit);
+        } else {
+            Cursor cursor = Cursor.decode(before);
+            entries = taskHistoryRepository.findByTaskIdBefore(taskId, cursor.changedAt(), cursor.id(), limit);
+        }
+
+        boolean hasMore = entries.size() > size;
+        List<TaskHistory> page = hasMore ? entries.subList(0, size) : entries;
+        List<TaskHistoryDto> content = page.stream().map(taskHistoryMapper::toDto).toList();
+        String nextCursor = null;
+        if (hasMore) {
+            TaskHistory last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getChangedAt(), last.getId()).encode();
+        }
+        return TaskHistoryPageDto.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_ACTOR;
+        }
+        return authentication.getName();
+    }
+
+    private record Cursor(LocalDateTime changedAt, Long id) {
+
+        String encode() {
+            String value = changedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf('|');
+                return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidCursorException("Invalid history cursor: " + cursor);
+            }
+        }
+    }
+}
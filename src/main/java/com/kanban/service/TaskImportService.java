@@ -0,0 +1,281 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.kanban.dto.TaskImportResultDto;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.entity.Task;
+import com.kanban.exception.InvalidImportException;
+import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskStore;
+import com.kanban.security.TenantContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bulk import of tasks from CSV (a header row naming the columns {@code title}, {@code description},
+ * {@code status} and {@code priority}) or newline-delimited JSON objects with the same fields.
+ * <p>
+ * The request body is read first, without a transaction: records are parsed, validated with the
+ * rules of {@link TaskRequestDto} and the valid ones spooled to a temporary file, so a slow upload
+ * holds no connection and memory use does not grow with the size of the import. Invalid records
+ * are skipped and reported; malformed input that cannot be parsed any further rejects the whole
+ * import before anything is written. The transaction then streams the spooled tasks to
+ * {@link TaskStore#importTasks}, appending them to their columns in input order. They get no history entries and no per-task events: listeners
+ * receive a single {@link TasksImportedEvent}.
+ */
+@Service
+@Slf4j
+public class TaskImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final TaskStore taskStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskMapper taskMapper;
+    private final TaskRankRebalancer taskRankRebalancer;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxReportedErrors;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    public TaskImportService(TaskStore taskStore,
+                             TransactionTemplate transactionTemplate,
+                             TaskMapper taskMapper,
+                             TaskRankRebalancer taskRankRebalancer,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${task-import.max-reported-errors:100}") int maxReportedErrors) {
+        this.taskStore = taskStore;
+        this.transactionTemplate = transactionTemplate;
+        this.taskMapper = taskMapper;
+        this.taskRankRebalancer = taskRankRebalancer;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public TaskImportResultDto importTasks(InputStream body, Format format) {
+        long start = System.nanoTime();
+        Path spool = createSpool();
+        try {
+            SpoolResult spooled = spool(records(body, format), spool);
+            Long imported = transactionTemplate.execute(tx -> {
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(spool)))) {
+                    RankedTasks tasks = new RankedTasks(input, spooled.valid);
+                    // Looked up before the store starts writing, which may tie up the connection until the last row
+                    for (TaskStatus status : TaskStatus.values()) {
+                        taskStore.lockColumn(status);
+                        tasks.lastRanks.put(status,
+                                taskStore.findFirstByStatusOrderByRankDesc(status).map(Task::getRank).orElse(null));
+                    }
+                    long count = taskStore.importTasks(tasks);
+                    for (TaskStatus status : tasks.rankedStatuses) {
+                        taskRankRebalancer.onRankAssigned(status, tasks.lastRanks.get(status));
+                    }
+                    eventPublisher.publishEvent(new TasksImportedEvent(TenantContext.currentTenant(), count));
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read import spool " + spool, e);
+                }
+            });
+            log.info("Imported {} tasks and rejected {} rows in {} ms",
+                    imported, spooled.rejected, (System.nanoTime() - start) / 1_000_000);
+            return TaskImportResultDto.builder()
+                    .imported(imported)
+                    .rejected(spooled.rejected)
+                    .errors(spooled.errors)
+                    .build();
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.warn("Cannot delete import spool {}", spool, e);
+            }
+        }
+    }
+
+    private static Path createSpool() {
+        try {
+            return Files.createTempFile("task-import-", ".spool");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create import spool", e);
+        }
+    }
+
+    /**
+     * Writes the valid records to {@code spool} and collects the rejected ones.
+     */
+    private SpoolResult spool(MappingIterator<Map<String, Object>> records, Path spool) {
+        SpoolResult result = new SpoolResult();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spool)))) {
+            Map<String, Object> record;
+            while ((record = nextRecord(records, result.row)) != null) {
+                result.row++;
+                Task task = toTask(record, result);
+                if (task != null) {
+                    output.writeUTF(task.getTitle());
+                    output.writeBoolean(task.getDescription() != null);
+                    if (task.getDescription() != null) {
+                        output.writeUTF(task.getDescription());
+                    }
+                    output.writeByte(task.getStatus().ordinal());
+                    output.writeByte(task.getPriority().ordinal());
+                    result.valid++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write import spool " + spool, e);
+        }
+        return result;
+    }
+
+    private static Map<String, Object> nextRecord(MappingIterator<Map<String, Object>> records, long row) {
+        try {
+            return records.hasNextValue() ? records.nextValue() : null;
+        } catch (IOException e) {
+            throw new InvalidImportException("Malformed input at row " + (row + 1) + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Task toTask(Map<String, Object> record, SpoolResult result) {
+        List<String> problems = new ArrayList<>();
+        TaskRequestDto request = TaskRequestDto.builder()
+                .title(text(record.get("title")))
+                .description(blankToNull(text(record.get("description"))))
+                .status(parse(TaskStatus.class, "status", record.get("status"), problems))
+                .priority(parse(TaskPriority.class, "priority", record.get("priority"), problems))
+                .build();
+        for (ConstraintViolation<TaskRequestDto> violation : validator.validate(request)) {
+            problems.add(violation.getMessage());
+        }
+        if (!problems.isEmpty()) {
+            result.rejected++;
+            if (result.errors.size() < maxReportedErrors) {
+                problems.sort(null);
+                result.errors.add(new TaskImportResultDto.RowError(result.row, String.join("; ", problems)));
+            }
+            return null;
+        }
+        return taskMapper.toEntity(request);
+    }
+
+    private MappingIterator<Map<String, Object>> records(InputStream body, Format format) {
+        try {
+            return switch (format) {
+                case CSV -> csvMapper.readerFor(Map.class)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .readValues(body);
+                case NDJSON -> objectMapper.readerFor(Map.class).readValues(body);
+            };
+        } catch (IOException e) {
+            throw new InvalidImportException("Cannot read import header: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class SpoolResult {
+
+        private final List<TaskImportResultDto.RowError> errors = new ArrayList<>();
+        private long row;
+        private long valid;
+        private long rejected;
+    }
+
+    /**
+     * Reads the spooled tasks back and ranks them after the last task of their column.
+     */
+    private class RankedTasks implements Iterator<Task> {
+
+        private final DataInputStream input;
+        private final Map<TaskStatus, String> lastRanks = new EnumMap<>(TaskStatus.class);
+        private final Set<TaskStatus> rankedStatuses = EnumSet.noneOf(TaskStatus.class);
+        private long remaining;
+
+        RankedTasks(DataInputStream input, long count) {
+            this.input = input;
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            Task task;
+            try {
+                task = taskMapper.toEntity(TaskRequestDto.builder()
+                        .title(input.readUTF())
+                        .description(input.readBoolean() ? input.readUTF() : null)
+                        .status(TaskStatus.values()[input.readByte()])
+                        .priority(TaskPriority.values()[input.readByte()])
+                        .build());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read import spool", e);
+            }
+            task.setRank(LexoRank.after(lastRanks.get(task.getStatus())));
+            lastRanks.put(task.getStatus(), task.getRank());
+            rankedStatuses.add(task.getStatus());
+            return task;
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String field, Object value, List<String> problems) {
+        String name = blankToNull(text(value));
+        if (name == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            problems.add("Invalid " + field + " '" + name + "', expected one of " + Arrays.toString(type.getEnumConstants()));
+            return null;
+        }
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
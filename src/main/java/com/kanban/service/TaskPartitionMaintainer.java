@@ -0,0 +1,121 @@
+package com.kanban.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the yearly sub-partitions of the {@code DONE} partition of {@code tasks}.
+ * <p>
+ * Partitions are created {@code years-ahead} in advance; rows of years without a partition wait in
+ * {@code tasks_done_default} and are moved into the yearly partition when it is created. When archiving
+ * is enabled, partitions whose whole range is older than {@code archive.min-age} are moved, with
+ * their indexes, to a cold tablespace. Moving rewrites only that partition and locks only it;
+ * the active columns are not affected. PostgreSQL specific, so it can be switched off with
+ * {@code task-partitions.maintenance.enabled}.
+ */
+@Component
+@ConditionalOnProperty(name = "task-partitions.maintenance.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TaskPartitionMaintainer {
+
+    private static final String DONE_PARTITION_PREFIX = "tasks_done_";
+    private static final String DONE_DEFAULT_PARTITION = "tasks_done_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int yearsAhead;
+    private final boolean archiveEnabled;
+    private final String archiveTablespace;
+    private final Duration archiveMinAge;
+
+    public TaskPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                   @Value("${task-partitions.maintenance.years-ahead:1}") int yearsAhead,
+                                   @Value("${task-partitions.archive.enabled:false}") boolean archiveEnabled,
+                                   @Value("${task-partitions.archive.tablespace:cold}") String archiveTablespace,
+                                   @Value("${task-partitions.archive.min-age:P365D}") Duration archiveMinAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.yearsAhead = yearsAhead;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveTablespace = archiveTablespace;
+        this.archiveMinAge = archiveMinAge;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${task-partitions.maintenance.cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        int currentYear = LocalDate.now().getYear();
+        for (int year = currentYear; year <= currentYear + yearsAhead; year++) {
+            createPartition(year);
+        }
+        if (archiveEnabled) {
+            archivePartitionsEndingBefore(LocalDateTime.now().minus(archiveMinAge));
+        }
+    }
+
+    private void createPartition(int year) {
+        String partition = DONE_PARTITION_PREFIX + year;
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = LocalDate.of(year + 1, 1, 1);
+        // PostgreSQL refuses to create a partition whose range has rows in the default partition, so
+        // such rows are moved into a new table which is then attached, all in one statement
+        jdbcTemplate.execute("DO $$ BEGIN "
+                + "IF to_regclass('" + partition + "') IS NULL AND EXISTS (SELECT 1 FROM " + DONE_DEFAULT_PARTITION
+                + " WHERE created_at >= '" + from + "' AND created_at < '" + to + "') THEN "
+                + "CREATE TABLE " + partition + " (LIKE tasks_done INCLUDING DEFAULTS INCLUDING CONSTRAINTS); "
+                + "WITH moved AS (DELETE FROM " + DONE_DEFAULT_PARTITION
+                + " WHERE created_at >= '" + from + "' AND created_at < '" + to + "' RETURNING *) "
+                + "INSERT INTO " + partition + " SELECT * FROM moved; "
+                + "ALTER TABLE tasks_done ATTACH PARTITION " + partition
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "'); "
+                + "END IF; END $$");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition
+                + " PARTITION OF tasks_done FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void archivePartitionsEndingBefore(LocalDateTime cutoff) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT child.relname AS name, COALESCE(space.spcname, 'pg_default') AS tablespace "
+                        + "FROM pg_inherits "
+                        + "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent "
+                        + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid "
+                        + "LEFT JOIN pg_tablespace space ON space.oid = child.reltablespace "
+                        + "WHERE parent.relname = 'tasks_done'");
+        for (Map<String, Object> partition : partitions) {
+            String name = (String) partition.get("name");
+            Integer year = parseYear(name);
+            if (year == null || archiveTablespace.equals(partition.get("tablespace"))
+                    || !LocalDate.of(year + 1, 1, 1).atStartOfDay().isBefore(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET TABLESPACE " + archiveTablespace);
+            List<String> indexes = jdbcTemplate.queryForList(
+                    "SELECT indexrelid::regclass::text FROM pg_index WHERE indrelid = ?::regclass", String.class, name);
+            for (String index : indexes) {
+                jdbcTemplate.execute("ALTER INDEX " + index + " SET TABLESPACE " + archiveTablespace);
+            }
+            log.info("Archived task partition {} to tablespace {}", name, archiveTablespace);
+        }
+    }
+
+    private static Integer parseYear(String partition) {
+        if (!partition.startsWith(DONE_PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(partition.substring(DONE_PARTITION_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kanban.service;
+
+import com.kanban.repository.TaskStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Hard-deletes soft-deleted tasks once their retention period has passed.
+ * <p>
+ * Runs off-peak and deletes in small batches, each in its own short transaction, pausing
+ * between batches so that purging never holds many row locks or saturates the database.
+ * A run stops after {@code max-batches-per-run}; the remainder is picked up by the next run.
+ */
+@Component
+@Slf4j
+public class TaskPurger {
+
+    private final TaskStore taskStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purgedCounter;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int maxBatchesPerRun;
+
+    public TaskPurger(TaskStore taskStore,
+                      TransactionTemplate transactionTemplate,
+                      MeterRegistry meterRegistry,
+                      @Value("${task-purge.retention:P7D}") Duration retention,
+                      @Value("${task-purge.batch-size:500}") int batchSize,
+                      @Value("${task-purge.batch-pause:PT0.2S}") Duration batchPause,
+                      @Value("${task-purge.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.taskStore = taskStore;
+        this.transactionTemplate = transactionTemplate;
+        this.purgedCounter = Counter.builder("tasks.purged").register(meterRegistry);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${task-purge.cron:0 */10 1-5 * * *}")
+    public void purgeDeletedTasks() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer purged = transactionTemplate.execute(tx -> taskStore.purgeDeletedBefore(cutoff, batchSize));
+            int count = purged != null ? purged : 0;
+            total += count;
+            purgedCounter.increment(count);
+            if (count < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Purged {} deleted tasks", total);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
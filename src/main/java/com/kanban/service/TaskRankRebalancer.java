@@ -0,0 +1,128 @@
+package com.kanban.service;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskStore;
+import com.kanban.security.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites the ranks of a status column with short, evenly spaced values once
+ * repeated moves into the same gap have made them too long.
+ * <p>
+ * Columns are flagged by {@link #onRankAssigned} when a generated rank exceeds the
+ * threshold and rebalanced in the background, holding row locks on the column so
+ * concurrent moves cannot interleave with the renumbering. Each tenant has its own
+ * columns, so flags remember the tenant and the rebalance runs on its behalf.
+ * <p>
+ * Only over-long ranks are rewritten, spread over the gap between their neighbours, so the
+ * other tasks of the column keep their version and clients editing them see no conflict.
+ * When a gap is too narrow for short ranks, the whole column is renumbered.
+ */
+@Component
+@Slf4j
+public class TaskRankRebalancer {
+
+    private final TaskStore taskStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxRankLength;
+    private final Set<Column> pendingColumns = ConcurrentHashMap.newKeySet();
+
+    public TaskRankRebalancer(TaskStore taskStore,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${task-rank.max-length:32}") int maxRankLength) {
+        this.taskStore = taskStore;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxRankLength = maxRankLength;
+    }
+
+    public void onRankAssigned(TaskStatus status, String rank) {
+        if (rank.length() > maxRankLength) {
+            pendingColumns.add(new Column(TenantContext.currentTenant(), status));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task-rank.rebalance-interval:PT1M}")
+    public void rebalancePendingColumns() {
+        for (Column column : pendingColumns) {
+            if (pendingColumns.remove(column)) {
+                rebalance(column.tenantId(), column.status());
+            }
+        }
+    }
+
+    public void rebalance(String tenantId, TaskStatus status) {
+        TenantContext.runAs(tenantId, () -> rebalance(status));
+    }
+
+    /**
+     * Rebalances a column of the current tenant.
+     */
+    public void rebalance(TaskStatus status) {
+        Integer rebalanced = transactionTemplate.execute(tx -> {
+            taskStore.lockColumn(status);
+            List<Task> tasks = taskStore.findByStatusForRebalance(status);
+            String[] ranks = rebalancedRanks(tasks);
+            List<Task> changed = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!ranks[i].equals(tasks.get(i).getRank())) {
+                    tasks.get(i).setRank(ranks[i]);
+                    changed.add(tasks.get(i));
+                }
+            }
+            if (changed.isEmpty()) {
+                return 0;
+            }
+            List<Task> saved = taskStore.saveAllAndFlush(changed);
+            eventPublisher.publishEvent(TaskChangedEvent.changed(saved));
+            return changed.size();
+        });
+        log.info("Rebalanced ranks of {} tasks in column {} of tenant {}", rebalanced, status, TenantContext.currentTenant());
+    }
+
+    /**
+     * New ranks of the column in order: short ranks are kept and each run of over-long ranks is
+     * spaced evenly between the ranks around it.
+     */
+    private String[] rebalancedRanks(List<Task> tasks) {
+        String[] ranks = new String[tasks.size()];
+        int start = 0;
+        while (start < tasks.size()) {
+            if (tasks.get(start).getRank().length() <= maxRankLength) {
+                ranks[start] = tasks.get(start).getRank();
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < tasks.size() && tasks.get(end).getRank().length() > maxRankLength) {
+                end++;
+            }
+            String lower = start > 0 ? ranks[start - 1] : null;
+            String upper = end < tasks.size() ? tasks.get(end).getRank() : null;
+            String[] run = LexoRank.evenlySpacedBetween(lower, upper, end - start);
+            for (int i = 0; i < run.length; i++) {
+                if (run[i].length() > maxRankLength) {
+                    return LexoRank.evenlySpaced(tasks.size());
+                }
+                ranks[start + i] = run[i];
+            }
+            start = end;
+        }
+        return ranks;
+    }
+
+    private record Column(String tenantId, TaskStatus status) {}
+}
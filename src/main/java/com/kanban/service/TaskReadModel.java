@@ -0,0 +1,347 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.entity.Task;
+import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory read model of every live (not deleted) task, answering board queries without
+ * touching the database. Enabled with {@code read-model.enabled}.
+ * <p>
+ * Each tenant's board keeps every status column in concurrent skip lists ordered by creation time,
+ * so a page is read lock-free from the head or tail of a column; the whole board is a merge of
+ * its columns. Deep pages cost time linear in their distance from the nearer end.
+ * <p>
+ * The boards are loaded once the application is ready and kept in step with the database by an
+ * {@link InMemoryTaskIndex}. Until they are loaded, and for sort orders other than
+ * {@code createdAt}, queries return empty and callers go to the database.
+ * <p>
+ * Events are local to the JVM, so the model only sees writes made by this instance. It is meant
+ * for single-instance deployments; with several writers another node's changes would only show up
+ * after the consistency check reloads the board.
+ */
+@Component
+public class TaskReadModel {
+
+    /**
+     * Approximate heap cost of one task besides its strings, assuming compressed oops: the DTO
+     * with its boxed and date-time fields, the sort key, one hash map and two skip list entries.
+     * Checked against the measured heap by {@code TaskReadModelBenchmarkTest}.
+     */
+    static final long BASE_BYTES_PER_TASK = 480;
+
+    private static final String SELECT_TASKS = "SELECT id, tenant_id, title, description, status, priority, rank, "
+            + "version, created_at, updated_at FROM tasks WHERE deleted_at IS NULL";
+
+    private final boolean enabled;
+    private final InMemoryTaskIndex<Board> index;
+
+    public TaskReadModel(TaskMapper taskMapper,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${read-model.enabled:false}") boolean enabled,
+                         @Value("${read-model.load-fetch-size:10000}") int loadFetchSize) {
+        this.enabled = enabled;
+        this.index = new InMemoryTaskIndex<>("read_model", jdbcTemplate, transactionTemplate, meterRegistry,
+                SELECT_TASKS, TaskReadModel::toTask, () -> new Board(taskMapper), loadFetchSize, Long.MAX_VALUE);
+
+        Gauge.builder("read_model.memory.estimated", index, InMemoryTaskIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the requested page of the current tenant's board, or empty when the model cannot
+     * answer: disabled, not loaded yet, or sorted by anything but {@code createdAt}.
+     */
+    public Optional<Page<TaskResponseDto>> findAll(TaskStatus status, Pageable pageable) {
+        if (!index.isServing()) {
+            return Optional.empty();
+        }
+        Boolean descending = createdAtDirection(pageable.getSort());
+        if (descending == null) {
+            return Optional.empty();
+        }
+        Board board = index.partition(TenantContext.currentTenant());
+        if (board == null) {
+            return Optional.of(Page.empty(pageable));
+        }
+
+        long total = status != null ? board.counts.get(status) : board.size();
+        long offset = pageable.getOffset();
+        int limit = pageable.getPageSize();
+        // Pages in the second half are cheaper to reach from the other end of the column
+        boolean fromTail = offset > total / 2;
+        if (fromTail) {
+            long end = Math.min(offset + limit, total);
+            limit = (int) Math.max(end - offset, 0);
+            offset = total - end;
+            descending = !descending;
+        }
+        Iterator<TaskResponseDto> iterator = status != null
+                ? board.column(status, descending).values().iterator()
+                : board.iterateAll(descending);
+        List<TaskResponseDto> content = new ArrayList<>(limit);
+        for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (content.size() < limit && iterator.hasNext()) {
+            content.add(iterator.next());
+        }
+        if (fromTail) {
+            Collections.reverse(content);
+        }
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    public boolean isServing() {
+        return index.isServing();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            index.reload(null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (enabled) {
+            index.onTaskChanged(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        if (enabled) {
+            index.onTasksImported(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${read-model.consistency-check-interval:PT5M}",
+            initialDelayString = "${read-model.consistency-check-interval:PT5M}")
+    public void checkConsistency() {
+        index.checkConsistency();
+    }
+
+    /**
+     * Returns whether the sort is by {@code createdAt} descending, ascending ({@code false}) or by
+     * something the model does not index ({@code null}). Unsorted requests get creation order.
+     */
+    private static Boolean createdAtDirection(Sort sort) {
+        if (sort.isUnsorted()) {
+            return false;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !"createdAt".equals(orders.get(0).getProperty())) {
+            return null;
+        }
+        return orders.get(0).isDescending();
+    }
+
+    private static Task toTask(ResultSet rs, int row) throws SQLException {
+        return Task.builder()
+                .id(rs.getLong("id"))
+                .tenantId(rs.getString("tenant_id"))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .priority(TaskPriority.valueOf(rs.getString("priority")))
+                .rank(rs.getString("rank"))
+                .version(rs.getLong("version"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    }
+
+    private record SortKey(LocalDateTime createdAt, long id) implements Comparable<SortKey> {
+
+        @Override
+        public int compareTo(SortKey other) {
+            int byCreatedAt = createdAt.compareTo(other.createdAt);
+            return byCreatedAt != 0 ? byCreatedAt : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * One tenant's tasks. Every status column is kept in both orders, because a concurrent skip
+     * list walks backwards with a search per step. Readers iterate without locking and may see a
+     * write half applied across lists.
+     */
+    static final class Board implements InMemoryTaskIndex.Partition {
+
+        private final TaskMapper taskMapper;
+        private final Map<Long, TaskResponseDto> byId = new ConcurrentHashMap<>();
+        private final Map<TaskStatus, ConcurrentSkipListMap<SortKey, TaskResponseDto>> ascending = new EnumMap<>(TaskStatus.class);
+        private final Map<TaskStatus, ConcurrentSkipListMap<SortKey, TaskResponseDto>> descending = new EnumMap<>(TaskStatus.class);
+        private final Map<TaskStatus, Long> counts = new ConcurrentHashMap<>();
+        private volatile long estimatedBytes;
+
+        Board(TaskMapper taskMapper) {
+            this.taskMapper = taskMapper;
+            for (TaskStatus status : TaskStatus.values()) {
+                ascending.put(status, new ConcurrentSkipListMap<>());
+                descending.put(status, new ConcurrentSkipListMap<>(Comparator.reverseOrder()));
+                counts.put(status, 0L);
+            }
+        }
+
+        @Override
+        public long size() {
+            return byId.size();
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return estimatedBytes;
+        }
+
+        NavigableMap<SortKey, TaskResponseDto> column(TaskStatus status, boolean descendingOrder) {
+            return descendingOrder ? descending.get(status) : ascending.get(status);
+        }
+
+        /**
+         * Iterates all columns in creation order by merging them.
+         */
+        Iterator<TaskResponseDto> iterateAll(boolean descendingOrder) {
+            List<Iterator<Map.Entry<SortKey, TaskResponseDto>>> columns = new ArrayList<>();
+            for (TaskStatus status : TaskStatus.values()) {
+                columns.add(column(status, descendingOrder).entrySet().iterator());
+            }
+            return new MergingIterator(columns, descendingOrder ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        }
+
+        @Override
+        public void put(Task entity) {
+            TaskResponseDto task = taskMapper.toDto(entity);
+            TaskResponseDto previous = byId.get(task.getId());
+            if (previous != null) {
+                if (previous.getVersion() != null && task.getVersion() != null
+                        && task.getVersion() < previous.getVersion()) {
+                    return;
+                }
+                unindex(previous);
+            }
+            byId.put(task.getId(), task);
+            SortKey key = new SortKey(task.getCreatedAt(), task.getId());
+            ascending.get(task.getStatus()).put(key, task);
+            descending.get(task.getStatus()).put(key, task);
+            counts.merge(task.getStatus(), 1L, Long::sum);
+            estimatedBytes += estimateBytes(task);
+        }
+
+        @Override
+        public void remove(long id) {
+            TaskResponseDto previous = byId.remove(id);
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+
+        private void unindex(TaskResponseDto task) {
+            SortKey key = new SortKey(task.getCreatedAt(), task.getId());
+            ascending.get(task.getStatus()).remove(key);
+            descending.get(task.getStatus()).remove(key);
+            counts.merge(task.getStatus(), -1L, Long::sum);
+            estimatedBytes -= estimateBytes(task);
+        }
+
+        @Override
+        public Map<TaskStatus, long[]> aggregates() {
+            Map<TaskStatus, long[]> aggregates = new EnumMap<>(TaskStatus.class);
+            for (TaskResponseDto task : byId.values()) {
+                long[] aggregate = aggregates.computeIfAbsent(task.getStatus(), status -> new long[2]);
+                aggregate[0]++;
+                aggregate[1] += Objects.requireNonNullElse(task.getVersion(), 0L);
+            }
+            return aggregates;
+        }
+
+        static long estimateBytes(TaskResponseDto task) {
+            return BASE_BYTES_PER_TASK + length(task.getTitle()) + length(task.getDescription()) + length(task.getRank());
+        }
+
+        private static long length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+
+    private static final class MergingIterator implements Iterator<TaskResponseDto> {
+
+        private final List<Iterator<Map.Entry<SortKey, TaskResponseDto>>> iterators;
+        private final List<Map.Entry<SortKey, TaskResponseDto>> heads = new ArrayList<>();
+        private final Comparator<SortKey> order;
+
+        MergingIterator(List<Iterator<Map.Entry<SortKey, TaskResponseDto>>> iterators, Comparator<SortKey> order) {
+            this.iterators = iterators;
+            this.order = order;
+            for (Iterator<Map.Entry<SortKey, TaskResponseDto>> iterator : iterators) {
+                heads.add(iterator.hasNext() ? iterator.next() : null);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (Map.Entry<SortKey, TaskResponseDto> head : heads) {
+                if (head != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public TaskResponseDto next() {
+            int next = -1;
+            for (int i = 0; i < heads.size(); i++) {
+                Map.Entry<SortKey, TaskResponseDto> head = heads.get(i);
+                if (head != null && (next < 0 || order.compare(head.getKey(), heads.get(next).getKey()) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            TaskResponseDto task = heads.get(next).getValue();
+            Iterator<Map.Entry<SortKey, TaskResponseDto>> iterator = iterators.get(next);
+            heads.set(next, iterator.hasNext() ? iterator.next() : null);
+            return task;
+        }
+    }
+}
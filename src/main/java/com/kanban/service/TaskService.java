@@ -1,20 +1,45 @@
 package com.kanban.service;
 
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskFacetPageDto;
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.dto.TaskMoveRequestDto;
 import com.kanban.dto.TaskRequestDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
 import com.kanban.entity.Task;
+import com.kanban.exception.InvalidTaskMoveException;
 import com.kanban.exception.ResourceNotFoundException;
 import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskHistoryAction;
+import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
-import com.kanban.repository.TaskRepository;
+import com.kanban.repository.TaskFacetCount;
+import com.kanban.repository.TaskStore;
+import com.kanban.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,64 +47,464 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TaskService {
 
-    private final TaskRepository taskRepository;
+    // Stand-ins for open creation bounds in store queries
+    private static final LocalDateTime EARLIEST_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final TaskStore taskStore;
     private final TaskMapper taskMapper;
+    private final TaskRankRebalancer taskRankRebalancer;
+    private final TaskHistoryService taskHistoryService;
+    private final LogSampler logSampler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskFacetIndex taskFacetIndex;
 
     @Transactional(readOnly = true)
     public Page<TaskResponseDto> getAllTasks(TaskStatus status, Pageable pageable) {
         Page<Task> tasks;
         if (status != null) {
-            tasks = taskRepository.findByStatus(status, pageable);
+            tasks = taskStore.findByStatus(status, pageable);
+        } else {
+            tasks = taskStore.findAll(pageable);
+        }
+        return tasks.map(taskMapper::toDto);
+    }
+
+    /**
+     * Same as {@link #getAllTasks} without the count query, for callers that do not need totals.
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskResponseDto> getTaskSlice(TaskStatus status, Pageable pageable) {
+        Slice<Task> tasks;
+        if (status != null) {
+            tasks = taskStore.findSliceByStatus(status, pageable);
         } else {
-            tasks = taskRepository.findAll(pageable);
+            tasks = taskStore.findSliceBy(pageable);
         }
         return tasks.map(taskMapper::toDto);
     }
 
+    /**
+     * Searches tasks by any combination of statuses, priorities and creation range, with facet
+     * counts. The {@link TaskFacetIndex} answers when it can, and only the rows of the page are
+     * loaded; otherwise the page and the counts are queried from the store.
+     */
+    @Transactional(readOnly = true)
+    public TaskFacetPageDto searchTasks(TaskFilterDto filter, Pageable pageable) {
+        Optional<TaskFacetIndex.Result> indexed = taskFacetIndex.search(filter, pageable);
+        if (indexed.isPresent()) {
+            TaskFacetIndex.Result result = indexed.get();
+            Map<Long, Task> tasks = taskStore.findAllById(result.ids()).stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            // A task deleted since the index was read is left out of the page
+            List<TaskResponseDto> content = result.ids().stream()
+                    .map(tasks::get)
+                    .filter(Objects::nonNull)
+                    .map(taskMapper::toDto)
+                    .toList();
+            return facetPage(content, result.total(), pageable, result.statusCounts(), result.priorityCounts());
+        }
+
+        Set<TaskStatus> statuses = isEmpty(filter.getStatuses())
+                ? EnumSet.allOf(TaskStatus.class) : EnumSet.copyOf(filter.getStatuses());
+        Set<TaskPriority> priorities = isEmpty(filter.getPriorities())
+                ? EnumSet.allOf(TaskPriority.class) : EnumSet.copyOf(filter.getPriorities());
+        LocalDateTime createdFrom = Objects.requireNonNullElse(filter.getCreatedFrom(), EARLIEST_CREATED_AT);
+        LocalDateTime createdTo = Objects.requireNonNullElse(filter.getCreatedTo(), LATEST_CREATED_AT);
+        Page<TaskResponseDto> page = taskStore.findByFilter(statuses, priorities, createdFrom, createdTo, pageable)
+                .map(taskMapper::toDto);
+
+        Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Long> priorityCounts = new EnumMap<>(TaskPriority.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            statusCounts.put(status, 0L);
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            priorityCounts.put(priority, 0L);
+        }
+        for (TaskFacetCount count : taskStore.countByStatusAndPriority(createdFrom, createdTo)) {
+            if (priorities.contains(count.priority())) {
+                statusCounts.merge(count.status(), count.count(), Long::sum);
+            }
+            if (statuses.contains(count.status())) {
+                priorityCounts.merge(count.priority(), count.count(), Long::sum);
+            }
+        }
+        return facetPage(page.getContent(), page.getTotalElements(), pageable, statusCounts, priorityCounts);
+    }
+
+    /**
+     * Database fallback of {@link TaskTitleIndex#suggest}, with the same matches and ranking.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSuggestionDto> suggestTasks(String prefix, int limit) {
+        String text = prefix.strip();
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        return taskStore.findByTitleWordPrefix(text, limit).stream()
+                .map(taskMapper::toSuggestionDto)
+                .toList();
+    }
+
     @Transactional(readOnly = true)
     public TaskResponseDto getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        Task task = taskStore.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
         return taskMapper.toDto(task);
     }
 
+    /**
+     * Loads several tasks with a single {@code WHERE id IN (...)} query; missing ids are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, TaskResponseDto> getTasksByIds(Collection<Long> ids) {
+        return taskStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, taskMapper::toDto));
+    }
+
     @Transactional
     public TaskResponseDto createTask(TaskRequestDto taskRequestDto) {
         Task task = taskMapper.toEntity(taskRequestDto);
-        Task savedTask = taskRepository.save(task);
-        log.info("Created task with id: {}", savedTask.getId());
+        appendToColumn(task);
+        Task savedTask = taskStore.save(task);
+        taskHistoryService.record(savedTask, TaskHistoryAction.CREATED, null);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(savedTask));
+        logSampler.info(log, LogSampler.TASK_CREATED, "Created task with id: {}", savedTask.getId());
         return taskMapper.toDto(savedTask);
     }
 
+    /**
+     * Replaces the editable fields of a task. A request that matches the stored task writes
+     * nothing, leaves the version alone and records no history.
+     */
     @Transactional
-    public TaskResponseDto updateTask(Long id, TaskRequestDto taskRequestDto) {
-        Task task = taskRepository.findById(id)
+    public TaskUpdateResult updateTask(Long id, TaskRequestDto taskRequestDto) {
+        Task task = taskStore.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
         
+        TaskStatus previousStatus = task.getStatus();
+        Map<String, Object> previousFields = editableFields(task);
         taskMapper.updateEntityFromDto(taskRequestDto, task);
-        Task updatedTask = taskRepository.save(task);
-        log.info("Updated task with id: {}", updatedTask.getId());
-        return taskMapper.toDto(updatedTask);
+        Map<String, Object> changes = changedFields(previousFields, task);
+        if (changes.isEmpty()) {
+            return TaskUpdateResult.unchanged(taskMapper.toDto(task));
+        }
+        if (task.getStatus() != previousStatus) {
+            appendToColumn(task);
+            changes.put("rank", task.getRank());
+        }
+        Task updatedTask = taskStore.save(task);
+        taskHistoryService.record(updatedTask, TaskHistoryAction.UPDATED, previousStatus);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(updatedTask));
+        logSampler.info(log, LogSampler.TASK_UPDATED, "Updated task with id: {}", updatedTask.getId());
+        return new TaskUpdateResult(toDto(updatedTask, previousStatus), Collections.unmodifiableMap(changes));
     }
 
+    /**
+     * Applies the non-null fields of a merge patch. Like {@link #updateTask}, a patch that changes
+     * nothing is not written.
+     */
     @Transactional
-    public TaskResponseDto partialUpdateTask(Long id, TaskRequestDto taskRequestDto) {
-        Task task = taskRepository.findById(id)
+    public TaskUpdateResult partialUpdateTask(Long id, TaskRequestDto taskRequestDto) {
+        Task task = taskStore.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
         
+        TaskStatus previousStatus = task.getStatus();
+        Map<String, Object> previousFields = editableFields(task);
         taskMapper.partialUpdateEntityFromDto(taskRequestDto, task);
-        Task updatedTask = taskRepository.save(task);
-        log.info("Partially updated task with id: {}", updatedTask.getId());
-        return taskMapper.toDto(updatedTask);
+        Map<String, Object> changes = changedFields(previousFields, task);
+        if (changes.isEmpty()) {
+            return TaskUpdateResult.unchanged(taskMapper.toDto(task));
+        }
+        if (task.getStatus() != previousStatus) {
+            appendToColumn(task);
+            changes.put("rank", task.getRank());
+        }
+        Task updatedTask = taskStore.save(task);
+        taskHistoryService.record(updatedTask, TaskHistoryAction.UPDATED, previousStatus);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(updatedTask));
+        logSampler.info(log, LogSampler.TASK_UPDATED, "Partially updated task with id: {}", updatedTask.getId());
+        return new TaskUpdateResult(toDto(updatedTask, previousStatus), Collections.unmodifiableMap(changes));
+    }
+
+    /**
+     * Applies several partial updates in one transaction. Tasks are loaded with one query and
+     * written with JDBC batching; an unknown id rolls back the whole batch. Tasks that no update
+     * changes are neither written nor recorded in the history, and are not among the changed tasks
+     * of the result.
+     */
+    @Transactional
+    public TaskBatchUpdateResult batchPartialUpdateTasks(List<TaskBatchUpdateDto> updates) {
+        Set<Long> ids = new HashSet<>();
+        Set<TaskStatus> targetStatuses = EnumSet.noneOf(TaskStatus.class);
+        for (TaskBatchUpdateDto update : updates) {
+            ids.add(update.getId());
+            if (update.getChanges().getStatus() != null) {
+                targetStatuses.add(update.getChanges().getStatus());
+            }
+        }
+        Map<Long, Task> tasks = taskStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        // Look up column ends before any entity is dirty so these queries do not force a flush.
+        // Columns are locked in enum order, so two batches cannot wait for each other.
+        Map<TaskStatus, String> lastRanks = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : targetStatuses) {
+            taskStore.lockColumn(status);
+            taskStore.findFirstByStatusOrderByRankDesc(status)
+                    .ifPresent(last -> lastRanks.put(status, last.getRank()));
+        }
+
+        Map<Long, TaskStatus> originalStatuses = new HashMap<>();
+        Map<Long, Task> changedTasks = new LinkedHashMap<>();
+        for (TaskBatchUpdateDto update : updates) {
+            Task task = tasks.get(update.getId());
+            if (task == null) {
+                throw new ResourceNotFoundException("Task not found with id: " + update.getId());
+            }
+            TaskStatus previousStatus = task.getStatus();
+            originalStatuses.putIfAbsent(task.getId(), previousStatus);
+            Map<String, Object> previousFields = editableFields(task);
+            taskMapper.partialUpdateEntityFromDto(update.getChanges(), task);
+            if (changedFields(previousFields, task).isEmpty()) {
+                continue;
+            }
+            changedTasks.put(task.getId(), task);
+            if (task.getStatus() != previousStatus) {
+                String rank = LexoRank.after(lastRanks.get(task.getStatus()));
+                lastRanks.put(task.getStatus(), rank);
+                task.setRank(rank);
+                taskRankRebalancer.onRankAssigned(task.getStatus(), rank);
+            }
+            taskHistoryService.record(task, TaskHistoryAction.UPDATED, previousStatus);
+        }
+
+        List<Task> updatedTasks = taskStore.saveAllAndFlush(changedTasks.values());
+        if (!updatedTasks.isEmpty()) {
+            eventPublisher.publishEvent(TaskChangedEvent.changed(updatedTasks));
+        }
+        logSampler.info(log, LogSampler.TASK_BATCH_UPDATED, "Batch updated {} tasks", updatedTasks.size());
+        Map<Long, TaskResponseDto> dtos = new HashMap<>();
+        List<TaskResponseDto> all = updates.stream()
+                .map(update -> dtos.computeIfAbsent(update.getId(),
+                        id -> toDto(tasks.get(id), originalStatuses.get(id))))
+                .toList();
+        List<TaskResponseDto> changed = changedTasks.keySet().stream()
+                .map(dtos::get)
+                .toList();
+        return new TaskBatchUpdateResult(all, changed);
+    }
+
+    /**
+     * Moves a task to another column and/or position. Only the moved task's row is written:
+     * its new rank is generated between the ranks of its future neighbours.
+     */
+    @Transactional
+    public TaskResponseDto moveTask(Long id, TaskMoveRequestDto moveRequestDto) {
+        Task task = taskStore.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        TaskStatus previousStatus = task.getStatus();
+        TaskStatus targetStatus = moveRequestDto.getStatus() != null ? moveRequestDto.getStatus() : previousStatus;
+
+        taskStore.lockColumn(targetStatus);
+        Task after = null;
+        Task before = null;
+        if (moveRequestDto.getAfterTaskId() != null) {
+            after = findNeighbour(moveRequestDto.getAfterTaskId(), id, targetStatus);
+        }
+        if (moveRequestDto.getBeforeTaskId() != null) {
+            before = findNeighbour(moveRequestDto.getBeforeTaskId(), id, targetStatus);
+        }
+        String lowerRank = after != null ? after.getRank() : null;
+        String upperRank = before != null ? before.getRank() : null;
+
+        List<Task> written = new ArrayList<>();
+        String rank;
+        if (lowerRank != null && upperRank != null) {
+            int order = lowerRank.compareTo(upperRank);
+            if (order == 0 && after.getId() < before.getId()) {
+                // Tied ranks are ordered by id, so the before task comes after the after task
+                written.addAll(spreadTiedRanks(targetStatus, after, id));
+                Long beforeId = before.getId();
+                upperRank = written.stream()
+                        .filter(tied -> tied.getId().equals(beforeId))
+                        .findFirst()
+                        .orElseThrow()
+                        .getRank();
+            } else if (order >= 0) {
+                throw new InvalidTaskMoveException("Task " + moveRequestDto.getAfterTaskId()
+                        + " is not positioned before task " + moveRequestDto.getBeforeTaskId());
+            }
+            rank = LexoRank.between(lowerRank, upperRank);
+        } else if (lowerRank != null) {
+            rank = rankAfter(lowerRank, targetStatus, id);
+        } else if (upperRank != null) {
+            String previousRank = taskStore
+                    .findFirstByStatusAndRankLessThanAndIdNotOrderByRankDesc(targetStatus, upperRank, id)
+                    .map(Task::getRank)
+                    .orElse(null);
+            rank = LexoRank.between(previousRank, upperRank);
+        } else {
+            rank = LexoRank.after(taskStore.findFirstByStatusAndIdNotOrderByRankDesc(targetStatus, id)
+                    .map(Task::getRank)
+                    .orElse(null));
+        }
+
+        task.setStatus(targetStatus);
+        task.setRank(rank);
+        taskRankRebalancer.onRankAssigned(targetStatus, rank);
+        Task movedTask = taskStore.save(task);
+        written.add(movedTask);
+        taskHistoryService.record(movedTask, TaskHistoryAction.MOVED, previousStatus);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(written));
+        logSampler.info(log, LogSampler.TASK_MOVED, "Moved task with id: {} to {}", movedTask.getId(), targetStatus);
+        return toDto(movedTask, previousStatus);
     }
 
     @Transactional
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
+        if (!taskStore.existsById(id)) {
             throw new ResourceNotFoundException("Task not found with id: " + id);
         }
-        taskRepository.deleteById(id);
-        log.info("Deleted task with id: {}", id);
+        taskStore.deleteById(id);
+        taskHistoryService.recordDeletion(id);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(id));
+        logSampler.info(log, LogSampler.TASK_DELETED, "Deleted task with id: {}", id);
+    }
+
+    /**
+     * Brings back a soft-deleted task that has not been purged yet, at its previous position.
+     */
+    @Transactional
+    public TaskResponseDto restoreTask(Long id) {
+        if (taskStore.restoreById(id, TenantContext.currentTenant()) == 0) {
+            throw new ResourceNotFoundException("Deleted task not found with id: " + id);
+        }
+        Task task = taskStore.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        taskHistoryService.record(task, TaskHistoryAction.RESTORED, null);
+        eventPublisher.publishEvent(TaskChangedEvent.changed(task));
+        logSampler.info(log, LogSampler.TASK_RESTORED, "Restored task with id: {}", id);
+        return taskMapper.toDto(task);
+    }
+
+    private static TaskFacetPageDto facetPage(List<TaskResponseDto> content, long total, Pageable pageable,
+                                              Map<TaskStatus, Long> statusCounts,
+                                              Map<TaskPriority, Long> priorityCounts) {
+        return TaskFacetPageDto.builder()
+                .content(content)
+                .totalElements(total)
+                .number(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .statusCounts(statusCounts.entrySet().stream()
+                        .map(count -> new TaskFacetPageDto.FacetCount<>(count.getKey(), count.getValue()))
+                        .toList())
+                .priorityCounts(priorityCounts.entrySet().stream()
+                        .map(count -> new TaskFacetPageDto.FacetCount<>(count.getKey(), count.getValue()))
+                        .toList())
+                .build();
+    }
+
+    private static boolean isEmpty(Collection<?> values) {
+        return values == null || values.isEmpty();
     }
-}
 
+    /**
+     * The fields a client can set, by the name used in {@link TaskUpdateResult#changes()}.
+     */
+    private static Map<String, Object> editableFields(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("status", task.getStatus());
+        fields.put("priority", task.getPriority());
+        return fields;
+    }
+
+    private static Map<String, Object> changedFields(Map<String, Object> previousFields, Task task) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        editableFields(task).forEach((name, value) -> {
+            if (!Objects.equals(previousFields.get(name), value)) {
+                changes.put(name, value);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Returns a rank between {@code lowerRank} and the next higher rank in the column, ignoring the
+     * task being moved.
+     */
+    private String rankAfter(String lowerRank, TaskStatus status, Long movedId) {
+        String nextRank = taskStore
+                .findFirstByStatusAndRankGreaterThanAndIdNotOrderByRankAsc(status, lowerRank, movedId)
+                .map(Task::getRank)
+                .orElse(null);
+        return nextRank != null ? LexoRank.between(lowerRank, nextRank) : LexoRank.after(lowerRank);
+    }
+
+    /**
+     * Gives the tasks that share the rank of {@code after} but sort after it by id distinct ranks
+     * up to the next higher rank of the column, keeping their order, and returns them saved.
+     */
+    private List<Task> spreadTiedRanks(TaskStatus status, Task after, Long movedId) {
+        List<Task> tied = new ArrayList<>();
+        String nextRank = null;
+        for (Task task : taskStore.findByStatusForRebalance(status)) {
+            int order = task.getRank().compareTo(after.getRank());
+            if (task.getId().equals(movedId) || order < 0) {
+                continue;
+            }
+            if (order > 0) {
+                nextRank = task.getRank();
+                break;
+            }
+            if (task.getId() > after.getId()) {
+                tied.add(task);
+            }
+        }
+        String[] ranks = LexoRank.evenlySpacedBetween(after.getRank(), nextRank, tied.size());
+        for (int i = 0; i < ranks.length; i++) {
+            tied.get(i).setRank(ranks[i]);
+            taskRankRebalancer.onRankAssigned(status, ranks[i]);
+        }
+        return taskStore.saveAllAndFlush(tied);
+    }
+
+    /**
+     * Gives the task the rank after the last one of its column. The column stays locked until the
+     * transaction ends, so a concurrent append cannot read the same last rank.
+     */
+    private void appendToColumn(Task task) {
+        taskStore.lockColumn(task.getStatus());
+        String lastRank = taskStore.findFirstByStatusOrderByRankDesc(task.getStatus())
+                .map(Task::getRank)
+                .orElse(null);
+        task.setRank(LexoRank.after(lastRank));
+        taskRankRebalancer.onRankAssigned(task.getStatus(), task.getRank());
+    }
+
+    /**
+     * Maps a written task, noting the status it had before when the write moved it to another column.
+     */
+    private TaskResponseDto toDto(Task task, TaskStatus previousStatus) {
+        TaskResponseDto dto = taskMapper.toDto(task);
+        if (task.getStatus() != previousStatus) {
+            dto.setPreviousStatus(previousStatus);
+        }
+        return dto;
+    }
+
+    private Task findNeighbour(Long neighbourId, Long movedId, TaskStatus targetStatus) {
+        if (neighbourId.equals(movedId)) {
+            throw new InvalidTaskMoveException("A task cannot be positioned relative to itself");
+        }
+        Task neighbour = taskStore.findById(neighbourId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + neighbourId));
+        if (neighbour.getStatus() != targetStatus) {
+            throw new InvalidTaskMoveException("Task " + neighbourId + " is not in column " + targetStatus);
+        }
+        return neighbour;
+    }
+}
@@ -0,0 +1,362 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskSuggestionDto;
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TitleWords;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the live tasks' titles for type-ahead suggestions. Enabled with
+ * {@code title-index.enabled}.
+ * <p>
+ * Titles are split into lower-case words. Each tenant has a sorted dictionary from word to a
+ * compressed bitmap of the ids of the tasks using it, so the words starting with a prefix are one
+ * range of the dictionary. Every word of the query must prefix a word of the title. The best
+ * {@code limit} matches, by {@link #RANKING}, are picked from the tasks of the query word with the
+ * fewest candidates; when even that word is common, the tasks are walked in ranking order instead,
+ * which finds enough matches after a few entries.
+ * <p>
+ * The index is loaded once the application is ready and kept in step with the database by an
+ * {@link InMemoryTaskIndex}. Its estimated size is capped by {@code title-index.max-memory}: an
+ * index that outgrows it is dropped and suggestions come from the database until the next restart.
+ */
+@Component
+public class TaskTitleIndex {
+
+    /**
+     * Approximate heap cost of one task besides its title and words, assuming compressed oops:
+     * the entry with its date-time, one hash map and one tree set entry.
+     * {@code TaskTitleIndexBenchmarkTest} prints it next to the measured heap.
+     */
+    static final long BASE_BYTES_PER_TASK = 200;
+
+    /**
+     * Per word of a title: the string and its array slot, and the id in the word's bitmap.
+     */
+    static final long BYTES_PER_WORD = 56;
+
+    /**
+     * Per distinct word of a tenant: its dictionary node, string and bitmap.
+     */
+    static final long BYTES_PER_DICTIONARY_WORD = 320;
+
+    /**
+     * Above this many candidates for the rarest query word, tasks are walked in ranking order.
+     */
+    static final long RANKED_SCAN_THRESHOLD = 4096;
+
+    /**
+     * Highest priority first, then most recently updated.
+     */
+    static final Comparator<Entry> RANKING = Comparator.comparing(Entry::priority, Comparator.reverseOrder())
+            .thenComparing(Entry::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+
+    private static final String SELECT_TASKS = "SELECT id, tenant_id, title, status, priority, version, updated_at "
+            + "FROM tasks WHERE deleted_at IS NULL";
+
+    private final boolean enabled;
+    private final InMemoryTaskIndex<Titles> index;
+
+    public TaskTitleIndex(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${title-index.enabled:false}") boolean enabled,
+                          @Value("${title-index.load-fetch-size:10000}") int loadFetchSize,
+                          @Value("${title-index.max-memory:256MB}") DataSize maxMemory) {
+        this.enabled = enabled;
+        this.index = new InMemoryTaskIndex<>("title_index", jdbcTemplate, transactionTemplate, meterRegistry,
+                SELECT_TASKS, TaskTitleIndex::toTask, Titles::new, loadFetchSize, maxMemory.toBytes());
+
+        Gauge.builder("title_index.memory.estimated", index, InMemoryTaskIndex::estimatedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Suggests up to {@code limit} of the current tenant's tasks whose title has a word starting
+     * with each word of {@code prefix}, best ranked first. Returns empty when the index cannot
+     * answer: disabled, not loaded yet, or dropped for exceeding its memory budget.
+     */
+    public Optional<List<TaskSuggestionDto>> suggest(String prefix, int limit) {
+        if (!index.isServing()) {
+            return Optional.empty();
+        }
+        String[] words = TitleWords.split(prefix);
+        Titles titles = index.partition(TenantContext.currentTenant());
+        if (words.length == 0 || titles == null) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(titles.suggest(words, limit));
+    }
+
+    public boolean isServing() {
+        return index.isServing();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            index.reload(null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (enabled) {
+            index.onTaskChanged(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksImported(TasksImportedEvent event) {
+        if (enabled) {
+            index.onTasksImported(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${title-index.consistency-check-interval:PT5M}",
+            initialDelayString = "${title-index.consistency-check-interval:PT5M}")
+    public void checkConsistency() {
+        index.checkConsistency();
+    }
+
+    private static Task toTask(ResultSet rs, int row) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return Task.builder()
+                .id(rs.getLong("id"))
+                .tenantId(rs.getString("tenant_id"))
+                .title(rs.getString("title"))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .priority(TaskPriority.valueOf(rs.getString("priority")))
+                .version(rs.getLong("version"))
+                .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    /**
+     * Splits text into distinct lower-case words of letters and digits.
+     */
+    record Entry(long id, String title, String[] words, TaskStatus status, TaskPriority priority,
+                 LocalDateTime updatedAt, long version) {
+
+        Entry(long id, String title, TaskStatus status, TaskPriority priority, LocalDateTime updatedAt, long version) {
+            this(id, title, TitleWords.split(title), status, priority, updatedAt, version);
+        }
+
+        /**
+         * Whether every query word starts a word of the title.
+         */
+        boolean matches(String[] prefixes) {
+            return TitleWords.allPrefixWords(prefixes, words);
+        }
+
+        TaskSuggestionDto toDto() {
+            return new TaskSuggestionDto(id, title, status, priority);
+        }
+    }
+
+    /**
+     * One tenant's titles. The tree structures are not thread-safe, so suggestions hold the read
+     * lock and writes the write lock.
+     */
+    static final class Titles implements InMemoryTaskIndex.Partition {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final NavigableMap<String, Roaring64Bitmap> dictionary = new TreeMap<>();
+        private final NavigableSet<Entry> ranked = new TreeSet<>(RANKING);
+        private volatile long estimatedBytes;
+
+        @Override
+        public long size() {
+            lock.readLock().lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public void put(Task task) {
+            put(new Entry(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(),
+                    task.getUpdatedAt(), task.getVersion() != null ? task.getVersion() : 0L));
+        }
+
+        private void put(Entry entry) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.get(entry.id());
+                if (previous != null) {
+                    if (entry.version() < previous.version()) {
+                        return;
+                    }
+                    unindex(previous);
+                }
+                entries.put(entry.id(), entry);
+                ranked.add(entry);
+                for (String word : entry.words()) {
+                    Roaring64Bitmap ids = dictionary.get(word);
+                    if (ids == null) {
+                        ids = new Roaring64Bitmap();
+                        dictionary.put(word, ids);
+                        estimatedBytes += BYTES_PER_DICTIONARY_WORD + word.length();
+                    }
+                    ids.addLong(entry.id());
+                }
+                estimatedBytes += estimateBytes(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    unindex(previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void unindex(Entry entry) {
+            ranked.remove(entry);
+            for (String word : entry.words()) {
+                Roaring64Bitmap ids = dictionary.get(word);
+                ids.removeLong(entry.id());
+                if (ids.isEmpty()) {
+                    dictionary.remove(word);
+                    estimatedBytes -= BYTES_PER_DICTIONARY_WORD + word.length();
+                }
+            }
+            estimatedBytes -= estimateBytes(entry);
+        }
+
+        List<TaskSuggestionDto> suggest(String[] prefixes, int limit) {
+            lock.readLock().lock();
+            try {
+                // The query word with the fewest candidate tasks drives the search
+                Map<String, Roaring64Bitmap> rarest = null;
+                long rarestCandidates = Long.MAX_VALUE;
+                for (String prefix : prefixes) {
+                    Map<String, Roaring64Bitmap> words = dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+                    long candidates = 0;
+                    for (Roaring64Bitmap ids : words.values()) {
+                        candidates += ids.getLongCardinality();
+                        if (candidates >= rarestCandidates) {
+                            break;
+                        }
+                    }
+                    if (candidates == 0) {
+                        return List.of();
+                    }
+                    if (candidates < rarestCandidates) {
+                        rarest = words;
+                        rarestCandidates = candidates;
+                    }
+                }
+
+                List<Entry> best = new ArrayList<>(limit);
+                if (rarestCandidates > RANKED_SCAN_THRESHOLD) {
+                    for (Entry entry : ranked) {
+                        if (entry.matches(prefixes)) {
+                            best.add(entry);
+                            if (best.size() == limit) {
+                                break;
+                            }
+                        }
+                    }
+                } else {
+                    // Keeps the best matches seen so far with the worst at the head
+                    PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+                    Roaring64Bitmap candidates = new Roaring64Bitmap();
+                    for (Roaring64Bitmap ids : rarest.values()) {
+                        candidates.or(ids);
+                    }
+                    LongIterator iterator = candidates.getLongIterator();
+                    while (iterator.hasNext()) {
+                        Entry entry = entries.get(iterator.next());
+                        if (entry.matches(prefixes)) {
+                            top.add(entry);
+                            if (top.size() > limit) {
+                                top.poll();
+                            }
+                        }
+                    }
+                    best.addAll(top);
+                    best.sort(RANKING);
+                }
+                return best.stream().map(Entry::toDto).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Map<TaskStatus, long[]> aggregates() {
+            lock.readLock().lock();
+            try {
+                Map<TaskStatus, long[]> aggregates = new EnumMap<>(TaskStatus.class);
+                for (Entry entry : entries.values()) {
+                    long[] aggregate = aggregates.computeIfAbsent(entry.status(), status -> new long[2]);
+                    aggregate[0]++;
+                    aggregate[1] += entry.version();
+                }
+                return aggregates;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        static long estimateBytes(Entry entry) {
+            long bytes = BASE_BYTES_PER_TASK + entry.title().length();
+            for (String word : entry.words()) {
+                bytes += BYTES_PER_WORD + word.length();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskResponseDto;
+
+import java.util.Map;
+
+/**
+ * Outcome of an update of one task.
+ *
+ * @param task    the task as stored after the update
+ * @param changes new values of the fields the update changed, by field name; empty when the update
+ *                changed nothing, in which case nothing was written and no event is due
+ */
+public record TaskUpdateResult(TaskResponseDto task, Map<String, Object> changes) {
+
+    public static TaskUpdateResult unchanged(TaskResponseDto task) {
+        return new TaskUpdateResult(task, Map.of());
+    }
+
+    public boolean changed() {
+        return !changes.isEmpty();
+    }
+}
@@ -0,0 +1,311 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskMoveRequestDto;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.exception.ConflictingUpdateException;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-process write path that applies the updates and moves of one task one after another,
+ * instead of letting concurrent requests race on the {@code @Version} check.
+ * <p>
+ * Writes are queued per task. The request that finds the queue empty applies the queued writes in
+ * order until the queue is drained, then hands over to the next waiting request. Concurrent
+ * partial updates that set different fields are merged and written once. Two that set the same
+ * field to different values are a real conflict: the later one is rejected with
+ * {@link ConflictingUpdateException}. Each write runs with the security context of its request, so
+ * history is attributed correctly; a merged write is attributed to its first request, and only that
+ * request's result reports the changes, so the write is announced once.
+ * <p>
+ * A batch update queues a barrier in the queue of each of its tasks and runs, still in one
+ * transaction, once it holds all their turns; writes queued behind a barrier wait for the batch.
+ * Turns are taken in id order, so two batches never wait for each other.
+ * <p>
+ * Serialization only covers this instance. Writes from other instances are still caught by the
+ * version check. With {@code task-writes.serialize} off, calls go straight to {@link TaskService}.
+ */
+@Service
+public class TaskWriteQueue {
+
+    private static final List<Field<?>> PATCHABLE_FIELDS = List.of(
+            new Field<>("title", TaskRequestDto::getTitle, TaskRequestDto::setTitle),
+            new Field<>("description", TaskRequestDto::getDescription, TaskRequestDto::setDescription),
+            new Field<>("status", TaskRequestDto::getStatus, TaskRequestDto::setStatus),
+            new Field<>("priority", TaskRequestDto::getPriority, TaskRequestDto::setPriority));
+
+    private final TaskService taskService;
+    private final boolean enabled;
+    private final Map<TaskKey, Deque<PendingWrite>> queues = new ConcurrentHashMap<>();
+    private final Counter serialized;
+    private final Counter merged;
+    private final Counter rejected;
+
+    public TaskWriteQueue(TaskService taskService,
+                          MeterRegistry meterRegistry,
+                          @Value("${task-writes.serialize:false}") boolean enabled) {
+        this.taskService = taskService;
+        this.enabled = enabled;
+        this.serialized = Counter.builder("task_writes.conflicts_avoided").tag("how", "serialized")
+                .description("Writes that waited for another write of the same task instead of racing it")
+                .register(meterRegistry);
+        this.merged = Counter.builder("task_writes.conflicts_avoided").tag("how", "merged")
+                .description("Partial updates written together with another one")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("task_writes.conflicts_rejected")
+                .description("Partial updates rejected for setting a field another one set differently")
+                .register(meterRegistry);
+    }
+
+    public TaskUpdateResult updateTask(Long id, TaskRequestDto taskRequestDto) {
+        if (!enabled) {
+            return taskService.updateTask(id, taskRequestDto);
+        }
+        return submit(id, new PendingWrite(null, () -> taskService.updateTask(id, taskRequestDto)));
+    }
+
+    public TaskUpdateResult partialUpdateTask(Long id, TaskRequestDto taskRequestDto) {
+        if (!enabled) {
+            return taskService.partialUpdateTask(id, taskRequestDto);
+        }
+        return submit(id, new PendingWrite(taskRequestDto, () -> taskService.partialUpdateTask(id, taskRequestDto)));
+    }
+
+    public TaskResponseDto moveTask(Long id, TaskMoveRequestDto moveRequestDto) {
+        if (!enabled) {
+            return taskService.moveTask(id, moveRequestDto);
+        }
+        return submit(id, new PendingWrite(null, () -> taskService.moveTask(id, moveRequestDto)));
+    }
+
+    public TaskBatchUpdateResult batchPartialUpdateTasks(List<TaskBatchUpdateDto> updates) {
+        if (!enabled) {
+            return taskService.batchPartialUpdateTasks(updates);
+        }
+        String tenantId = TenantContext.currentTenant();
+        Map<TaskKey, PendingWrite> barriers = new LinkedHashMap<>();
+        try {
+            for (Long id : new TreeSet<>(updates.stream().map(TaskBatchUpdateDto::getId).toList())) {
+                TaskKey key = new TaskKey(tenantId, id);
+                PendingWrite barrier = new PendingWrite(null, null);
+                barriers.put(key, barrier);
+                enqueue(key, barrier);
+                barrier.turn.join();
+            }
+            return taskService.batchPartialUpdateTasks(updates);
+        } finally {
+            barriers.forEach((key, barrier) -> passTurn(key, barrier));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T submit(Long id, PendingWrite write) {
+        TaskKey key = new TaskKey(TenantContext.currentTenant(), id);
+        enqueue(key, write);
+        // Wait for the outcome of the write, or for the turn to apply the queue
+        CompletableFuture.anyOf(write.result, write.turn).handle((outcome, failure) -> null).join();
+        if (!write.result.isDone()) {
+            drain(key);
+        }
+        try {
+            return (T) write.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the write to the task's queue; a write finding the queue empty has the turn at once.
+     */
+    private void enqueue(TaskKey key, PendingWrite write) {
+        queues.compute(key, (taskKey, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                write.turn.complete(null);
+            } else {
+                serialized.increment();
+            }
+            queue.add(write);
+            return queue;
+        });
+    }
+
+    /**
+     * Applies the queued writes, starting with the caller's and up to the first batch barrier, then
+     * passes the turn on.
+     */
+    private void drain(TaskKey key) {
+        List<PendingWrite> batch = new ArrayList<>();
+        queues.computeIfPresent(key, (taskKey, queue) -> {
+            while (!queue.isEmpty() && !queue.peek().isBarrier()) {
+                batch.add(queue.poll());
+            }
+            return queue;
+        });
+        apply(key.taskId(), batch);
+        passTurn(key, null);
+    }
+
+    /**
+     * Removes {@code finished} from the queue, if given, and hands the turn to the write queued
+     * next, or removes the empty queue.
+     */
+    private void passTurn(TaskKey key, PendingWrite finished) {
+        PendingWrite[] next = new PendingWrite[1];
+        queues.computeIfPresent(key, (taskKey, queue) -> {
+            if (finished != null) {
+                queue.remove(finished);
+            }
+            next[0] = queue.peek();
+            return queue.isEmpty() ? null : queue;
+        });
+        if (next[0] != null) {
+            next[0].turn.complete(null);
+        }
+    }
+
+    private void apply(Long id, List<PendingWrite> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            PendingWrite first = batch.get(i++);
+            if (first.patch == null) {
+                complete(List.of(first), first.operation);
+                continue;
+            }
+            // Fold the partial updates queued right after this one into a single write
+            TaskRequestDto combined = TaskRequestDto.builder().build();
+            merge(first.patch, combined);
+            List<PendingWrite> group = new ArrayList<>(List.of(first));
+            for (; i < batch.size() && batch.get(i).patch != null; i++) {
+                PendingWrite next = batch.get(i);
+                String field = conflictingField(next.patch, combined);
+                if (field != null) {
+                    rejected.increment();
+                    next.result.completeExceptionally(new ConflictingUpdateException(
+                            "Task " + id + " was concurrently updated with a different " + field
+                                    + ". Please refresh and try again."));
+                } else {
+                    merge(next.patch, combined);
+                    group.add(next);
+                }
+            }
+            merged.increment(group.size() - 1);
+            if (group.size() == 1) {
+                complete(group, first.operation);
+            } else {
+                completeMerged(group, () -> taskService.partialUpdateTask(id, combined));
+            }
+        }
+    }
+
+    /**
+     * Runs the write with the security context of the first request and hands its outcome to all.
+     */
+    private static void complete(List<PendingWrite> writes, Supplier<?> operation) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(writes.get(0).securityContext);
+        try {
+            Object result = operation.get();
+            writes.forEach(write -> write.result.complete(result));
+        } catch (RuntimeException | Error e) {
+            writes.forEach(write -> write.result.completeExceptionally(e));
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    /**
+     * Like {@link #complete}, but only the first request gets the changes of the merged write, so
+     * that it is announced once.
+     */
+    private static void completeMerged(List<PendingWrite> group, Supplier<TaskUpdateResult> operation) {
+        complete(group.subList(0, 1), operation);
+        PendingWrite first = group.get(0);
+        first.result.whenComplete((result, failure) -> group.subList(1, group.size()).forEach(write -> {
+            if (failure != null) {
+                write.result.completeExceptionally(failure);
+            } else {
+                write.result.complete(TaskUpdateResult.unchanged(((TaskUpdateResult) result).task()));
+            }
+        }));
+    }
+
+    private static String conflictingField(TaskRequestDto patch, TaskRequestDto combined) {
+        for (Field<?> field : PATCHABLE_FIELDS) {
+            Object value = field.getter().apply(patch);
+            Object current = field.getter().apply(combined);
+            if (value != null && current != null && !Objects.equals(value, current)) {
+                return field.name();
+            }
+        }
+        return null;
+    }
+
+    private static void merge(TaskRequestDto patch, TaskRequestDto combined) {
+        PATCHABLE_FIELDS.forEach(field -> field.copy(patch, combined));
+    }
+
+    private record TaskKey(String tenantId, Long taskId) {
+    }
+
+    private record Field<T>(String name, Function<TaskRequestDto, T> getter, BiConsumer<TaskRequestDto, T> setter) {
+
+        void copy(TaskRequestDto from, TaskRequestDto to) {
+            T value = getter.apply(from);
+            if (value != null) {
+                setter.accept(to, value);
+            }
+        }
+    }
+
+    /**
+     * A write waiting in a task's queue. {@code patch} is set for partial updates, which may be
+     * merged; {@code turn} completes when the request has to apply the queue itself. A barrier
+     * has no operation: it holds the turn for a batch update, which runs on its own.
+     */
+    private static final class PendingWrite {
+
+        private final TaskRequestDto patch;
+        private final Supplier<?> operation;
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+
+        PendingWrite(TaskRequestDto patch, Supplier<?> operation) {
+            this.patch = patch;
+            this.operation = operation;
+        }
+
+        boolean isBarrier() {
+            return operation == null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.kanban.service;
+
+/**
+ * Published inside the transaction of a bulk import in place of a {@link TaskChangedEvent},
+ * which would have to hold every imported task.
+ *
+ * @param tenantId tenant the tasks were imported into
+ * @param imported number of imported tasks
+ */
+public record TasksImportedEvent(String tenantId, long imported) {
+}
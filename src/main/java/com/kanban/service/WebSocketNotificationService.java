@@ -1,34 +1,172 @@
 package com.kanban.service;
 
+import com.kanban.dto.TaskChangesDto;
+import com.kanban.dto.TaskImportResultDto;
 import com.kanban.dto.TaskResponseDto;
-import lombok.RequiredArgsConstructor;
+import com.kanban.security.TenantContext;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class WebSocketNotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final LogSampler logSampler;
+    private final ObservationRegistry observationRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+    private final TaskEventLog taskEventLog;
+    private final TaskEventStream taskEventStream;
+    private final boolean changesOnly;
     private static final String TOPIC = "/topic/tasks";
+    private static final String TENANT_TOPIC_PREFIX = "/topic/tenants/";
+
+    /**
+     * STOMP header carrying the task id of an {@code UPDATED} event. Such an event holds the whole
+     * task, so it supersedes earlier updates of the task that a slow client has not received yet.
+     */
+    public static final String TASK_ID_HEADER = "task-id";
+
+    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate,
+                                        LogSampler logSampler,
+                                        ObservationRegistry observationRegistry,
+                                        Tracer tracer,
+                                        Propagator propagator,
+                                        TaskEventLog taskEventLog,
+                                        TaskEventStream taskEventStream,
+                                        @Value("${task-events.changes-only:false}") boolean changesOnly) {
+        this.messagingTemplate = messagingTemplate;
+        this.logSampler = logSampler;
+        this.observationRegistry = observationRegistry;
+        this.tracer = tracer;
+        this.propagator = propagator;
+        this.taskEventLog = taskEventLog;
+        this.taskEventStream = taskEventStream;
+        this.changesOnly = changesOnly;
+    }
 
     public void notifyTaskCreated(TaskResponseDto task) {
-        messagingTemplate.convertAndSend(TOPIC, new TaskEvent("CREATED", task));
-        log.info("Sent WebSocket notification for task creation: {}", task.getId());
+        send("CREATED", task);
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for task creation: {}", task.getId());
     }
 
     public void notifyTaskUpdated(TaskResponseDto task) {
-        messagingTemplate.convertAndSend(TOPIC, new TaskEvent("UPDATED", task));
-        log.info("Sent WebSocket notification for task update: {}", task.getId());
+        send("UPDATED", task, task.getId());
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for task update: {}", task.getId());
+    }
+
+    /**
+     * Announces an update that changed something. With {@code task-events.changes-only} the event
+     * is a {@code CHANGED} event holding only the changed fields; it is never superseded, because
+     * a later one does not repeat its fields.
+     */
+    public void notifyTaskUpdated(TaskUpdateResult update) {
+        if (!update.changed()) {
+            return;
+        }
+        if (!changesOnly) {
+            notifyTaskUpdated(update.task());
+            return;
+        }
+        TaskResponseDto task = update.task();
+        send("CHANGED", TaskChangesDto.builder()
+                .id(task.getId())
+                .version(task.getVersion())
+                .updatedAt(task.getUpdatedAt())
+                .changes(update.changes())
+                .previousStatus(task.getPreviousStatus())
+                .build());
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for changes of task: {}", task.getId());
+    }
+
+    public void notifyTasksUpdated(List<TaskResponseDto> tasks) {
+        send("BATCH_UPDATED", tasks);
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for batch update of {} tasks", tasks.size());
     }
 
     public void notifyTaskDeleted(Long taskId) {
-        messagingTemplate.convertAndSend(TOPIC, new TaskEvent("DELETED", taskId));
-        log.info("Sent WebSocket notification for task deletion: {}", taskId);
+        send("DELETED", taskId);
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for task deletion: {}", taskId);
+    }
+
+    public void notifyTaskRestored(TaskResponseDto task) {
+        send("RESTORED", task);
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for task restore: {}", task.getId());
+    }
+
+    /**
+     * A single summary for a bulk import instead of one event per task; clients reload the board.
+     */
+    public void notifyTasksImported(TaskImportResultDto result) {
+        send("IMPORTED", Map.of("imported", result.getImported(), "rejected", result.getRejected()));
+        logSampler.info(log, LogSampler.WEBSOCKET_NOTIFICATION, "Sent WebSocket notification for import of {} tasks", result.getImported());
+    }
+
+    /**
+     * Events only go to subscribers of the acting tenant. The default tenant keeps the
+     * original topic so existing clients continue to work.
+     */
+    public static String topicFor(String tenantId) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenantId)) {
+            return TOPIC;
+        }
+        return TENANT_TOPIC_PREFIX + tenantId + "/tasks";
+    }
+
+    /**
+     * Numbers the event in the {@link TaskEventLog} and sends it inside a {@code websocket.send}
+     * span, adding its W3C {@code traceparent} as a STOMP header so clients can correlate receive
+     * latency with the server-side trace. Server-Sent Events streams get the same event.
+     */
+    private void send(String eventType, Object payload) {
+        send(eventType, payload, null);
+    }
+
+    /**
+     * @param supersedingTaskId set when the event supersedes earlier events of the task with the
+     *                          same type, see {@link #TASK_ID_HEADER}
+     */
+    private void send(String eventType, Object payload, Long supersedingTaskId) {
+        String tenantId = TenantContext.currentTenant();
+        String destination = topicFor(tenantId);
+        Observation.createNotStarted("websocket.send", observationRegistry)
+                .contextualName("websocket send " + eventType.toLowerCase(Locale.ROOT))
+                .lowCardinalityKeyValue("event", eventType)
+                .highCardinalityKeyValue("destination", destination)
+                .observe(() -> taskEventLog.append(tenantId, eventType, payload, event -> {
+                    messagingTemplate.convertAndSend(destination, event, headers(supersedingTaskId));
+                    taskEventStream.publish(tenantId, event);
+                }));
+    }
+
+    private Map<String, Object> headers(Long supersedingTaskId) {
+        Map<String, Object> headers = new HashMap<>();
+        if (supersedingTaskId != null) {
+            headers.put(TASK_ID_HEADER, supersedingTaskId.toString());
+        }
+        TraceContext context = tracer.currentTraceContext().context();
+        if (context != null) {
+            propagator.inject(context, headers, Map::put);
+        }
+        return headers;
     }
 
-    public record TaskEvent(String eventType, Object payload) {}
+    /**
+     * @param sequence increasing number of the event, see {@link TaskEventLog}
+     */
+    public record TaskEvent(long sequence, String eventType, Object payload) {}
 }
 
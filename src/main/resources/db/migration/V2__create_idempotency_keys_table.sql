@@ -0,0 +1,9 @@
+CREATE TABLE idempotency_keys (
+    storage_key VARCHAR(64) PRIMARY KEY,
+    request_fingerprint VARCHAR(64) NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,17 @@
+ALTER TABLE tasks ADD COLUMN rank VARCHAR(255) COLLATE "C";
+
+-- Existing tasks keep their creation order inside each column. Fixed-width hex digits
+-- sort like base-36 ranks and the 'i' suffix avoids a trailing zero digit.
+UPDATE tasks t
+SET rank = lpad(to_hex(ordered.position), 12, '0') || 'i'
+FROM (
+    SELECT id, row_number() OVER (PARTITION BY status ORDER BY created_at, id) AS position
+    FROM tasks
+) ordered
+WHERE t.id = ordered.id;
+
+ALTER TABLE tasks ALTER COLUMN rank SET NOT NULL;
+
+-- Column rendering is a single range scan; the leading status column replaces idx_tasks_status
+CREATE INDEX idx_tasks_status_rank ON tasks(status, rank);
+DROP INDEX idx_tasks_status;
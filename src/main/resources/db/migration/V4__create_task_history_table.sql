@@ -0,0 +1,34 @@
+-- Matches the allocationSize of TaskHistory so ids are handed out without a round trip per insert
+CREATE SEQUENCE task_history_id_seq INCREMENT BY 50;
+
+-- Append-only audit log. There is deliberately no foreign key to tasks: history outlives deleted
+-- tasks and old partitions can be detached without taking locks on tasks.
+CREATE TABLE task_history (
+    id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    changed_by VARCHAR(255) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    from_status VARCHAR(20),
+    to_status VARCHAR(20),
+    title VARCHAR(255),
+    priority VARCHAR(10),
+    rank VARCHAR(255) COLLATE "C",
+    PRIMARY KEY (id, changed_at)
+) PARTITION BY RANGE (changed_at);
+
+CREATE INDEX idx_task_history_task_changed_at ON task_history(task_id, changed_at DESC, id DESC);
+
+-- Monthly partitions for the current and next three months; later ones are created by
+-- TaskHistoryPartitionMaintainer
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', now());
+BEGIN
+    FOR i IN 0..3 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF task_history FOR VALUES FROM (%L) TO (%L)',
+                       'task_history_' || to_char(month_start + make_interval(months => i), 'YYYY_MM'),
+                       month_start + make_interval(months => i),
+                       month_start + make_interval(months => i + 1));
+    END LOOP;
+END $$;
@@ -0,0 +1,11 @@
+ALTER TABLE tasks ADD COLUMN deleted_at TIMESTAMP;
+
+-- Listing indexes only cover live rows, so tombstones neither bloat them nor slow down scans
+DROP INDEX idx_tasks_status_rank;
+CREATE INDEX idx_tasks_status_rank ON tasks(status, rank) WHERE deleted_at IS NULL;
+
+DROP INDEX idx_tasks_created_at;
+CREATE INDEX idx_tasks_created_at ON tasks(created_at) WHERE deleted_at IS NULL;
+
+-- Lets the purge job find expired tombstones without scanning live rows
+CREATE INDEX idx_tasks_deleted_at ON tasks(deleted_at) WHERE deleted_at IS NOT NULL;
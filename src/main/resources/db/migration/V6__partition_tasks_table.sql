@@ -0,0 +1,62 @@
+-- Turns tasks into a table partitioned by LIST (status). Queries filtering on status (column
+-- rendering, findByStatus) are pruned to one partition, and DONE tasks, which are rarely read,
+-- no longer share indexes with the active columns. DONE is further partitioned by year of
+-- created_at so that old years can be archived to cold storage (see TaskPartitionMaintainer).
+--
+-- The primary key has to include the partition keys of both levels, so it becomes
+-- (id, status, created_at). Ids stay unique because they all come from tasks_id_seq. A status change is an UPDATE that PostgreSQL turns into
+-- a move between partitions; the optimistic @Version check is unaffected. Lookups by id alone
+-- probe the primary key index of each partition, whose leading column is id.
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+ALTER TABLE tasks_unpartitioned RENAME CONSTRAINT tasks_pkey TO tasks_unpartitioned_pkey;
+DROP INDEX idx_tasks_status_rank;
+DROP INDEX idx_tasks_created_at;
+DROP INDEX idx_tasks_deleted_at;
+
+CREATE TABLE tasks (
+    id BIGINT NOT NULL DEFAULT nextval('tasks_id_seq'),
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    status VARCHAR(20) NOT NULL DEFAULT 'TO_DO',
+    priority VARCHAR(10) NOT NULL DEFAULT 'MED',
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    rank VARCHAR(255) COLLATE "C" NOT NULL,
+    deleted_at TIMESTAMP,
+    PRIMARY KEY (id, status, created_at)
+) PARTITION BY LIST (status);
+
+CREATE TABLE tasks_to_do PARTITION OF tasks FOR VALUES IN ('TO_DO');
+CREATE TABLE tasks_in_progress PARTITION OF tasks FOR VALUES IN ('IN_PROGRESS');
+CREATE TABLE tasks_done PARTITION OF tasks FOR VALUES IN ('DONE') PARTITION BY RANGE (created_at);
+
+-- One partition per year from the oldest DONE task up to next year
+DO $$
+DECLARE
+    first_year INT := COALESCE(
+        (SELECT EXTRACT(YEAR FROM MIN(created_at))::INT FROM tasks_unpartitioned WHERE status = 'DONE'),
+        EXTRACT(YEAR FROM now())::INT);
+    last_year INT := EXTRACT(YEAR FROM now())::INT + 1;
+BEGIN
+    FOR year IN first_year..last_year LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF tasks_done FOR VALUES FROM (%L) TO (%L)',
+                       'tasks_done_' || year,
+                       make_date(year, 1, 1),
+                       make_date(year + 1, 1, 1));
+    END LOOP;
+END $$;
+
+INSERT INTO tasks (id, title, description, status, priority, version, created_at, updated_at, rank, deleted_at)
+SELECT id, title, description, status, priority, version, created_at, updated_at, rank, deleted_at
+FROM tasks_unpartitioned;
+
+-- The sequence belongs to the old id column and would be dropped with it
+ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id;
+DROP TABLE tasks_unpartitioned;
+
+-- Created on the parent so every partition, including future ones, gets them
+CREATE INDEX idx_tasks_status_rank ON tasks(status, rank) WHERE deleted_at IS NULL;
+CREATE INDEX idx_tasks_created_at ON tasks(created_at) WHERE deleted_at IS NULL;
+CREATE INDEX idx_tasks_deleted_at ON tasks(deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Existing data belongs to the default tenant. Adding a NOT NULL column with a constant default
+-- only touches the catalog; the default is dropped afterwards so the application must set it.
+ALTER TABLE tasks ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE tasks ALTER COLUMN tenant_id DROP DEFAULT;
+
+ALTER TABLE task_history ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE task_history ALTER COLUMN tenant_id DROP DEFAULT;
+
+-- Every query now filters on tenant_id, so it leads each index and a tenant's listings only read
+-- that tenant's entries
+DROP INDEX idx_tasks_status_rank;
+CREATE INDEX idx_tasks_tenant_status_rank ON tasks(tenant_id, status, rank) WHERE deleted_at IS NULL;
+
+DROP INDEX idx_tasks_created_at;
+CREATE INDEX idx_tasks_tenant_created_at ON tasks(tenant_id, created_at) WHERE deleted_at IS NULL;
+
+DROP INDEX idx_task_history_task_changed_at;
+CREATE INDEX idx_task_history_tenant_task_changed_at ON task_history(tenant_id, task_id, changed_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- Catches history rows that no monthly partition covers (maintenance job disabled or behind, clock
+-- skew), so the change they record is not rolled back. TaskHistoryPartitionMaintainer moves them
+-- into their monthly partition when it creates it.
+CREATE TABLE task_history_default PARTITION OF task_history DEFAULT;
@@ -0,0 +1,6 @@
+-- Catch-all partitions so inserts outside the pre-created ranges still succeed: tasks_default takes
+-- statuses without a partition of their own, tasks_done_default DONE tasks created in a year that
+-- has no partition yet. TaskPartitionMaintainer moves the latter into their yearly partition when it
+-- creates it.
+CREATE TABLE tasks_default PARTITION OF tasks DEFAULT;
+CREATE TABLE tasks_done_default PARTITION OF tasks_done DEFAULT;
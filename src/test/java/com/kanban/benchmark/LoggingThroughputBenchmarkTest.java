@@ -0,0 +1,171 @@
+package com.kanban.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.kanban.service.LogSampler;
+import com.kanban.service.LogSamplingProperties;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares request throughput of the logging done while creating a task under the development
+ * configuration (synchronous pattern output, Spring Security and Spring MVC at DEBUG) with the
+ * {@code prod} profile (asynchronous JSON, INFO) with and without per-event sampling.
+ * Log lines are written to files so that I/O is part of the cost. Events the async appender
+ * discarded under backlog are reported separately. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class LoggingThroughputBenchmarkTest {
+
+    private static final int THREADS = 4;
+    private static final int WARMUP_REQUESTS_PER_THREAD = 20_000;
+    private static final int MEASURED_REQUESTS_PER_THREAD = 50_000;
+    private static final String CONSOLE_PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @TempDir
+    Path logDirectory;
+
+    @Test
+    void compareLoggingConfigurations() throws Exception {
+        System.out.printf("%-28s %14s %12s %12s%n", "configuration", "requests/s", "lines", "dropped");
+        long devEvents = report("dev: sync pattern, DEBUG", Level.DEBUG, false, Map.of());
+        long prodEvents = report("prod: async json", Level.INFO, true, Map.of());
+        long sampledEvents = report("prod: async json, sampled", Level.INFO, true, Map.of(
+                LogSampler.TASK_CREATED, 0.1,
+                LogSampler.WEBSOCKET_NOTIFICATION, 0.01));
+
+        assertTrue(prodEvents < devEvents);
+        assertTrue(sampledEvents < prodEvents);
+    }
+
+    private long report(String name, Level level, boolean asyncJson, Map<String, Double> rates) throws Exception {
+        Path file = logDirectory.resolve(name.replaceAll("[^a-z]+", "-") + ".log");
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(MDC.getMDCAdapter());
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(level);
+        root.addAppender(asyncJson ? asyncJsonAppender(context, file) : patternAppender(context, file));
+
+        LogSamplingProperties properties = new LogSamplingProperties();
+        properties.getRates().putAll(rates);
+        LogSampler sampler = new LogSampler(properties);
+
+        long emitted = run(context, sampler, WARMUP_REQUESTS_PER_THREAD);
+        long start = System.nanoTime();
+        emitted += run(context, sampler, MEASURED_REQUESTS_PER_THREAD);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Stopping waits for the async appender to drain its queue
+        context.stop();
+        long lines;
+        try (Stream<String> stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        // The async appender discards INFO and below once its queue is 80% full
+        System.out.printf("%-28s %14.0f %12d %12d%n",
+                name, THREADS * MEASURED_REQUESTS_PER_THREAD / seconds, lines, emitted - lines);
+        return emitted;
+    }
+
+    /**
+     * Simulates the log calls of {@code POST /api/tasks} and returns the number of events that passed
+     * the level and sampling checks.
+     */
+    private static long run(LoggerContext context, LogSampler sampler, int requestsPerThread) throws Exception {
+        Logger security = context.getLogger("org.springframework.security.web.FilterChainProxy");
+        Logger web = context.getLogger("org.springframework.web.servlet.DispatcherServlet");
+        Logger service = context.getLogger("com.kanban.service.TaskService");
+        Logger notifications = context.getLogger("com.kanban.service.WebSocketNotificationService");
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                long emitted = 0;
+                for (long id = 0; id < requestsPerThread; id++) {
+                    MDC.put("requestId", UUID.randomUUID().toString());
+                    security.debug("Securing POST /api/tasks");
+                    security.debug("Set SecurityContextHolder to {}", "UsernamePasswordAuthenticationToken [Principal=user]");
+                    web.debug("POST \"/api/tasks\", parameters={}", "{}");
+                    web.debug("Completed 201 CREATED");
+                    if (web.isDebugEnabled()) {
+                        emitted += 4;
+                    }
+                    if (sampler.shouldLog(LogSampler.TASK_CREATED)) {
+                        service.info("Created task with id: {}", id);
+                        emitted++;
+                    }
+                    if (sampler.shouldLog(LogSampler.WEBSOCKET_NOTIFICATION)) {
+                        notifications.info("Sent WebSocket notification for task creation: {}", id);
+                        emitted++;
+                    }
+                    MDC.remove("requestId");
+                }
+                return emitted;
+            }));
+        }
+        ready.countDown();
+        long emitted = 0;
+        for (Future<Long> future : futures) {
+            emitted += future.get();
+        }
+        executor.shutdown();
+        return emitted;
+    }
+
+    private static Appender<ILoggingEvent> patternAppender(LoggerContext context, Path file) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setPattern(CONSOLE_PATTERN);
+        return fileAppender(context, file, encoder);
+    }
+
+    private static Appender<ILoggingEvent> asyncJsonAppender(LoggerContext context, Path file) {
+        LogstashEncoder encoder = new LogstashEncoder();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.setMaxFlushTime(0);
+        async.addAppender(fileAppender(context, file, encoder));
+        async.start();
+        return async;
+    }
+
+    private static Appender<ILoggingEvent> fileAppender(LoggerContext context, Path file, Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(context);
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(file.toString());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+}
@@ -0,0 +1,97 @@
+package com.kanban.benchmark;
+
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.TaskChangedEvent;
+import com.kanban.service.TaskFacetIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fills the facet index with two million tasks spread over five years and times searches combining
+ * statuses, priorities and a creation range, including the facet counts of every response.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TaskFacetIndexBenchmarkTest {
+
+    private static final int TASKS = 2_000_000;
+    private static final int BATCH = 1_000;
+    private static final int SEARCHES = 200;
+
+    @Test
+    void measureSearchLatency() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskFacetIndex index = new TaskFacetIndex(mock(JdbcTemplate.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, true, 10_000);
+        index.loadOnStartup();
+
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Task> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= TASKS; id++) {
+            batch.add(Task.builder()
+                    .id(id)
+                    .title("Task number " + id)
+                    .status(TaskStatus.values()[(int) (id % TaskStatus.values().length)])
+                    .priority(TaskPriority.values()[(int) (id / 7 % TaskPriority.values().length)])
+                    .rank(Long.toString(id, 36) + "i")
+                    .version(0L)
+                    .createdAt(start.plusSeconds(id * 79))
+                    .updatedAt(start.plusSeconds(id * 79))
+                    .build());
+            if (batch.size() == BATCH) {
+                index.onTaskChanged(TaskChangedEvent.changed(batch));
+                batch.clear();
+            }
+        }
+
+        PageRequest newest = PageRequest.of(0, 50, Sort.by("id").descending());
+        reportSearchLatency(index, "no criteria", new TaskFilterDto(), newest);
+        reportSearchLatency(index, "one status", TaskFilterDto.builder()
+                .statuses(Set.of(TaskStatus.IN_PROGRESS))
+                .build(), newest);
+        reportSearchLatency(index, "statuses and priority", TaskFilterDto.builder()
+                .statuses(Set.of(TaskStatus.TO_DO, TaskStatus.IN_PROGRESS))
+                .priorities(Set.of(TaskPriority.HIGH))
+                .build(), newest);
+        reportSearchLatency(index, "priority and one month", TaskFilterDto.builder()
+                .priorities(Set.of(TaskPriority.HIGH))
+                .createdFrom(LocalDateTime.of(2022, 3, 1, 12, 0))
+                .createdTo(LocalDateTime.of(2022, 4, 1, 12, 0))
+                .build(), newest);
+        reportSearchLatency(index, "deep page", TaskFilterDto.builder()
+                .statuses(Set.of(TaskStatus.DONE))
+                .build(), PageRequest.of(10_000, 50, Sort.by("id").descending()));
+
+        assertEquals(TASKS, (long) meterRegistry.get("facet_index.tasks").gauge().value());
+    }
+
+    private static void reportSearchLatency(TaskFacetIndex index, String name, TaskFilterDto filter, PageRequest pageable) {
+        for (int i = 0; i < SEARCHES; i++) {
+            index.search(filter, pageable);
+        }
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            total = index.search(filter, pageable).orElseThrow().total();
+        }
+        System.out.printf("%-24s %8.1f µs/query (%,d matches)%n",
+                name, (System.nanoTime() - start) / 1e3 / SEARCHES, total);
+    }
+}
@@ -0,0 +1,177 @@
+package com.kanban.benchmark;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.JpaTaskStore;
+import com.kanban.service.LexoRank;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the rows per second of the bulk import ({@code COPY} into a staging table, then
+ * {@code INSERT ... SELECT}) with inserting the same tasks one statement per row, as JPA does
+ * for entities with identity ids, and with JDBC batches of 50 rows. Tasks are generated while
+ * they are written, so none of the paths holds the import in memory.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+class TaskImportBenchmarkTest {
+
+    private static final int COPY_ROWS = 500_000;
+    private static final int BATCH_ROWS = 100_000;
+    private static final int SINGLE_ROWS = 20_000;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_TASK = "INSERT INTO tasks "
+            + "(tenant_id, title, description, status, priority, rank, version, created_at, updated_at) "
+            + "VALUES ('default', ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("kanban_benchmark_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @BeforeAll
+    static void setUp() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void compareImportPaths() throws SQLException {
+        // Warm up every path before measuring
+        importWithCopy(10_000);
+        insertRows(2_000, 1);
+        insertRows(10_000, BATCH_SIZE);
+
+        double copy = report("COPY + INSERT ... SELECT", COPY_ROWS, () -> importWithCopy(COPY_ROWS));
+        report("JDBC batches of " + BATCH_SIZE, BATCH_ROWS, () -> insertRows(BATCH_ROWS, BATCH_SIZE));
+        report("one INSERT per row", SINGLE_ROWS, () -> insertRows(SINGLE_ROWS, 1));
+
+        assertEquals(COPY_ROWS + BATCH_ROWS + SINGLE_ROWS + 22_000, countTasks());
+        System.out.printf("COPY imports %.0f rows/s%n", copy);
+    }
+
+    private static long importWithCopy(int rows) throws SQLException {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            JpaTaskStore store = new JpaTaskStore(null, new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+            long imported = store.importTasks(tasks(rows));
+            connection.commit();
+            return imported;
+        }
+    }
+
+    private static long insertRows(int rows, int batchSize) throws SQLException {
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TASK)) {
+                Iterator<Task> tasks = tasks(rows);
+                int pending = 0;
+                while (tasks.hasNext()) {
+                    Task task = tasks.next();
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    statement.setString(1, task.getTitle());
+                    statement.setString(2, task.getDescription());
+                    statement.setString(3, task.getStatus().name());
+                    statement.setString(4, task.getPriority().name());
+                    statement.setString(5, task.getRank());
+                    statement.setTimestamp(6, now);
+                    statement.setTimestamp(7, now);
+                    if (batchSize == 1) {
+                        statement.executeUpdate();
+                    } else {
+                        statement.addBatch();
+                        if (++pending == batchSize) {
+                            statement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            connection.commit();
+            return rows;
+        }
+    }
+
+    private static double report(String name, int rows, ImportRun run) throws SQLException {
+        long start = System.nanoTime();
+        run.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double rowsPerSecond = rows / seconds;
+        System.out.printf("%-28s %10d rows %10.0f rows/s%n", name, rows, rowsPerSecond);
+        return rowsPerSecond;
+    }
+
+    /**
+     * Generates tasks on demand, spread over the columns like a typical board.
+     */
+    private static Iterator<Task> tasks(int count) {
+        return new Iterator<>() {
+            private final String[] lastRanks = new String[TaskStatus.values().length];
+            private int created;
+
+            @Override
+            public boolean hasNext() {
+                return created < count;
+            }
+
+            @Override
+            public Task next() {
+                created++;
+                TaskStatus status = TaskStatus.values()[created % 3];
+                lastRanks[status.ordinal()] = LexoRank.after(lastRanks[status.ordinal()]);
+                return Task.builder()
+                        .title("Imported task " + created)
+                        .description(created % 4 == 0 ? null : "Row " + created + " with \"quotes\", commas\nand newlines")
+                        .status(status)
+                        .priority(TaskPriority.values()[created % TaskPriority.values().length])
+                        .rank(lastRanks[status.ordinal()])
+                        .build();
+            }
+        };
+    }
+
+    private static long countTasks() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT count(*) FROM tasks")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    @FunctionalInterface
+    private interface ImportRun {
+        long run() throws SQLException;
+    }
+}
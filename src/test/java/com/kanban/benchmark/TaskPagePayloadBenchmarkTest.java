@@ -0,0 +1,114 @@
+package com.kanban.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.graphql.TaskPage;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares payload size and encode/decode CPU of a 100-task page across the
+ * content types served by the task endpoints. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TaskPagePayloadBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    private static TaskPage page;
+
+    @BeforeAll
+    static void setUp() {
+        Random random = new Random(42);
+        List<TaskResponseDto> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            StringBuilder description = new StringBuilder();
+            while (description.length() < 200 + random.nextInt(800)) {
+                description.append("Lorem ipsum dolor sit amet consectetur ").append(random.nextInt(1000)).append(' ');
+            }
+            tasks.add(TaskResponseDto.builder()
+                    .id((long) i + 1)
+                    .title("Task " + (i + 1) + " for the quarterly release")
+                    .description(description.substring(0, Math.min(description.length(), 1000)))
+                    .status(TaskStatus.values()[i % 3])
+                    .priority(TaskPriority.values()[i % 3])
+                    .rank("i000" + Integer.toString(i + 1, 36))
+                    .version((long) random.nextInt(10))
+                    .createdAt(LocalDateTime.now().minusDays(i))
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        page = TaskPage.from(new PageImpl<>(tasks, PageRequest.of(0, 100), 5_000));
+    }
+
+    @Test
+    void compareContentTypes() throws IOException {
+        ObjectMapper json = mapper(new ObjectMapper());
+        ObjectMapper cbor = mapper(new ObjectMapper(new CBORFactory()));
+        ObjectMapper smile = mapper(new ObjectMapper(new SmileFactory()));
+
+        byte[] jsonBytes = json.writeValueAsBytes(page);
+        byte[] cborBytes = cbor.writeValueAsBytes(page);
+        byte[] smileBytes = smile.writeValueAsBytes(page);
+
+        System.out.printf("%-12s %10s %14s %14s%n", "format", "bytes", "encode us/op", "decode us/op");
+        report("json", json, jsonBytes);
+        System.out.printf("%-12s %10d%n", "json+gzip", gzip(jsonBytes).length);
+        report("cbor", cbor, cborBytes);
+        System.out.printf("%-12s %10d%n", "cbor+gzip", gzip(cborBytes).length);
+        report("smile", smile, smileBytes);
+
+        assertTrue(cborBytes.length < jsonBytes.length);
+        assertTrue(smileBytes.length < jsonBytes.length);
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static void report(String format, ObjectMapper mapper, byte[] bytes) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(page), TaskPage.class);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(page);
+        }
+        double encodeMicros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.readValue(bytes, TaskPage.class);
+        }
+        double decodeMicros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+        System.out.printf("%-12s %10d %14.1f %14.1f%n", format, bytes.length, encodeMicros, decodeMicros);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+package com.kanban.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Year;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the latency of the board queries against the partitioned {@code tasks} table with
+ * partition pruning enabled and disabled. Runs the Flyway migrations against a PostgreSQL
+ * container and seeds it with mostly {@code DONE} tasks, like a long-lived board.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers
+class TaskPartitionPruningBenchmarkTest {
+
+    private static final int ACTIVE_TASKS = 20_000;
+    private static final int DONE_TASKS = 500_000;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private static final String COLUMN_QUERY = "SELECT id FROM tasks "
+            + "WHERE status = ? AND deleted_at IS NULL ORDER BY rank LIMIT 20";
+    private static final String RECENT_DONE_QUERY = "SELECT id FROM tasks "
+            + "WHERE status = 'DONE' AND created_at >= now() - interval '30 days' AND deleted_at IS NULL "
+            + "ORDER BY created_at DESC LIMIT 20";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("kanban_benchmark_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            int currentYear = Year.now().getValue();
+            for (int year = currentYear - 3; year < currentYear; year++) {
+                statement.execute("CREATE TABLE IF NOT EXISTS tasks_done_" + year + " PARTITION OF tasks_done "
+                        + "FOR VALUES FROM ('" + year + "-01-01') TO ('" + (year + 1) + "-01-01')");
+            }
+            statement.execute("INSERT INTO tasks (title, status, priority, created_at, updated_at, rank) "
+                    + "SELECT 'Task ' || i, CASE WHEN i % 2 = 0 THEN 'TO_DO' ELSE 'IN_PROGRESS' END, 'MED', "
+                    + "now() - (i % 90) * interval '1 day', now(), lpad(to_hex(i), 12, '0') || 'i' "
+                    + "FROM generate_series(1, " + ACTIVE_TASKS + ") AS i");
+            statement.execute("INSERT INTO tasks (title, status, priority, created_at, updated_at, rank) "
+                    + "SELECT 'Done ' || i, 'DONE', 'LOW', "
+                    + "greatest(date_trunc('year', now()) - interval '3 years', now() - (i % 1000) * interval '1 day'), "
+                    + "now(), lpad(to_hex(i), 12, '0') || 'i' "
+                    + "FROM generate_series(1, " + DONE_TASKS + ") AS i");
+            statement.execute("ANALYZE tasks");
+        }
+    }
+
+    @Test
+    void comparePruning() throws SQLException {
+        System.out.printf("%-24s %16s %16s%n", "query", "pruned us/op", "unpruned us/op");
+        double prunedColumn = report("column (TO_DO by rank)", COLUMN_QUERY);
+        report("recent DONE", RECENT_DONE_QUERY);
+
+        assertTrue(prunedColumn > 0);
+    }
+
+    private static double report(String name, String sql) throws SQLException {
+        double pruned = measure(sql, true);
+        double unpruned = measure(sql, false);
+        System.out.printf("%-24s %16.1f %16.1f%n", name, pruned, unpruned);
+        return pruned;
+    }
+
+    /**
+     * Returns the median latency in microseconds of running {@code sql} on one connection.
+     */
+    private static double measure(String sql, boolean pruning) throws SQLException {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_partition_pruning = " + (pruning ? "on" : "off"));
+            }
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                if (sql.contains("?")) {
+                    query.setString(1, "TO_DO");
+                }
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    drain(query);
+                }
+                long[] samples = new long[MEASURED_ITERATIONS];
+                for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    drain(query);
+                    samples[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(samples);
+                return samples[MEASURED_ITERATIONS / 2] / 1_000.0;
+            }
+        }
+    }
+
+    private static void drain(PreparedStatement query) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,108 @@
+package com.kanban.benchmark;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.entity.Task;
+import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.TaskChangedEvent;
+import com.kanban.service.TaskReadModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fills the read model with one million tasks and compares the measured heap growth with the
+ * {@code read_model.memory.estimated} gauge, then times board pages from the head, the middle and the tail
+ * of a column. Scale the results linearly to size the heap for larger boards.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TaskReadModelBenchmarkTest {
+
+    private static final int TASKS = 1_000_000;
+    private static final int BATCH = 1_000;
+    private static final int PAGE_QUERIES = 200;
+
+    @Test
+    void measureFootprintAndPageLatency() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskReadModel model = new TaskReadModel(Mappers.getMapper(TaskMapper.class), mock(JdbcTemplate.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, true, 10_000);
+        model.loadOnStartup();
+
+        long heapBefore = usedHeap();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Task> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= TASKS; id++) {
+            batch.add(Task.builder()
+                    .id(id)
+                    .title("Task number " + id)
+                    .description(id % 4 == 0 ? "Description of task " + id : null)
+                    .status(TaskStatus.values()[(int) (id % TaskStatus.values().length)])
+                    .priority(TaskPriority.values()[(int) (id % TaskPriority.values().length)])
+                    .rank(Long.toString(id, 36) + "i")
+                    .version(0L)
+                    .createdAt(start.plusSeconds(id))
+                    .updatedAt(start.plusSeconds(id))
+                    .build());
+            if (batch.size() == BATCH) {
+                model.onTaskChanged(TaskChangedEvent.changed(batch));
+                batch.clear();
+            }
+        }
+        long measured = usedHeap() - heapBefore;
+        double estimated = meterRegistry.get("read_model.memory.estimated").gauge().value();
+
+        System.out.printf("%,d tasks: measured %,d bytes (%d per task), estimated %,.0f bytes (%.0f per task)%n",
+                TASKS, measured, measured / TASKS, estimated, estimated / TASKS);
+
+        PageRequest head = PageRequest.of(0, 50, Sort.by("createdAt").descending());
+        PageRequest middle = PageRequest.of(3_333, 50, Sort.by("createdAt").descending());
+        PageRequest last = PageRequest.of(6_666, 50, Sort.by("createdAt").descending());
+        reportPageLatency(model, "first page of a column", TaskStatus.TO_DO, head);
+        reportPageLatency(model, "middle of a column", TaskStatus.TO_DO, middle);
+        reportPageLatency(model, "last page of a column", TaskStatus.TO_DO, last);
+        reportPageLatency(model, "first page of the board", null, head);
+
+        assertEquals(TASKS, (long) meterRegistry.get("read_model.tasks").gauge().value());
+        assertTrue(estimated > 0);
+    }
+
+    private static void reportPageLatency(TaskReadModel model, String name, TaskStatus status, PageRequest pageable) {
+        for (int i = 0; i < PAGE_QUERIES; i++) {
+            model.findAll(status, pageable);
+        }
+        long start = System.nanoTime();
+        long returned = 0;
+        for (int i = 0; i < PAGE_QUERIES; i++) {
+            Page<TaskResponseDto> page = model.findAll(status, pageable).orElseThrow();
+            returned += page.getNumberOfElements();
+        }
+        System.out.printf("%-24s %8.1f µs/query (%d tasks returned)%n",
+                name, (System.nanoTime() - start) / 1e3 / PAGE_QUERIES, returned);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package com.kanban.benchmark;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.TaskChangedEvent;
+import com.kanban.service.TaskTitleIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fills the title index with one million tasks, compares the measured heap growth with the
+ * {@code title_index.memory.estimated} gauge, then times suggestions for short and long, common
+ * and rare prefixes as a type-ahead box sends them.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class TaskTitleIndexBenchmarkTest {
+
+    private static final int TASKS = 1_000_000;
+    private static final int BATCH = 1_000;
+    private static final int SUGGESTIONS = 1_000;
+
+    private static final String[] VERBS = {"Fix", "Add", "Update", "Remove", "Refactor", "Document", "Test", "Review"};
+    private static final String[] SUBJECTS = {"login page", "billing export", "search results", "release notes",
+            "dashboard charts", "email templates", "audit log", "user settings", "API rate limits", "onboarding flow"};
+
+    @Test
+    void measureFootprintAndSuggestionLatency() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskTitleIndex index = new TaskTitleIndex(mock(JdbcTemplate.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, true, 10_000,
+                DataSize.ofGigabytes(4));
+        index.loadOnStartup();
+
+        long heapBefore = usedHeap();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Task> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= TASKS; id++) {
+            batch.add(Task.builder()
+                    .id(id)
+                    .title(VERBS[(int) (id % VERBS.length)] + " " + SUBJECTS[(int) (id / 8 % SUBJECTS.length)]
+                            + " for customer " + Long.toString(id * 7919 % 1_000_003, 36))
+                    .status(TaskStatus.values()[(int) (id % TaskStatus.values().length)])
+                    .priority(TaskPriority.values()[(int) (id / 5 % TaskPriority.values().length)])
+                    .rank(Long.toString(id, 36) + "i")
+                    .version(0L)
+                    .createdAt(start.plusSeconds(id))
+                    .updatedAt(start.plusSeconds(id))
+                    .build());
+            if (batch.size() == BATCH) {
+                index.onTaskChanged(TaskChangedEvent.changed(batch));
+                batch.clear();
+            }
+        }
+        long measured = usedHeap() - heapBefore;
+        double estimated = meterRegistry.get("title_index.memory.estimated").gauge().value();
+
+        System.out.printf("%,d tasks: measured %,d bytes (%d per task), estimated %,.0f bytes (%.0f per task)%n",
+                TASKS, measured, measured / TASKS, estimated, estimated / TASKS);
+
+        reportSuggestionLatency(index, "one letter", "f");
+        reportSuggestionLatency(index, "common word", "refac");
+        reportSuggestionLatency(index, "two words", "fix logi");
+        reportSuggestionLatency(index, "rare word", "zz");
+        reportSuggestionLatency(index, "common and rare", "billing zz");
+        reportSuggestionLatency(index, "no match", "qqqq");
+
+        assertEquals(TASKS, (long) meterRegistry.get("title_index.tasks").gauge().value());
+        assertTrue(estimated > 0);
+    }
+
+    private static void reportSuggestionLatency(TaskTitleIndex index, String name, String prefix) {
+        for (int i = 0; i < SUGGESTIONS; i++) {
+            index.suggest(prefix, 10);
+        }
+        long start = System.nanoTime();
+        int returned = 0;
+        for (int i = 0; i < SUGGESTIONS; i++) {
+            returned = index.suggest(prefix, 10).orElseThrow().size();
+        }
+        System.out.printf("%-18s %8.1f µs/query (%d suggestions)%n",
+                name, (System.nanoTime() - start) / 1e3 / SUGGESTIONS, returned);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,51 @@
+package com.kanban.config;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.graphql.TaskInput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeImageConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeImageConfig.KanbanRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_IncludesSchemaAndMigrationResources() {
+        // Then
+        assertTrue(RuntimeHintsPredicates.resource().forResource("graphql/schema.graphqls").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_tasks_table.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    void registerHints_IncludesClassesLoadedByName() {
+        // Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.kanban.mapper.TaskMapperImpl"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.jackson.io.JacksonSerializer")).test(hints));
+    }
+
+    @Test
+    void registerHints_IncludesJacksonBindingForDtos() {
+        // Then
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TaskResponseDto.class, "getTitle").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(TaskInput.class, "title").test(hints));
+    }
+}
@@ -0,0 +1,123 @@
+package com.kanban.config;
+
+import com.kanban.security.JwtTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSubscriptionInterceptorTest {
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @InjectMocks
+    private TenantSubscriptionInterceptor interceptor;
+
+    @Test
+    void preSend_SubscribeToOwnTenantTopic_IsAllowed() {
+        // Given
+        Map<String, Object> session = connect("Bearer acme-token", "acme");
+
+        // When & Then
+        assertNotNull(interceptor.preSend(subscribe(session, "/topic/tenants/acme/tasks"), null));
+    }
+
+    @Test
+    void preSend_SubscribeToOtherTenantTopic_IsRejected() {
+        // Given
+        Map<String, Object> session = connect("Bearer acme-token", "acme");
+
+        // When & Then
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tenants/globex/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tasks"), null));
+    }
+
+    @Test
+    void preSend_SubscribeWithWildcard_IsRejected() {
+        // Given
+        Map<String, Object> session = connect("Bearer acme-token", "acme");
+
+        // When & Then
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tenants/*/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/**"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tenants/{tenant}/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tenants/acm?/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/other"), null));
+    }
+
+    @Test
+    void preSend_AnonymousConnection_OnlySeesDefaultTopic() {
+        // Given
+        Map<String, Object> session = new HashMap<>();
+        interceptor.preSend(message(StompCommand.CONNECT, session, null, null), null);
+
+        // When & Then
+        assertNotNull(interceptor.preSend(subscribe(session, "/topic/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(session, "/topic/tenants/acme/tasks"), null));
+    }
+
+    @Test
+    void preSend_SendToTopic_IsRejected() {
+        // Given
+        Map<String, Object> session = connect("Bearer acme-token", "acme");
+        Map<String, Object> anonymous = new HashMap<>();
+        interceptor.preSend(message(StompCommand.CONNECT, anonymous, null, null), null);
+
+        // When & Then
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(StompCommand.SEND, session, null, "/topic/tenants/acme/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(StompCommand.SEND, anonymous, null, "/topic/tenants/acme/tasks"), null));
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(message(StompCommand.SEND, anonymous, null, "/topic/tasks"), null));
+        assertNotNull(interceptor.preSend(message(StompCommand.SEND, session, null, "/app/ping"), null));
+    }
+
+    private Map<String, Object> connect(String authorization, String tenantId) {
+        when(tokenProvider.validateToken("acme-token")).thenReturn(true);
+        when(tokenProvider.getTenantFromToken("acme-token")).thenReturn(tenantId);
+        Map<String, Object> session = new HashMap<>();
+        interceptor.preSend(message(StompCommand.CONNECT, session, authorization, null), null);
+        return session;
+    }
+
+    private Message<byte[]> subscribe(Map<String, Object> session, String destination) {
+        return message(StompCommand.SUBSCRIBE, session, null, destination);
+    }
+
+    private Message<byte[]> message(StompCommand command, Map<String, Object> session,
+                                    String authorization, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionAttributes(session);
+        if (authorization != null) {
+            accessor.setNativeHeader("Authorization", authorization);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,156 @@
+package com.kanban.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WebSocketSendQueuesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch unstall = new CountDownLatch(1);
+    private WebSocketSendQueues sendQueues;
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        sendQueues.close();
+    }
+
+    @Test
+    void sendMessage_MoreClientsStalledThanSenderThreads_OtherClientsStillReceivePromptly() throws Exception {
+        // Given
+        sendQueues = new WebSocketSendQueues(meterRegistry, Duration.ofSeconds(10), DataSize.ofKilobytes(32), true, 8);
+        List<WebSocketSession> stalledClients = new ArrayList<>();
+        List<WebSocketSession> stalled = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            WebSocketSession client = stalledSession();
+            stalledClients.add(client);
+            stalled.add(connect(client));
+        }
+        List<WebSocketMessage<?>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch allReceived = new CountDownLatch(100);
+        WebSocketSession healthyClient = session(message -> {
+            received.add(message);
+            allReceived.countDown();
+        });
+        WebSocketSession healthy = connect(healthyClient);
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            for (WebSocketSession session : stalled) {
+                session.sendMessage(frame("CREATED", null, i));
+            }
+            if (i % 2 == 0) {
+                healthy.sendMessage(frame("CREATED", null, i));
+            }
+        }
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(allReceived.await(2, TimeUnit.SECONDS), "healthy client waited behind the stalled ones");
+        assertTrue(publishMillis < 1000, "publishing blocked for " + publishMillis + " ms");
+        assertEquals(frame("CREATED", null, 198), received.get(99));
+        for (WebSocketSession client : stalledClients) {
+            verify(client, timeout(1000)).close(WebSocketSendQueues.TOO_SLOW);
+        }
+        assertEquals(10.0, meterRegistry.get("websocket.send.slow_sessions_closed").tag("limit", "buffer-size").counter().count());
+    }
+
+    @Test
+    void sendMessage_UpdatesQueuedForStalledClient_AreConflatedPerTask() throws Exception {
+        // Given
+        sendQueues = new WebSocketSendQueues(meterRegistry, Duration.ofSeconds(10), DataSize.ofKilobytes(64), true, 2);
+        List<WebSocketMessage<?>> received = new CopyOnWriteArrayList<>();
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        WebSocketSession client = session(message -> {
+            firstWriteStarted.countDown();
+            unstall.await();
+            received.add(message);
+        });
+        WebSocketSession session = connect(client);
+        session.sendMessage(frame("CREATED", null, 0));
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        session.sendMessage(frame("UPDATED", 7L, 1));
+        session.sendMessage(frame("UPDATED", 8L, 2));
+        session.sendMessage(frame("DELETED", null, 3));
+        session.sendMessage(frame("UPDATED", 7L, 4));
+        unstall.countDown();
+
+        // Then
+        verify(client, timeout(1000).times(4)).sendMessage(any());
+        assertEquals(List.of(frame("CREATED", null, 0), frame("UPDATED", 8L, 2), frame("DELETED", null, 3), frame("UPDATED", 7L, 4)),
+                received);
+        assertEquals(1.0, meterRegistry.get("websocket.send.dropped").tag("reason", "conflated").counter().count());
+    }
+
+    @Test
+    void closeStalledSessions_WriteBlockedPastTimeLimit_ClosesSession() throws Exception {
+        // Given
+        sendQueues = new WebSocketSendQueues(meterRegistry, Duration.ofMillis(50), DataSize.ofKilobytes(64), true, 2);
+        WebSocketSession client = stalledSession();
+        WebSocketSession session = connect(client);
+        session.sendMessage(frame("CREATED", null, 0));
+        Thread.sleep(100);
+
+        // When
+        sendQueues.closeStalledSessions();
+
+        // Then
+        verify(client, timeout(1000)).close(WebSocketSendQueues.TOO_SLOW);
+        assertEquals(1.0, meterRegistry.get("websocket.send.slow_sessions_closed").tag("limit", "send-time").counter().count());
+    }
+
+    private WebSocketSession connect(WebSocketSession client) throws Exception {
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        sendQueues.decorate(handler).afterConnectionEstablished(client);
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+        return decorated.getValue();
+    }
+
+    private WebSocketSession stalledSession() throws Exception {
+        return session(message -> unstall.await());
+    }
+
+    private static WebSocketSession session(Write write) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        doAnswer(invocation -> {
+            write.write(invocation.getArgument(0));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static TextMessage frame(String eventType, Long taskId, int sequence) {
+        String taskIdHeader = taskId != null ? "task-id:" + taskId + "\n" : "";
+        return new TextMessage("MESSAGE\ndestination:/topic/tasks\n" + taskIdHeader + "content-type:application/json\n\n"
+                + "{\"sequence\":" + sequence + ",\"eventType\":\"" + eventType + "\",\"payload\":\"" + "x".repeat(100) + "\"}\u0000");
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void write(WebSocketMessage<?> message) throws Exception;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kanban.graphql;
+
+import com.kanban.exception.ResourceNotFoundException;
+import graphql.GraphQLError;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.MergedField;
+import graphql.execution.ResultPath;
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.graphql.execution.ErrorType;
+
+import java.util.List;
+
+import static graphql.Scalars.GraphQLString;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceNotFoundExceptionResolverTest {
+
+    private final ResourceNotFoundExceptionResolver resolver = new ResourceNotFoundExceptionResolver();
+
+    @Test
+    void resolveException_ResourceNotFound_ReturnsNotFoundError() {
+        // When
+        List<GraphQLError> errors = resolver.resolveException(
+                new ResourceNotFoundException("Task not found with id: 42"), environment("task")).block();
+
+        // Then
+        assertNotNull(errors);
+        assertEquals(1, errors.size());
+        assertEquals(ErrorType.NOT_FOUND, errors.get(0).getErrorType());
+        assertEquals("Task not found with id: 42", errors.get(0).getMessage());
+        assertEquals(List.of("task"), errors.get(0).getPath());
+    }
+
+    @Test
+    void resolveException_OtherException_LeavesItToTheNextResolver() {
+        // When
+        List<GraphQLError> errors = resolver.resolveException(new IllegalStateException("boom"), environment("task")).block();
+
+        // Then
+        assertNull(errors);
+    }
+
+    private static DataFetchingEnvironment environment(String fieldName) {
+        return DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .mergedField(MergedField.newMergedField(Field.newField(fieldName).build()).build())
+                .executionStepInfo(ExecutionStepInfo.newExecutionStepInfo()
+                        .type(GraphQLString)
+                        .path(ResultPath.rootPath().segment(fieldName))
+                        .build())
+                .build();
+    }
+}
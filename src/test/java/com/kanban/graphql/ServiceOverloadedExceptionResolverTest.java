@@ -0,0 +1,59 @@
+package com.kanban.graphql;
+
+import com.kanban.exception.ServiceOverloadedException;
+import graphql.GraphQLError;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.MergedField;
+import graphql.execution.ResultPath;
+import graphql.language.Field;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static graphql.Scalars.GraphQLString;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceOverloadedExceptionResolverTest {
+
+    private final ServiceOverloadedExceptionResolver resolver = new ServiceOverloadedExceptionResolver();
+
+    @Test
+    void resolveException_ServiceOverloaded_ReturnsRetryableUnavailableError() {
+        // Given
+        DataFetchingEnvironment env = environment("createTask");
+
+        // When
+        List<GraphQLError> errors = resolver.resolveException(
+                new ServiceOverloadedException("Service is overloaded, please retry shortly"), env).block();
+
+        // Then
+        assertNotNull(errors);
+        assertEquals(1, errors.size());
+        GraphQLError error = errors.get(0);
+        assertEquals(ServiceOverloadedExceptionResolver.UNAVAILABLE, error.getErrorType());
+        assertEquals("Service is overloaded, please retry shortly", error.getMessage());
+        assertEquals(List.of("createTask"), error.getPath());
+        assertEquals(1, error.getExtensions().get("retryAfterSeconds"));
+    }
+
+    @Test
+    void resolveException_OtherException_LeavesItToTheNextResolver() {
+        // When
+        List<GraphQLError> errors = resolver.resolveException(new IllegalStateException("boom"), environment("task")).block();
+
+        // Then
+        assertNull(errors);
+    }
+
+    private static DataFetchingEnvironment environment(String fieldName) {
+        return DataFetchingEnvironmentImpl.newDataFetchingEnvironment()
+                .mergedField(MergedField.newMergedField(Field.newField(fieldName).build()).build())
+                .executionStepInfo(ExecutionStepInfo.newExecutionStepInfo()
+                        .type(GraphQLString)
+                        .path(ResultPath.rootPath().segment(fieldName))
+                        .build())
+                .build();
+    }
+}
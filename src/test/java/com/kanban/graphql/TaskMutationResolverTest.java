@@ -0,0 +1,72 @@
+package com.kanban.graphql;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.IdempotencyService;
+import com.kanban.service.TaskBatchUpdateResult;
+import com.kanban.service.TaskService;
+import com.kanban.service.TaskWriteQueue;
+import com.kanban.service.WebSocketNotificationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskMutationResolverTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskWriteQueue taskWriteQueue;
+
+    @Mock
+    private WebSocketNotificationService webSocketNotificationService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @InjectMocks
+    private TaskMutationResolver resolver;
+
+    @Test
+    void batchUpdateTasks_NothingChanged_SendsNoEvent() {
+        // Given
+        TaskResponseDto task = TaskResponseDto.builder().id(1L).status(TaskStatus.TO_DO).build();
+        when(taskWriteQueue.batchPartialUpdateTasks(any())).thenReturn(new TaskBatchUpdateResult(List.of(task), List.of()));
+
+        // When
+        List<TaskResponseDto> result = resolver.batchUpdateTasks(List.of(
+                new TaskBatchUpdateInput(1L, null, null, TaskStatus.TO_DO, null)));
+
+        // Then
+        assertEquals(List.of(task), result);
+        verify(webSocketNotificationService, never()).notifyTasksUpdated(any());
+    }
+
+    @Test
+    void batchUpdateTasks_SomeChanged_AnnouncesOnlyThose() {
+        // Given
+        TaskResponseDto unchanged = TaskResponseDto.builder().id(1L).status(TaskStatus.TO_DO).build();
+        TaskResponseDto changed = TaskResponseDto.builder().id(2L).status(TaskStatus.DONE).build();
+        when(taskWriteQueue.batchPartialUpdateTasks(any()))
+                .thenReturn(new TaskBatchUpdateResult(List.of(unchanged, changed), List.of(changed)));
+
+        // When
+        List<TaskResponseDto> result = resolver.batchUpdateTasks(List.of(
+                new TaskBatchUpdateInput(1L, null, null, TaskStatus.TO_DO, null),
+                new TaskBatchUpdateInput(2L, null, null, TaskStatus.DONE, null)));
+
+        // Then
+        assertEquals(List.of(unchanged, changed), result);
+        verify(webSocketNotificationService).notifyTasksUpdated(List.of(changed));
+    }
+}
@@ -0,0 +1,65 @@
+package com.kanban.graphql;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.exception.ResourceNotFoundException;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.TaskReadModel;
+import com.kanban.service.TaskService;
+import com.kanban.service.TaskTitleIndex;
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskQueryResolverTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskReadModel taskReadModel;
+
+    @Mock
+    private TaskTitleIndex taskTitleIndex;
+
+    @Mock
+    private DataLoader<Long, TaskResponseDto> taskLoader;
+
+    @InjectMocks
+    private TaskQueryResolver resolver;
+
+    @Test
+    void task_LoadedByDataLoader_ReturnsIt() {
+        // Given
+        TaskResponseDto task = TaskResponseDto.builder().id(1L).status(TaskStatus.TO_DO).build();
+        when(taskLoader.load(1L)).thenReturn(CompletableFuture.completedFuture(task));
+
+        // When
+        TaskResponseDto result = resolver.task(1L, taskLoader).join();
+
+        // Then
+        assertEquals(task, result);
+    }
+
+    @Test
+    void task_UnknownId_FailsWithResourceNotFound() {
+        // Given
+        when(taskLoader.load(42L)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        CompletionException e = assertThrows(CompletionException.class, () -> resolver.task(42L, taskLoader).join());
+
+        // Then
+        assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+        assertEquals("Task not found with id: 42", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,111 @@
+package com.kanban.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.EmbeddedTaskStore;
+import com.kanban.repository.TaskStore;
+import com.kanban.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the REST API on the embedded task store ({@code embedded} profile). History and idempotency
+ * keys still go to the Testcontainers database of the {@code test} profile.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@ActiveProfiles({"test", "embedded"})
+class EmbeddedTaskStoreIntegrationTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void taskStoreDirectory(DynamicPropertyRegistry registry) {
+        registry.add("task-store.embedded.directory", () -> directory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskStore taskStore;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String jwtToken;
+
+    @BeforeEach
+    void setUp() {
+        jwtToken = jwtTokenProvider.generateToken("testuser");
+    }
+
+    @Test
+    void taskStore_EmbeddedProfile_UsesEmbeddedStore() {
+        assertInstanceOf(EmbeddedTaskStore.class, taskStore);
+    }
+
+    @Test
+    void createUpdateAndDeleteTask_RoundTripsThroughTheLog() throws Exception {
+        TaskRequestDto request = TaskRequestDto.builder()
+                .title("Embedded Task")
+                .status(TaskStatus.TO_DO)
+                .priority(TaskPriority.HIGH)
+                .build();
+
+        String created = mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        request.setTitle("Renamed Task");
+        mockMvc.perform(put("/api/tasks/{id}", id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed Task"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(get("/api/tasks")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .param("status", "TO_DO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.id == " + id + ")].title").value("Renamed Task"));
+
+        mockMvc.perform(delete("/api/tasks/{id}", id)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/{id}", id)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -22,6 +22,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -78,6 +79,36 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.status").value("TO_DO"));
     }
 
+    @Test
+    void createTask_RetriedWithIdempotencyKey_CreatesSingleTask() throws Exception {
+        TaskRequestDto request = TaskRequestDto.builder()
+                .title("Idempotent Task")
+                .status(TaskStatus.TO_DO)
+                .priority(TaskPriority.MED)
+                .build();
+
+        String firstResponse = mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+        Long createdId = objectMapper.readTree(firstResponse).get("id").asLong();
+
+        mockMvc.perform(post("/api/tasks")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(createdId));
+
+        assertEquals(1, taskRepository.count());
+    }
+
     @Test
     void createTask_InvalidRequest_ReturnsBadRequest() throws Exception {
         TaskRequestDto request = TaskRequestDto.builder()
@@ -98,6 +129,7 @@ class TaskControllerIntegrationTest {
                 .description("Test Description")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -125,6 +157,7 @@ class TaskControllerIntegrationTest {
                     .title("Task " + i)
                     .status(TaskStatus.TO_DO)
                     .priority(TaskPriority.MED)
+                    .rank("i")
                     .createdAt(LocalDateTime.now())
                     .updatedAt(LocalDateTime.now())
                     .build();
@@ -147,6 +180,7 @@ class TaskControllerIntegrationTest {
                 .title("Task 1")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -156,6 +190,7 @@ class TaskControllerIntegrationTest {
                 .title("Task 2")
                 .status(TaskStatus.IN_PROGRESS)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -175,6 +210,7 @@ class TaskControllerIntegrationTest {
                 .title("Original Title")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -202,6 +238,7 @@ class TaskControllerIntegrationTest {
                 .description("Original Description")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
@@ -226,6 +263,7 @@ class TaskControllerIntegrationTest {
                 .title("Task to Delete")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
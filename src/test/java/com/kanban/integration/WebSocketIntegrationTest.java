@@ -5,6 +5,7 @@ import com.kanban.dto.TaskResponseDto;
 import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
 import com.kanban.service.TaskService;
+import com.kanban.service.TaskUpdateResult;
 import com.kanban.service.WebSocketNotificationService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -133,8 +134,8 @@ class WebSocketIntegrationTest {
                 .build();
 
         // When
-        TaskResponseDto updatedTask = taskService.updateTask(createdTask.getId(), updateRequest);
-        webSocketNotificationService.notifyTaskUpdated(updatedTask);
+        TaskUpdateResult update = taskService.updateTask(createdTask.getId(), updateRequest);
+        webSocketNotificationService.notifyTaskUpdated(update);
 
         // Then
         Object message = messages.poll(5, TimeUnit.SECONDS);
@@ -0,0 +1,277 @@
+package com.kanban.repository;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedTaskStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddedTaskStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void save_NewTask_AssignsIdVersionAndTimestampsAndSurvivesRestart() {
+        // Given
+        Task saved = store.save(task("First", TaskStatus.TO_DO, "i"));
+
+        // When
+        store.close();
+        store = open();
+
+        // Then
+        Task loaded = store.findById(saved.getId()).orElseThrow();
+        assertEquals(1L, saved.getId());
+        assertEquals(0L, loaded.getVersion());
+        assertEquals(TenantContext.DEFAULT_TENANT, loaded.getTenantId());
+        assertEquals("First", loaded.getTitle());
+        assertEquals(saved.getCreatedAt(), loaded.getCreatedAt());
+        assertEquals(2L, store.save(task("Second", TaskStatus.TO_DO, "j")).getId());
+    }
+
+    @Test
+    void save_StaleVersion_ThrowsOptimisticLockingFailure() {
+        // Given
+        Long id = store.save(task("Task", TaskStatus.TO_DO, "i")).getId();
+        Task first = store.findById(id).orElseThrow();
+        Task second = store.findById(id).orElseThrow();
+        first.setTitle("First writer");
+        store.save(first);
+
+        // When
+        second.setTitle("Second writer");
+
+        // Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> store.save(second));
+        assertEquals("First writer", store.findById(id).orElseThrow().getTitle());
+        assertEquals(1L, store.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    void save_Unchanged_KeepsVersion() {
+        // Given
+        Long id = store.save(task("Task", TaskStatus.TO_DO, "i")).getId();
+
+        // When
+        Task saved = store.save(store.findById(id).orElseThrow());
+
+        // Then
+        assertEquals(0L, saved.getVersion());
+    }
+
+    @Test
+    void open_TornLastRecord_RecoversEarlierRecords() throws IOException {
+        // Given
+        Long kept = store.save(task("Kept", TaskStatus.TO_DO, "i")).getId();
+        Long torn = store.save(task("Torn", TaskStatus.TO_DO, "j")).getId();
+        store.close();
+        try (FileChannel channel = FileChannel.open(directory.resolve("tasks.log"), StandardOpenOption.WRITE)) {
+            // Overwrite the last bytes of the second record, as if the crash hit mid-write
+            long secondRecordEnd = lastRecordEnd();
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF, (byte) 0xFF}), secondRecordEnd - 2);
+        }
+
+        // When
+        store = open();
+
+        // Then
+        assertTrue(store.findById(kept).isPresent());
+        assertTrue(store.findById(torn).isEmpty());
+        Task next = store.save(task("Next", TaskStatus.TO_DO, "k"));
+        store.close();
+        store = open();
+        assertEquals("Next", store.findById(next.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void open_CorruptRecordBeforeIntactOnes_FailsInsteadOfDiscardingThem() throws IOException {
+        // Given
+        store.save(task("Corrupted", TaskStatus.TO_DO, "i"));
+        store.save(task("Intact", TaskStatus.TO_DO, "j"));
+        store.close();
+        Path file = directory.resolve("tasks.log");
+        byte[] log = Files.readAllBytes(file);
+        // Flip a byte in the body of the first record, which starts right after the 16-byte header
+        int position = 16 + 8 + 4;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) ~log[position]}), position);
+        }
+
+        // When & Then
+        IllegalStateException e = assertThrows(IllegalStateException.class, this::open);
+        assertTrue(e.getMessage().contains("corrupt record at offset 16"));
+        // Nothing was zeroed, so the file can still be repaired
+        log[position] = (byte) ~log[position];
+        assertArrayEquals(log, Files.readAllBytes(file));
+    }
+
+    @Test
+    void compact_KeepsLatestVersionsAndShrinksLog() {
+        // Given
+        Long id = store.save(task("Task", TaskStatus.TO_DO, "i")).getId();
+        for (int i = 0; i < 100; i++) {
+            Task task = store.findById(id).orElseThrow();
+            task.setTitle("Title " + i);
+            store.save(task);
+        }
+        Long deleted = store.save(task("Deleted", TaskStatus.DONE, "i")).getId();
+        store.deleteById(deleted);
+        store.purgeDeletedBefore(LocalDateTime.now().plusMinutes(1), 10);
+        long sizeBefore = logSize();
+
+        // When
+        store.compactIfNeeded();
+        store.close();
+        store = open();
+
+        // Then
+        assertTrue(logSize() < sizeBefore);
+        assertEquals("Title 99", store.findById(id).orElseThrow().getTitle());
+        assertEquals(100L, store.findById(id).orElseThrow().getVersion());
+        assertTrue(store.findById(deleted).isEmpty());
+        assertEquals(0, store.restoreById(deleted, TenantContext.DEFAULT_TENANT));
+        assertEquals(3L, store.save(task("After compaction", TaskStatus.TO_DO, "j")).getId());
+    }
+
+    @Test
+    void deleteAndRestore_FollowSoftDeleteSemantics() {
+        // Given
+        Long id = store.save(task("Task", TaskStatus.TO_DO, "i")).getId();
+
+        // When
+        store.deleteById(id);
+
+        // Then
+        assertFalse(store.existsById(id));
+        assertEquals(0, store.findAll(PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(0, store.restoreById(id, "other"));
+        assertEquals(1, store.restoreById(id, TenantContext.DEFAULT_TENANT));
+        assertEquals(1L, store.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    void findByStatus_FiltersByTenantAndSorts() {
+        // Given
+        store.save(task("B", TaskStatus.TO_DO, "j"));
+        store.save(task("A", TaskStatus.TO_DO, "i"));
+        store.save(task("Done", TaskStatus.DONE, "i"));
+        TenantContext.runAs("acme", () -> store.save(task("Other tenant", TaskStatus.TO_DO, "h")));
+
+        // When
+        Page<Task> page = store.findByStatus(TaskStatus.TO_DO, PageRequest.of(0, 1, Sort.by("title")));
+
+        // Then
+        assertEquals(List.of("A"), page.map(Task::getTitle).getContent());
+        assertEquals(2, page.getTotalElements());
+        assertEquals("B", store.findFirstByStatusOrderByRankDesc(TaskStatus.TO_DO).orElseThrow().getTitle());
+    }
+
+    @Test
+    void findByTitleWordPrefix_MatchesStartOfTitleWordsOnly() {
+        // Given
+        store.save(task("Progress report", TaskStatus.TO_DO, "i"));
+        store.save(task("Update the project plan", TaskStatus.TO_DO, "j"));
+        store.save(task("Reproduce crash", TaskStatus.TO_DO, "k"));
+
+        // When
+        List<Task> tasks = store.findByTitleWordPrefix("PRO", 10);
+
+        // Then
+        assertEquals(List.of("Progress report", "Update the project plan"),
+                tasks.stream().map(Task::getTitle).sorted().toList());
+    }
+
+    @Test
+    void save_TransactionRolledBack_UndoesWrite() {
+        // Given
+        Long id = store.save(task("Original", TaskStatus.TO_DO, "i")).getId();
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            Task task = store.findById(id).orElseThrow();
+            task.setTitle("Rolled back");
+            store.save(task);
+            task.setTitle("Rolled back twice");
+            store.save(task);
+            store.save(task("Rolled back too", TaskStatus.TO_DO, "j"));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // When
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        Task restored = store.findById(id).orElseThrow();
+        assertEquals("Original", restored.getTitle());
+        assertEquals(0L, restored.getVersion());
+        assertTrue(store.findById(id + 1).isEmpty());
+    }
+
+    private EmbeddedTaskStore open() {
+        meterRegistry = new SimpleMeterRegistry();
+        return new EmbeddedTaskStore(meterRegistry, directory, DataSize.ofKilobytes(64), true, 0.5);
+    }
+
+    private long logSize() {
+        return (long) meterRegistry.get("task_store.log.bytes").gauge().value();
+    }
+
+    private long lastRecordEnd() throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(directory.resolve("tasks.log")));
+        int offset = 16;
+        int end = offset;
+        while (offset + 8 <= log.capacity() && log.getInt(offset) > 0) {
+            end = offset + 8 + log.getInt(offset);
+            offset = end;
+        }
+        return end;
+    }
+
+    private static Task task(String title, TaskStatus status, String rank) {
+        return Task.builder()
+                .title(title)
+                .status(status)
+                .priority(TaskPriority.MED)
+                .rank(rank)
+                .build();
+    }
+}
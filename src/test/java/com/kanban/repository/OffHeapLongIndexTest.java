@@ -0,0 +1,54 @@
+package com.kanban.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapLongIndexTest {
+
+    @Test
+    void randomOperations_MatchHashMap() {
+        // Given
+        OffHeapLongIndex index = new OffHeapLongIndex(16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, -1L), index.remove(key));
+                expected.remove(key);
+            } else {
+                long value = random.nextInt(Integer.MAX_VALUE);
+                assertEquals(expected.getOrDefault(key, -1L), index.put(key, value));
+                expected.put(key, value);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), index.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), index.get(key));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        index.forEach((key, value) -> {
+            iterated.put(key, value);
+            return 0;
+        });
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void put_NonPositiveKey_Throws() {
+        // Given
+        OffHeapLongIndex index = new OffHeapLongIndex(16);
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> index.put(0, 1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.kanban.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kanban.exception.ErrorResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Bucket bucket = new RateLimitProperties.Bucket();
+        bucket.setCapacity(10);
+        bucket.setRefillPerSecond(0.001);
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/graphql");
+        route.setMethods(List.of("POST"));
+        route.setBucket("graphql");
+        route.setGraphqlCost(true);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBuckets(Map.of("graphql", bucket));
+        properties.setRoutes(List.of(route));
+
+        filter = new RateLimitFilter(new RateLimiter(properties, new SimpleMeterRegistry()),
+                new GraphQlCostEstimator(objectMapper), objectMapper, properties);
+    }
+
+    @Test
+    void doFilter_WithinBudget_PassesTheBodyOn() throws Exception {
+        // Given
+        String body = "{\"query\":\"{ task(id: 1) { id title } }\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        MockHttpServletResponse response = send(body, chain);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_FragmentSpreadTwice_ChargedAtEachUse() throws Exception {
+        // Given
+        // 2 aliased task fields plus 3 fragment fields at each of the 2 spreads: 8 of the 10 tokens
+        String body = "{\"query\":\"{ a: task(id: 1) { ...card } b: task(id: 2) { ...card } }"
+                + " fragment card on Task { id title status }\"}";
+        assertEquals(200, send(body, new MockFilterChain()).getStatus());
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        MockHttpServletResponse response = send(body, chain);
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        ErrorResponse error = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+        assertEquals(429, error.getStatus());
+        assertEquals("Too Many Requests", error.getError());
+        assertEquals("Rate limit exceeded for graphql requests", error.getMessage());
+        assertNotNull(error.getTimestamp());
+    }
+
+    @Test
+    void doFilter_NestedFragmentSpreads_RejectedQuicklyAsOverBudget() throws Exception {
+        // Given
+        // Each fragment spreads the previous one twice, doubling the cost 40 times over
+        StringBuilder query = new StringBuilder("{ task(id: 1) { ...f40 } } fragment f0 on Task { id }");
+        for (int i = 1; i <= 40; i++) {
+            query.append(" fragment f").append(i).append(" on Task { ...f").append(i - 1)
+                    .append(" ...f").append(i - 1).append(" }");
+        }
+        String body = "{\"query\":\"" + query + "\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        MockHttpServletResponse response = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> send(body, chain));
+
+        // Then
+        assertEquals(400, response.getStatus());
+        assertNull(response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        ErrorResponse error = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+        assertEquals("Query cost of 1000000 exceeds the graphql budget of 10", error.getMessage());
+    }
+
+    @Test
+    void doFilter_BodyOverMaxSize_RejectedWithPayloadTooLarge() throws Exception {
+        // Given
+        String body = "{\"query\":\"{ task(id: 1) { id } }\",\"padding\":\"" + "x".repeat(65 * 1024) + "\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        MockHttpServletResponse response = send(body, chain);
+
+        // Then
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+        ErrorResponse error = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+        assertEquals("Payload Too Large", error.getError());
+    }
+
+    private MockHttpServletResponse send(String body, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kanban.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_WithinCapacity_Allows() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryConsume(1, 0));
+        }
+    }
+
+    @Test
+    void tryConsume_CapacityExhausted_ReturnsWaitTime() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+
+        long waitNanos = bucket.tryConsume(1, 0);
+
+        assertEquals(SECOND / 10, waitNanos);
+    }
+
+    @Test
+    void tryConsume_AfterRefill_AllowsAgain() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryConsume(10, 0));
+
+        assertEquals(0, bucket.tryConsume(5, SECOND / 2));
+        assertTrue(bucket.tryConsume(1, SECOND / 2) > 0);
+    }
+
+    @Test
+    void tryConsume_CostAboveCapacity_NeverAllowed() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+
+        assertTrue(bucket.tryConsume(11, 0) > 0);
+        assertTrue(bucket.tryConsume(11, 10 * SECOND) > 0);
+        assertEquals(0, bucket.tryConsume(10, 10 * SECOND));
+    }
+
+    @Test
+    void isFull_OnlyOnceCompletelyRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        bucket.tryConsume(10, 0);
+
+        assertFalse(bucket.isFull(SECOND / 2));
+        assertTrue(bucket.isFull(SECOND));
+    }
+}
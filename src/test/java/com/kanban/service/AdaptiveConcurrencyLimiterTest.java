@@ -0,0 +1,50 @@
+package com.kanban.service;
+
+import com.kanban.exception.ServiceOverloadedException;
+import com.kanban.service.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, initialLimit, 2, 100, 0.5, 0.2);
+    }
+
+    @Test
+    void acquire_OverLimit_FailsFast() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+        limiter.acquire(Priority.WRITE);
+        limiter.acquire(Priority.WRITE);
+
+        assertThrows(ServiceOverloadedException.class, () -> limiter.acquire(Priority.WRITE));
+    }
+
+    @Test
+    void acquire_ReadStorm_LeavesHeadroomForWrites() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4);
+        limiter.acquire(Priority.READ);
+        limiter.acquire(Priority.READ);
+
+        assertThrows(ServiceOverloadedException.class, () -> limiter.acquire(Priority.READ));
+        assertDoesNotThrow(() -> limiter.acquire(Priority.WRITE));
+    }
+
+    @Test
+    void release_RisingLatency_ShrinksLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+        for (int i = 0; i < 50; i++) {
+            limiter.release(Priority.WRITE, limiter.acquire(Priority.WRITE));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            long start = limiter.acquire(Priority.WRITE);
+            Thread.sleep(5);
+            limiter.release(Priority.WRITE, start);
+        }
+
+        assertTrue(limiter.getLimit() < 20, "limit should shrink, was " + limiter.getLimit());
+    }
+}
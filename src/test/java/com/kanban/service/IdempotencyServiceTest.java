@@ -0,0 +1,192 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.entity.IdempotencyRecord;
+import com.kanban.exception.IdempotencyKeyMismatchException;
+import com.kanban.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskRequestDto request;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository,
+                new TransactionTemplate(transactionManager), objectMapper, meterRegistry, Duration.ofHours(1), 100);
+        request = TaskRequestDto.builder().title("Test Task").build();
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void execute_WithoutKey_AlwaysRunsAction() {
+        // When
+        idempotencyService.execute(null, "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+        idempotencyService.execute(null, "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+
+        // Then
+        assertEquals(2, executions.get());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_RepeatedKey_ReplaysStoredResponse() {
+        // Given
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+
+        // When
+        IdempotencyService.Result<TaskResponseDto> first = idempotencyService.execute(
+                "key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+        IdempotencyService.Result<TaskResponseDto> second = idempotencyService.execute(
+                "key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(first.response().getId(), second.response().getId());
+        verify(idempotencyRecordRepository).complete(anyString(), anyString());
+        assertEquals(0.5, meterRegistry.get("idempotency.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void execute_KeyStoredByAnotherNode_ReplaysFromDatabase() {
+        // Given
+        IdempotencyService other = new IdempotencyService(idempotencyRecordRepository,
+                new TransactionTemplate(transactionManager), new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry(), Duration.ofHours(1), 100);
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        String[] claimedFingerprint = new String[1];
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            claimedFingerprint[0] = invocation.getArgument(1);
+            return 1;
+        });
+        when(idempotencyRecordRepository.complete(anyString(), anyString())).thenAnswer(invocation -> {
+            storeRecord(invocation.getArgument(0), invocation.getArgument(1), claimedFingerprint[0]);
+            return 1;
+        });
+        other.execute("key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+
+        // When
+        IdempotencyService.Result<TaskResponseDto> result = idempotencyService.execute(
+                "key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertTrue(result.replayed());
+    }
+
+    @Test
+    void execute_KeyClaimedConcurrentlyByAnotherNode_ReplaysItsResponse() {
+        // Given
+        TaskResponseDto committed = TaskResponseDto.builder().id(42L).title("Test Task").build();
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        // The claim waited for the other node's transaction, which committed the key
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            String storageKey = invocation.getArgument(0);
+            storeRecord(storageKey, new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(committed),
+                    invocation.getArgument(1));
+            return 0;
+        });
+
+        // When
+        IdempotencyService.Result<TaskResponseDto> result = idempotencyService.execute(
+                "key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+
+        // Then
+        assertEquals(0, executions.get());
+        assertTrue(result.replayed());
+        assertEquals(42L, result.response().getId());
+        verify(idempotencyRecordRepository, never()).complete(anyString(), anyString());
+    }
+
+    @Test
+    void execute_ActionFails_RollsBackTheClaim() {
+        // Given
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(
+                "key-1", "POST /api/tasks", request, TaskResponseDto.class, () -> {
+                    throw new IllegalStateException("create failed");
+                }));
+        verify(transactionManager).rollback(any());
+        verify(idempotencyRecordRepository, never()).complete(anyString(), anyString());
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_ThrowsException() {
+        // Given
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any(), any())).thenReturn(1);
+        idempotencyService.execute("key-1", "POST /api/tasks", request, TaskResponseDto.class, this::createTask);
+        TaskRequestDto otherRequest = TaskRequestDto.builder().title("Other Task").build();
+
+        // When & Then
+        assertThrows(IdempotencyKeyMismatchException.class, () -> idempotencyService.execute(
+                "key-1", "POST /api/tasks", otherRequest, TaskResponseDto.class, this::createTask));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void purgeExpired_RemovesExpiredRecords() {
+        // When
+        idempotencyService.purgeExpired();
+
+        // Then
+        verify(idempotencyRecordRepository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    private void storeRecord(String storageKey, String responseBody, String fingerprint) {
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .storageKey(storageKey)
+                .requestFingerprint(fingerprint)
+                .responseBody(responseBody)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        when(idempotencyRecordRepository.findById(storageKey)).thenReturn(Optional.of(record));
+    }
+
+    private TaskResponseDto createTask() {
+        return TaskResponseDto.builder()
+                .id((long) executions.incrementAndGet())
+                .title(request.getTitle())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.kanban.service;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryTaskIndexTest {
+
+    private static final String TENANT = "acme";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Deque<Task> rows = new ArrayDeque<>();
+    private InMemoryTaskIndex<Tasks> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryTaskIndex<>("test_index", jdbcTemplate, new TransactionTemplate(transactionManager),
+                meterRegistry, "SELECT id, tenant_id FROM tasks WHERE deleted_at IS NULL",
+                (rs, row) -> rows.poll(), Tasks::new, 100, Long.MAX_VALUE);
+    }
+
+    @Test
+    void reload_EventDuringLoad_IsReplayedOnTheLoadedPartition() {
+        // Given
+        rows.add(task(1L, 0L));
+        doAnswer(invocation -> {
+            // Committed after the load read its snapshot
+            index.onTaskChanged(new TaskChangedEvent(TENANT, List.of(task(2L, 0L)), List.of()));
+            invocation.<RowCallbackHandler>getArgument(1).processRow(mock(ResultSet.class));
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // When
+        index.reload(null);
+
+        // Then
+        assertTrue(index.isServing());
+        assertEquals(Set.of(1L, 2L), index.partition(TENANT).tasks.keySet());
+    }
+
+    @Test
+    void checkConsistency_DifferenceOnTwoChecks_ReloadsTheTenant() {
+        // Given
+        index.reload(null);
+        index.onTaskChanged(new TaskChangedEvent(TENANT, List.of(task(1L, 0L)), List.of()));
+
+        // When
+        index.checkConsistency();
+        Tasks afterFirstCheck = index.partition(TENANT);
+        index.checkConsistency();
+
+        // Then
+        assertNotNull(afterFirstCheck);
+        assertNull(index.partition(TENANT));
+        assertEquals(1.0, meterRegistry.get("test_index.inconsistencies").counter().count());
+    }
+
+    private static Task task(Long id, Long version) {
+        return Task.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .title("Task " + id)
+                .status(TaskStatus.TO_DO)
+                .version(version)
+                .build();
+    }
+
+    private static final class Tasks implements InMemoryTaskIndex.Partition {
+
+        private final Map<Long, Task> tasks = new ConcurrentHashMap<>();
+
+        @Override
+        public void put(Task task) {
+            tasks.put(task.getId(), task);
+        }
+
+        @Override
+        public void remove(long id) {
+            tasks.remove(id);
+        }
+
+        @Override
+        public Map<TaskStatus, long[]> aggregates() {
+            Map<TaskStatus, long[]> aggregates = new EnumMap<>(TaskStatus.class);
+            for (Task task : tasks.values()) {
+                long[] aggregate = aggregates.computeIfAbsent(task.getStatus(), status -> new long[2]);
+                aggregate[0]++;
+                aggregate[1] += task.getVersion();
+            }
+            return aggregates;
+        }
+
+        @Override
+        public long size() {
+            return tasks.size();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.kanban.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexoRankTest {
+
+    @Test
+    void after_EmptyColumn_ReturnsInitialRank() {
+        assertEquals("i", LexoRank.after(null));
+    }
+
+    @Test
+    void after_RepeatedAppends_StaysShortAndOrdered() {
+        String rank = LexoRank.after(null);
+        for (int i = 0; i < 10_000; i++) {
+            String next = LexoRank.after(rank);
+            assertTrue(next.compareTo(rank) > 0, next + " should sort after " + rank);
+            assertFalse(next.endsWith("0"));
+            rank = next;
+        }
+        assertTrue(rank.length() <= 6);
+    }
+
+    @Test
+    void between_RepeatedInsertsIntoSameGap_AlwaysFindsRank() {
+        String lower = "a";
+        String upper = "b";
+        for (int i = 0; i < 200; i++) {
+            String middle = LexoRank.between(lower, upper);
+            assertTrue(middle.compareTo(lower) > 0 && middle.compareTo(upper) < 0);
+            assertFalse(middle.endsWith("0"));
+            upper = middle;
+        }
+    }
+
+    @Test
+    void between_TopOfColumn_SortsBeforeUpper() {
+        String rank = LexoRank.between(null, "1");
+        assertTrue(rank.compareTo("1") < 0);
+        assertFalse(rank.endsWith("0"));
+    }
+
+    @Test
+    void between_LowerNotBeforeUpper_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> LexoRank.between("b", "a"));
+    }
+
+    @Test
+    void evenlySpaced_ReturnsStrictlyIncreasingRanks() {
+        String[] ranks = LexoRank.evenlySpaced(5000);
+        for (int i = 1; i < ranks.length; i++) {
+            assertTrue(ranks[i].compareTo(ranks[i - 1]) > 0);
+            assertFalse(ranks[i].endsWith("0"));
+        }
+    }
+
+    @Test
+    void evenlySpacedBetween_NarrowGap_ReturnsShortRanksInsideTheGap() {
+        String lower = "b";
+        String upper = "b1";
+        String[] ranks = LexoRank.evenlySpacedBetween(lower, upper, 100);
+        assertTrue(ranks[0].compareTo(lower) > 0);
+        assertTrue(ranks[ranks.length - 1].compareTo(upper) < 0);
+        for (int i = 1; i < ranks.length; i++) {
+            assertTrue(ranks[i].compareTo(ranks[i - 1]) > 0);
+            assertFalse(ranks[i].endsWith("0"));
+            assertTrue(ranks[i].length() <= 5);
+        }
+    }
+
+    @Test
+    void evenlySpacedBetween_OpenEnds_SpansTheColumn() {
+        String[] ranks = LexoRank.evenlySpacedBetween(null, null, 3);
+        assertArrayEquals(new String[] {"9", "i", "r"}, ranks);
+    }
+}
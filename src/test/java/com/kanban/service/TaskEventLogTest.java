@@ -0,0 +1,134 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.service.WebSocketNotificationService.TaskEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<TaskEvent> published = new ArrayList<>();
+    private TaskEventLog eventLog;
+
+    @AfterEach
+    void tearDown() {
+        eventLog.close();
+    }
+
+    @Test
+    void replay_AfterLastSeenSequence_ReturnsOnlyMissedEventsOfTenant() {
+        // Given
+        eventLog = open(10, false, DataSize.ofKilobytes(1));
+        long seen = append("acme", "CREATED", 1L).sequence();
+        append("other", "CREATED", 2L);
+        append("acme", "UPDATED", 1L);
+        append("acme", "DELETED", 1L);
+
+        // When
+        TaskEventLog.Replay replay = eventLog.replay("acme", seen);
+
+        // Then
+        assertFalse(replay.resyncRequired());
+        assertEquals(List.of("UPDATED", "DELETED"), replay.events().stream().map(TaskEvent::eventType).toList());
+        assertEquals(published.get(3).sequence(), replay.latestSequence());
+    }
+
+    @Test
+    void replay_GapEvicted_RequiresResync() {
+        // Given
+        eventLog = open(2, false, DataSize.ofKilobytes(1));
+        long seen = append("acme", "CREATED", 1L).sequence();
+        append("acme", "UPDATED", 1L);
+        append("acme", "UPDATED", 1L);
+        append("acme", "UPDATED", 1L);
+
+        // When
+        TaskEventLog.Replay evicted = eventLog.replay("acme", seen);
+        TaskEventLog.Replay retained = eventLog.replay("acme", published.get(1).sequence());
+
+        // Then
+        assertTrue(evicted.resyncRequired());
+        assertTrue(evicted.events().isEmpty());
+        assertFalse(retained.resyncRequired());
+        assertEquals(2, retained.events().size());
+    }
+
+    @Test
+    void replay_SequenceFromBeforeRestart_RequiresResync() {
+        // Given
+        eventLog = open(10, false, DataSize.ofKilobytes(1));
+        append("acme", "CREATED", 1L);
+
+        // When
+        TaskEventLog.Replay replay = eventLog.replay("acme", 42L);
+
+        // Then
+        assertTrue(replay.resyncRequired());
+    }
+
+    @Test
+    void replay_EvictedEventsSpilledToDisk_AreReplayedUntilSpillFileIsFull() {
+        // Given
+        eventLog = open(2, true, DataSize.ofBytes(200));
+        long seen = append("acme", "CREATED", 1L).sequence();
+        for (long id = 2; id <= 4; id++) {
+            append("acme", "CREATED", id);
+        }
+
+        // When
+        TaskEventLog.Replay spilled = eventLog.replay("acme", seen);
+        for (long id = 5; id <= 8; id++) {
+            append("acme", "CREATED", id);
+        }
+        TaskEventLog.Replay overflowed = eventLog.replay("acme", seen);
+
+        // Then
+        assertFalse(spilled.resyncRequired());
+        // Spilled payloads come back as parsed JSON
+        assertEquals(List.of(2L, 3L, 4L), spilled.events().stream().map(event -> ((Number) event.payload()).longValue()).toList());
+        assertTrue(overflowed.resyncRequired());
+    }
+
+    @Test
+    void replay_SpillFileStartedAnew_ReplaysFromNewFileAndDeletesOldOne() throws IOException {
+        // Given
+        eventLog = open(2, true, DataSize.ofBytes(200));
+        List<Long> sequences = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            sequences.add(append("acme", "CREATED", id).sequence());
+        }
+
+        // When
+        TaskEventLog.Replay replay = eventLog.replay("acme", sequences.get(2));
+
+        // Then
+        assertFalse(replay.resyncRequired());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), replay.events().stream().map(event -> ((Number) event.payload()).longValue()).toList());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private TaskEvent append(String tenantId, String eventType, Long taskId) {
+        return eventLog.append(tenantId, eventType, taskId, published::add);
+    }
+
+    private TaskEventLog open(int bufferSize, boolean spill, DataSize maxSpillSize) {
+        return new TaskEventLog(new ObjectMapper(), new SimpleMeterRegistry(), bufferSize, spill, directory, maxSpillSize);
+    }
+}
@@ -0,0 +1,78 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskChangesDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.model.TaskStatus;
+import com.kanban.service.WebSocketNotificationService.TaskEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEventStreamTest {
+
+    private static final Set<TaskStatus> ACTIVE = EnumSet.of(TaskStatus.TO_DO, TaskStatus.IN_PROGRESS);
+
+    @Test
+    void filter_SingleTaskEvents_PassOnlyMatchingStatusesAndEventsWithoutTask() {
+        // Given
+        TaskEvent todo = new TaskEvent(1, "CREATED", task(1L, TaskStatus.TO_DO));
+        TaskEvent done = new TaskEvent(2, "UPDATED", task(2L, TaskStatus.DONE));
+        TaskEvent spilledDone = new TaskEvent(3, "UPDATED", Map.of("id", 3, "status", "DONE"));
+        TaskEvent deleted = new TaskEvent(4, "DELETED", 5L);
+
+        // When / Then
+        assertSame(todo, TaskEventStream.filter(todo, ACTIVE));
+        assertNull(TaskEventStream.filter(done, ACTIVE));
+        assertNull(TaskEventStream.filter(spilledDone, ACTIVE));
+        assertSame(deleted, TaskEventStream.filter(deleted, ACTIVE));
+        assertSame(done, TaskEventStream.filter(done, EnumSet.allOf(TaskStatus.class)));
+    }
+
+    @Test
+    void filter_BatchEvent_KeepsMatchingTasksAndSequence() {
+        // Given
+        TaskResponseDto inProgress = task(1L, TaskStatus.IN_PROGRESS);
+        TaskEvent batch = new TaskEvent(7, "BATCH_UPDATED", List.of(inProgress, task(2L, TaskStatus.DONE)));
+        TaskEvent allDone = new TaskEvent(8, "BATCH_UPDATED", List.of(task(3L, TaskStatus.DONE)));
+
+        // When
+        TaskEvent filtered = TaskEventStream.filter(batch, ACTIVE);
+
+        // Then
+        assertEquals(new TaskEvent(7, "BATCH_UPDATED", List.of(inProgress)), filtered);
+        assertNull(TaskEventStream.filter(allDone, ACTIVE));
+    }
+
+    @Test
+    void filter_TaskMovedOutOfFilteredColumn_PassesWithPreviousStatus() {
+        // Given
+        TaskResponseDto moved = task(1L, TaskStatus.DONE);
+        moved.setPreviousStatus(TaskStatus.IN_PROGRESS);
+        TaskEvent updated = new TaskEvent(1, "UPDATED", moved);
+        TaskEvent changed = new TaskEvent(2, "CHANGED", TaskChangesDto.builder()
+                .id(2L).changes(Map.of("status", TaskStatus.DONE)).previousStatus(TaskStatus.TO_DO).build());
+        TaskEvent spilled = new TaskEvent(3, "CHANGED",
+                Map.of("id", 3, "changes", Map.of("status", "DONE"), "previousStatus", "TO_DO"));
+        TaskEvent renamed = new TaskEvent(4, "CHANGED", TaskChangesDto.builder()
+                .id(4L).changes(Map.of("title", "Renamed")).build());
+        TaskResponseDto doneBefore = task(5L, TaskStatus.DONE);
+        TaskEvent batch = new TaskEvent(5, "BATCH_UPDATED", List.of(moved, doneBefore));
+
+        // When / Then
+        assertSame(updated, TaskEventStream.filter(updated, ACTIVE));
+        assertSame(changed, TaskEventStream.filter(changed, ACTIVE));
+        assertSame(spilled, TaskEventStream.filter(spilled, ACTIVE));
+        assertSame(renamed, TaskEventStream.filter(renamed, ACTIVE));
+        assertEquals(new TaskEvent(5, "BATCH_UPDATED", List.of(moved)), TaskEventStream.filter(batch, ACTIVE));
+        assertNull(TaskEventStream.filter(new TaskEvent(6, "UPDATED", doneBefore), ACTIVE));
+    }
+
+    private static TaskResponseDto task(Long id, TaskStatus status) {
+        return TaskResponseDto.builder().id(id).title("Task " + id).status(status).build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskFacetIndexTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskFacetIndex taskFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        taskFacetIndex = new TaskFacetIndex(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), true, 100);
+        // The mocked database is empty; tasks arrive through events
+        taskFacetIndex.loadOnStartup();
+    }
+
+    @Test
+    void search_NotLoaded_ReturnsEmpty() {
+        // Given
+        TaskFacetIndex notLoaded = new TaskFacetIndex(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), false, 100);
+
+        // When & Then
+        assertTrue(notLoaded.search(new TaskFilterDto(), PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void search_CombinedCriteria_ReturnsPageAndFacetCounts() {
+        // Given
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, TaskStatus.TO_DO, TaskPriority.HIGH, CREATED_AT),
+                task(2L, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, CREATED_AT),
+                task(3L, TaskStatus.DONE, TaskPriority.HIGH, CREATED_AT),
+                task(4L, TaskStatus.TO_DO, TaskPriority.LOW, CREATED_AT),
+                task(5L, TaskStatus.TO_DO, TaskPriority.HIGH, CREATED_AT))));
+        TaskFilterDto filter = TaskFilterDto.builder()
+                .statuses(Set.of(TaskStatus.TO_DO, TaskStatus.IN_PROGRESS))
+                .priorities(Set.of(TaskPriority.HIGH))
+                .build();
+
+        // When
+        TaskFacetIndex.Result firstPage = taskFacetIndex.search(filter,
+                PageRequest.of(0, 2, Sort.by("id").descending())).orElseThrow();
+        TaskFacetIndex.Result secondPage = taskFacetIndex.search(filter,
+                PageRequest.of(1, 2, Sort.by("id").descending())).orElseThrow();
+
+        // Then
+        assertEquals(List.of(5L, 2L), firstPage.ids());
+        assertEquals(List.of(1L), secondPage.ids());
+        assertEquals(3, firstPage.total());
+        // Status counts ignore the status criterion, priority counts the priority criterion
+        assertEquals(Map.of(TaskStatus.TO_DO, 2L, TaskStatus.IN_PROGRESS, 1L, TaskStatus.DONE, 1L),
+                firstPage.statusCounts());
+        assertEquals(Map.of(TaskPriority.LOW, 1L, TaskPriority.MED, 0L, TaskPriority.HIGH, 3L),
+                firstPage.priorityCounts());
+    }
+
+    @Test
+    void search_CreatedRange_IncludesOnlyTasksInsideTheBoundaryDays() {
+        // Given
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT.minusHours(1)),
+                task(2L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT),
+                task(3L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT.plusDays(1)),
+                task(4L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT.plusDays(2)),
+                task(5L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT.plusDays(2).plusHours(1)))));
+        TaskFilterDto filter = TaskFilterDto.builder()
+                .createdFrom(CREATED_AT)
+                .createdTo(CREATED_AT.plusDays(2).plusMinutes(30))
+                .build();
+
+        // When
+        TaskFacetIndex.Result result = taskFacetIndex.search(filter, PageRequest.of(0, 20)).orElseThrow();
+
+        // Then
+        assertEquals(List.of(2L, 3L, 4L), result.ids());
+    }
+
+    @Test
+    void onTaskChanged_MovedAndDeletedTasks_LeaveTheirOldBitmaps() {
+        // Given
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT),
+                task(2L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT))));
+        Task moved = task(1L, TaskStatus.DONE, TaskPriority.MED, CREATED_AT);
+        moved.setVersion(1L);
+
+        // When
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.changed(moved));
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.deleted(2L));
+        // An event of an older version arriving late is ignored
+        taskFacetIndex.onTaskChanged(TaskChangedEvent.changed(task(1L, TaskStatus.TO_DO, TaskPriority.MED, CREATED_AT)));
+
+        // Then
+        TaskFacetIndex.Result result = taskFacetIndex.search(new TaskFilterDto(), PageRequest.of(0, 20)).orElseThrow();
+        assertEquals(List.of(1L), result.ids());
+        assertEquals(Map.of(TaskStatus.TO_DO, 0L, TaskStatus.IN_PROGRESS, 0L, TaskStatus.DONE, 1L),
+                result.statusCounts());
+    }
+
+    @Test
+    void search_SortedByOtherProperty_ReturnsEmpty() {
+        // When & Then
+        assertTrue(taskFacetIndex.search(new TaskFilterDto(), PageRequest.of(0, 20, Sort.by("title"))).isEmpty());
+    }
+
+    private static Task task(Long id, TaskStatus status, TaskPriority priority, LocalDateTime createdAt) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(status)
+                .priority(priority)
+                .rank("i")
+                .version(0L)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.kanban.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+class TaskHistoryPartitionMaintainerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("kanban_test_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void maintainPartitions_PartitionPastRetentionWithDefaultPartition_DetachesIt() {
+        // Given
+        YearMonth expired = YearMonth.now().minusMonths(3);
+        String partition = "task_history_" + expired.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF task_history FOR VALUES FROM ('"
+                + expired.atDay(1) + "') TO ('" + expired.plusMonths(1).atDay(1) + "')");
+        jdbcTemplate.update("INSERT INTO task_history (id, task_id, action, changed_by, changed_at, tenant_id) "
+                + "VALUES (1, 1, 'CREATED', 'testuser', ?, 'default')", expired.atDay(15).atStartOfDay());
+        assertNotNull(jdbcTemplate.queryForObject("SELECT to_regclass('task_history_default')", String.class));
+        TaskHistoryPartitionMaintainer maintainer = new TaskHistoryPartitionMaintainer(
+                jdbcTemplate, transactionTemplate, 3, 2, Duration.ofSeconds(5));
+
+        // When
+        maintainer.maintainPartitions();
+
+        // Then
+        List<String> attached = jdbcTemplate.queryForList("SELECT child.relname FROM pg_inherits "
+                + "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent "
+                + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid "
+                + "WHERE parent.relname = 'task_history'", String.class);
+        assertFalse(attached.contains(partition));
+        assertTrue(attached.contains("task_history_default"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition, Integer.class));
+    }
+}
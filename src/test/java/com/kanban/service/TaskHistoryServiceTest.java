@@ -0,0 +1,102 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskHistoryDto;
+import com.kanban.dto.TaskHistoryPageDto;
+import com.kanban.entity.Task;
+import com.kanban.entity.TaskHistory;
+import com.kanban.exception.InvalidCursorException;
+import com.kanban.mapper.TaskHistoryMapper;
+import com.kanban.model.TaskHistoryAction;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskHistoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskHistoryServiceTest {
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private TaskHistoryMapper taskHistoryMapper;
+
+    @InjectMocks
+    private TaskHistoryService taskHistoryService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void record_AuthenticatedUser_StoresActorAndSnapshot() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        Task task = Task.builder().id(1L).title("Test Task").status(TaskStatus.DONE).rank("i").build();
+
+        // When
+        taskHistoryService.record(task, TaskHistoryAction.MOVED, TaskStatus.TO_DO);
+
+        // Then
+        ArgumentCaptor<TaskHistory> captor = ArgumentCaptor.forClass(TaskHistory.class);
+        verify(taskHistoryRepository).save(captor.capture());
+        TaskHistory entry = captor.getValue();
+        assertEquals("alice", entry.getChangedBy());
+        assertEquals(TaskStatus.TO_DO, entry.getFromStatus());
+        assertEquals(TaskStatus.DONE, entry.getToStatus());
+        assertEquals(1L, entry.getTaskId());
+    }
+
+    @Test
+    void getHistory_MoreEntriesThanPageSize_ReturnsCursorForNextPage() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskHistory> entries = List.of(entry(3L, now), entry(2L, now), entry(1L, now.minusMinutes(1)));
+        when(taskHistoryRepository.findByTaskIdOrderByChangedAtDescIdDesc(1L, PageRequest.of(0, 3))).thenReturn(entries);
+        when(taskHistoryMapper.toDto(any(TaskHistory.class))).thenReturn(new TaskHistoryDto());
+
+        // When
+        TaskHistoryPageDto firstPage = taskHistoryService.getHistory(1L, null, 2);
+        taskHistoryService.getHistory(1L, firstPage.getNextCursor(), 2);
+
+        // Then
+        assertEquals(2, firstPage.getContent().size());
+        assertNotNull(firstPage.getNextCursor());
+        verify(taskHistoryRepository).findByTaskIdBefore(eq(1L), eq(now), eq(2L), eq(PageRequest.of(0, 3)));
+    }
+
+    @Test
+    void getHistory_InvalidCursor_ThrowsException() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> taskHistoryService.getHistory(1L, "not-a-cursor", 20));
+        verifyNoInteractions(taskHistoryRepository);
+    }
+
+    private TaskHistory entry(Long id, LocalDateTime changedAt) {
+        return TaskHistory.builder()
+                .id(id)
+                .taskId(1L)
+                .action(TaskHistoryAction.UPDATED)
+                .changedBy("alice")
+                .changedAt(changedAt)
+                .build();
+    }
+}
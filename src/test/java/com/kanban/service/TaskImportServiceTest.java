@@ -0,0 +1,155 @@
+package com.kanban.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kanban.dto.TaskImportResultDto;
+import com.kanban.entity.Task;
+import com.kanban.exception.InvalidImportException;
+import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskStore;
+import com.kanban.security.TenantContext;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskImportServiceTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private TaskRankRebalancer taskRankRebalancer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskImportService taskImportService;
+    private final List<Task> imported = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        taskImportService = new TaskImportService(taskStore, new TransactionTemplate(transactionManager),
+                Mappers.getMapper(TaskMapper.class), taskRankRebalancer,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), eventPublisher, 1);
+        lenient().when(taskStore.importTasks(any())).thenAnswer(invocation -> {
+            Iterator<Task> tasks = invocation.getArgument(0);
+            tasks.forEachRemaining(imported::add);
+            return (long) imported.size();
+        });
+    }
+
+    @Test
+    void importTasks_Csv_ImportsValidRowsAndReportsInvalidOnes() {
+        // Given
+        when(taskStore.findFirstByStatusOrderByRankDesc(TaskStatus.TO_DO))
+                .thenReturn(Optional.of(Task.builder().rank("i").build()));
+        when(taskStore.findFirstByStatusOrderByRankDesc(TaskStatus.IN_PROGRESS)).thenReturn(Optional.empty());
+        when(taskStore.findFirstByStatusOrderByRankDesc(TaskStatus.DONE)).thenReturn(Optional.empty());
+        String csv = """
+                title,description,status,priority
+                First,,,
+                "Second, quoted","Line one
+                line two",DONE,HIGH
+                ,missing title,TO_DO,LOW
+                Third,,TO_DO,URGENT
+                Fourth,,TO_DO,LOW
+                """;
+
+        // When
+        TaskImportResultDto result = taskImportService.importTasks(body(csv), TaskImportService.Format.CSV);
+
+        // Then
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(new TaskImportResultDto.RowError(3, "Title is required")), result.getErrors());
+        assertEquals(List.of("First", "Second, quoted", "Fourth"), imported.stream().map(Task::getTitle).toList());
+        assertEquals("Line one\nline two", imported.get(1).getDescription());
+        assertEquals(TaskPriority.MED, imported.get(0).getPriority());
+        assertEquals(List.of("i00001", "i", "i00002"), imported.stream().map(Task::getRank).toList());
+        verify(taskStore, times(1)).findFirstByStatusOrderByRankDesc(TaskStatus.TO_DO);
+        verify(taskRankRebalancer).onRankAssigned(TaskStatus.TO_DO, "i00002");
+        verify(taskRankRebalancer).onRankAssigned(TaskStatus.DONE, "i");
+        verifyNoMoreInteractions(taskRankRebalancer);
+        verify(eventPublisher).publishEvent(new TasksImportedEvent(TenantContext.DEFAULT_TENANT, 3));
+    }
+
+    @Test
+    void importTasks_NdjsonWithBrokenLine_RejectsWholeImport() {
+        // Given
+        lenient().when(taskStore.findFirstByStatusOrderByRankDesc(any())).thenReturn(Optional.empty());
+        String ndjson = """
+                {"title": "First", "status": "IN_PROGRESS"}
+                {"title": "Second"
+                """;
+
+        // When
+        InvalidImportException exception = assertThrows(InvalidImportException.class,
+                () -> taskImportService.importTasks(body(ndjson), TaskImportService.Format.NDJSON));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("Malformed input at row 2"));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void importTasks_OpensTransactionOnlyAfterTheBodyIsRead() {
+        // Given
+        when(taskStore.findFirstByStatusOrderByRankDesc(any())).thenReturn(Optional.empty());
+        AtomicBoolean bodyRead = new AtomicBoolean();
+        InputStream body = new FilterInputStream(body("{\"title\": \"First\"}\n{\"title\": \"Second\"}\n")) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read < 0) {
+                    bodyRead.set(true);
+                }
+                return read;
+            }
+        };
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            assertTrue(bodyRead.get(), "transaction opened while the upload was still being read");
+            return new SimpleTransactionStatus();
+        });
+
+        // When
+        TaskImportResultDto result = taskImportService.importTasks(body, TaskImportService.Format.NDJSON);
+
+        // Then
+        assertEquals(2, result.getImported());
+        assertEquals(List.of("First", "Second"), imported.stream().map(Task::getTitle).toList());
+        verify(transactionManager).commit(any());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
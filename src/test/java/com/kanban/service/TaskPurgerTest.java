@@ -0,0 +1,64 @@
+package com.kanban.service;
+
+import com.kanban.repository.TaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskPurgerTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskPurger taskPurger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskPurger = new TaskPurger(taskStore, new TransactionTemplate(transactionManager), meterRegistry,
+                Duration.ofDays(7), 2, Duration.ZERO, 3);
+    }
+
+    @Test
+    void purgeDeletedTasks_StopsWhenBatchIsNotFull() {
+        // Given
+        when(taskStore.purgeDeletedBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 1);
+
+        // When
+        taskPurger.purgeDeletedTasks();
+
+        // Then
+        verify(taskStore, times(2)).purgeDeletedBefore(any(LocalDateTime.class), eq(2));
+        assertEquals(3, meterRegistry.get("tasks.purged").counter().count());
+    }
+
+    @Test
+    void purgeDeletedTasks_StopsAfterMaxBatchesPerRun() {
+        // Given
+        when(taskStore.purgeDeletedBefore(any(LocalDateTime.class), eq(2))).thenReturn(2);
+
+        // When
+        taskPurger.purgeDeletedTasks();
+
+        // Then
+        verify(taskStore, times(3)).purgeDeletedBefore(any(LocalDateTime.class), eq(2));
+    }
+}
@@ -0,0 +1,112 @@
+package com.kanban.service;
+
+import com.kanban.entity.Task;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.TaskStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskRankRebalancerTest {
+
+    @Mock
+    private TaskStore taskStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskRankRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        rebalancer = new TaskRankRebalancer(taskStore, new TransactionTemplate(transactionManager), eventPublisher, 4);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebalance_RewritesOnlyTheOverLongRanks() {
+        // Given
+        Task first = task(1L, "a");
+        Task squeezed = task(2L, "a0000z1");
+        Task last = task(3L, "b");
+        when(taskStore.findByStatusForRebalance(TaskStatus.TO_DO)).thenReturn(List.of(first, squeezed, last));
+        when(taskStore.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        rebalancer.rebalance(TaskStatus.TO_DO);
+
+        // Then
+        ArgumentCaptor<Iterable<Task>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(taskStore).saveAllAndFlush(saved.capture());
+        assertEquals(List.of(squeezed), saved.getValue());
+        assertEquals("ai", squeezed.getRank());
+        assertEquals("a", first.getRank());
+        assertEquals("b", last.getRank());
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebalance_GapTooNarrow_RenumbersTheColumn() {
+        // Given
+        List<Task> tasks = List.of(task(1L, "a"), task(2L, "a0000z1"), task(3L, "a001"));
+        when(taskStore.findByStatusForRebalance(TaskStatus.TO_DO)).thenReturn(tasks);
+        when(taskStore.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        rebalancer.rebalance(TaskStatus.TO_DO);
+
+        // Then
+        ArgumentCaptor<Iterable<Task>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(taskStore).saveAllAndFlush(saved.capture());
+        List<Task> changed = new ArrayList<>();
+        saved.getValue().forEach(changed::add);
+        assertEquals(List.of(1L, 2L, 3L), changed.stream().map(Task::getId).toList());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTrue(tasks.get(i).getRank().length() <= 4);
+            if (i > 0) {
+                assertTrue(tasks.get(i - 1).getRank().compareTo(tasks.get(i).getRank()) < 0);
+            }
+        }
+    }
+
+    @Test
+    void rebalance_NoOverLongRanks_SavesNothing() {
+        // Given
+        when(taskStore.findByStatusForRebalance(TaskStatus.TO_DO)).thenReturn(List.of(task(1L, "a"), task(2L, "b")));
+
+        // When
+        rebalancer.rebalance(TaskStatus.TO_DO);
+
+        // Then
+        verify(taskStore, never()).saveAllAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Task task(Long id, String rank) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(TaskStatus.TO_DO)
+                .rank(rank)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.entity.Task;
+import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskStatus;
+import com.kanban.security.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskReadModelTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskReadModel taskReadModel;
+
+    @BeforeEach
+    void setUp() {
+        taskReadModel = new TaskReadModel(Mappers.getMapper(TaskMapper.class), jdbcTemplate,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), true, 100);
+        // The mocked database is empty; tasks arrive through events
+        taskReadModel.loadOnStartup();
+    }
+
+    @Test
+    void findAll_NotLoaded_ReturnsEmpty() {
+        // Given
+        TaskReadModel notLoaded = new TaskReadModel(Mappers.getMapper(TaskMapper.class), jdbcTemplate,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), false, 100);
+
+        // When
+        Optional<Page<TaskResponseDto>> result = notLoaded.findAll(null, PageRequest.of(0, 20));
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findAll_PagesByCreatedAtAndFiltersByStatus() {
+        // Given
+        for (long id = 1; id <= 5; id++) {
+            taskReadModel.onTaskChanged(TaskChangedEvent.changed(
+                    task(id, id % 2 == 0 ? TaskStatus.DONE : TaskStatus.TO_DO, 0L)));
+        }
+
+        // When
+        Page<TaskResponseDto> firstPage = taskReadModel.findAll(null,
+                PageRequest.of(0, 2, Sort.by("createdAt").descending())).orElseThrow();
+        Page<TaskResponseDto> lastPage = taskReadModel.findAll(null,
+                PageRequest.of(2, 2, Sort.by("createdAt").descending())).orElseThrow();
+        Page<TaskResponseDto> done = taskReadModel.findAll(TaskStatus.DONE,
+                PageRequest.of(0, 20, Sort.by("createdAt"))).orElseThrow();
+
+        // Then
+        assertEquals(List.of(5L, 4L), firstPage.map(TaskResponseDto::getId).getContent());
+        assertEquals(5, firstPage.getTotalElements());
+        assertEquals(List.of(1L), lastPage.map(TaskResponseDto::getId).getContent());
+        assertEquals(List.of(2L, 4L), done.map(TaskResponseDto::getId).getContent());
+        assertEquals(2, done.getTotalElements());
+    }
+
+    @Test
+    void onTaskChanged_OlderVersion_IsIgnored() {
+        // Given
+        taskReadModel.onTaskChanged(TaskChangedEvent.changed(task(1L, TaskStatus.DONE, 2L)));
+
+        // When
+        taskReadModel.onTaskChanged(TaskChangedEvent.changed(task(1L, TaskStatus.TO_DO, 1L)));
+
+        // Then
+        Page<TaskResponseDto> page = taskReadModel.findAll(null, PageRequest.of(0, 20)).orElseThrow();
+        assertEquals(TaskStatus.DONE, page.getContent().get(0).getStatus());
+        assertEquals(0, taskReadModel.findAll(TaskStatus.TO_DO, PageRequest.of(0, 20)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void onTaskChanged_Deleted_RemovesTask() {
+        // Given
+        taskReadModel.onTaskChanged(TaskChangedEvent.changed(task(1L, TaskStatus.TO_DO, 0L)));
+
+        // When
+        taskReadModel.onTaskChanged(TaskChangedEvent.deleted(1L));
+
+        // Then
+        assertEquals(0, taskReadModel.findAll(null, PageRequest.of(0, 20)).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    void findAll_OtherTenantOrUnindexedSort_IsNotServedFromTenantBoard() {
+        // Given
+        TenantContext.runAs("acme", () ->
+                taskReadModel.onTaskChanged(TaskChangedEvent.changed(task(1L, TaskStatus.TO_DO, 0L))));
+
+        // When
+        Page<TaskResponseDto> defaultTenant = taskReadModel.findAll(null, PageRequest.of(0, 20)).orElseThrow();
+        Optional<Page<TaskResponseDto>> byTitle = taskReadModel.findAll(null, PageRequest.of(0, 20, Sort.by("title")));
+
+        // Then
+        assertEquals(0, defaultTenant.getTotalElements());
+        assertTrue(byTitle.isEmpty());
+    }
+
+    private static Task task(Long id, TaskStatus status, Long version) {
+        return Task.builder()
+                .id(id)
+                .title("Task " + id)
+                .status(status)
+                .rank("i")
+                .version(version)
+                .createdAt(CREATED_AT.plusMinutes(id))
+                .updatedAt(CREATED_AT.plusMinutes(id))
+                .build();
+    }
+}
@@ -1,19 +1,28 @@
 package com.kanban.service;
 
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskFacetPageDto;
+import com.kanban.dto.TaskFilterDto;
+import com.kanban.dto.TaskMoveRequestDto;
 import com.kanban.dto.TaskRequestDto;
 import com.kanban.dto.TaskResponseDto;
+import com.kanban.dto.TaskSuggestionDto;
 import com.kanban.entity.Task;
+import com.kanban.exception.InvalidTaskMoveException;
 import com.kanban.exception.ResourceNotFoundException;
 import com.kanban.mapper.TaskMapper;
+import com.kanban.model.TaskHistoryAction;
 import com.kanban.model.TaskPriority;
 import com.kanban.model.TaskStatus;
-import com.kanban.repository.TaskRepository;
+import com.kanban.repository.TaskFacetCount;
+import com.kanban.repository.TaskStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -22,7 +31,9 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -33,11 +44,26 @@ import static org.mockito.Mockito.*;
 class TaskServiceTest {
 
     @Mock
-    private TaskRepository taskRepository;
+    private TaskStore taskStore;
 
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskRankRebalancer taskRankRebalancer;
+
+    @Mock
+    private TaskHistoryService taskHistoryService;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskFacetIndex taskFacetIndex;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -53,6 +79,7 @@ class TaskServiceTest {
                 .description("Test Description")
                 .status(TaskStatus.TO_DO)
                 .priority(TaskPriority.MED)
+                .rank("i")
                 .version(0L)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -84,7 +111,7 @@ class TaskServiceTest {
         List<Task> tasks = Arrays.asList(task);
         Page<Task> taskPage = new PageImpl<>(tasks, pageable, 1);
 
-        when(taskRepository.findAll(pageable)).thenReturn(taskPage);
+        when(taskStore.findAll(pageable)).thenReturn(taskPage);
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
@@ -93,7 +120,7 @@ class TaskServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(taskRepository).findAll(pageable);
+        verify(taskStore).findAll(pageable);
         verify(taskMapper).toDto(task);
     }
 
@@ -104,7 +131,7 @@ class TaskServiceTest {
         List<Task> tasks = Arrays.asList(task);
         Page<Task> taskPage = new PageImpl<>(tasks, pageable, 1);
 
-        when(taskRepository.findByStatus(TaskStatus.TO_DO, pageable)).thenReturn(taskPage);
+        when(taskStore.findByStatus(TaskStatus.TO_DO, pageable)).thenReturn(taskPage);
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
@@ -113,14 +140,14 @@ class TaskServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(taskRepository).findByStatus(TaskStatus.TO_DO, pageable);
+        verify(taskStore).findByStatus(TaskStatus.TO_DO, pageable);
         verify(taskMapper).toDto(task);
     }
 
     @Test
     void getTaskById_ExistingId_ReturnsTask() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
@@ -129,26 +156,41 @@ class TaskServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(taskRepository).findById(1L);
+        verify(taskStore).findById(1L);
         verify(taskMapper).toDto(task);
     }
 
     @Test
     void getTaskById_NonExistingId_ThrowsException() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskStore.findById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(1L));
-        verify(taskRepository).findById(1L);
+        verify(taskStore).findById(1L);
         verify(taskMapper, never()).toDto(any());
     }
 
+    @Test
+    void getTasksByIds_ReturnsTasksKeyedById() {
+        // Given
+        when(taskStore.findAllById(List.of(1L, 2L))).thenReturn(List.of(task));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        Map<Long, TaskResponseDto> result = taskService.getTasksByIds(List.of(1L, 2L));
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(taskResponseDto, result.get(1L));
+        verify(taskStore).findAllById(List.of(1L, 2L));
+    }
+
     @Test
     void createTask_ValidRequest_ReturnsCreatedTask() {
         // Given
         when(taskMapper.toEntity(taskRequestDto)).thenReturn(task);
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskStore.save(any(Task.class))).thenReturn(task);
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
@@ -158,79 +200,373 @@ class TaskServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(taskMapper).toEntity(taskRequestDto);
-        verify(taskRepository).save(any(Task.class));
+        verify(taskStore).save(any(Task.class));
         verify(taskMapper).toDto(task);
+        verify(taskHistoryService).record(task, TaskHistoryAction.CREATED, null);
     }
 
     @Test
     void updateTask_ExistingId_ReturnsUpdatedTask() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        doAnswer(invocation -> {
+            invocation.<Task>getArgument(1).setTitle("Renamed Task");
+            return null;
+        }).when(taskMapper).updateEntityFromDto(taskRequestDto, task);
+        when(taskStore.save(task)).thenReturn(task);
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
-        TaskResponseDto result = taskService.updateTask(1L, taskRequestDto);
+        TaskUpdateResult result = taskService.updateTask(1L, taskRequestDto);
 
         // Then
-        assertNotNull(result);
-        verify(taskRepository).findById(1L);
+        assertSame(taskResponseDto, result.task());
+        assertEquals(Map.of("title", "Renamed Task"), result.changes());
+        verify(taskStore).findById(1L);
         verify(taskMapper).updateEntityFromDto(taskRequestDto, task);
-        verify(taskRepository).save(task);
+        verify(taskStore).save(task);
         verify(taskMapper).toDto(task);
     }
 
+    @Test
+    void updateTask_UnchangedPayload_WritesNothing() {
+        // Given
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        TaskUpdateResult result = taskService.updateTask(1L, taskRequestDto);
+
+        // Then
+        assertFalse(result.changed());
+        assertSame(taskResponseDto, result.task());
+        verify(taskStore, never()).save(any());
+        verifyNoInteractions(taskHistoryService, eventPublisher);
+    }
+
     @Test
     void updateTask_NonExistingId_ThrowsException() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskStore.findById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(1L, taskRequestDto));
-        verify(taskRepository).findById(1L);
-        verify(taskRepository, never()).save(any());
+        verify(taskStore).findById(1L);
+        verify(taskStore, never()).save(any());
     }
 
     @Test
     void partialUpdateTask_ExistingId_ReturnsUpdatedTask() {
         // Given
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        doAnswer(invocation -> {
+            invocation.<Task>getArgument(1).setPriority(TaskPriority.HIGH);
+            return null;
+        }).when(taskMapper).partialUpdateEntityFromDto(taskRequestDto, task);
+        when(taskStore.save(task)).thenReturn(task);
         when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
 
         // When
-        TaskResponseDto result = taskService.partialUpdateTask(1L, taskRequestDto);
+        TaskUpdateResult result = taskService.partialUpdateTask(1L, taskRequestDto);
 
         // Then
-        assertNotNull(result);
-        verify(taskRepository).findById(1L);
+        assertEquals(Map.of("priority", TaskPriority.HIGH), result.changes());
+        verify(taskStore).findById(1L);
         verify(taskMapper).partialUpdateEntityFromDto(taskRequestDto, task);
-        verify(taskRepository).save(task);
+        verify(taskStore).save(task);
         verify(taskMapper).toDto(task);
     }
 
+    @Test
+    void partialUpdateTask_StatusChange_ReportsNewRank() {
+        // Given
+        TaskRequestDto toDone = TaskRequestDto.builder().status(TaskStatus.DONE).build();
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        doAnswer(invocation -> {
+            invocation.<Task>getArgument(1).setStatus(TaskStatus.DONE);
+            return null;
+        }).when(taskMapper).partialUpdateEntityFromDto(toDone, task);
+        when(taskStore.save(task)).thenReturn(task);
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        TaskUpdateResult result = taskService.partialUpdateTask(1L, toDone);
+
+        // Then
+        assertEquals(List.of("status", "rank"), List.copyOf(result.changes().keySet()));
+        assertEquals(task.getRank(), result.changes().get("rank"));
+        assertEquals(TaskStatus.TO_DO, result.task().getPreviousStatus());
+        verify(taskHistoryService).record(task, TaskHistoryAction.UPDATED, TaskStatus.TO_DO);
+    }
+
+    @Test
+    void searchTasks_IndexNotServing_QueriesStoreAndCountsFacets() {
+        // Given
+        TaskFilterDto filter = TaskFilterDto.builder().statuses(Set.of(TaskStatus.TO_DO)).build();
+        Pageable pageable = PageRequest.of(0, 20);
+        when(taskFacetIndex.search(filter, pageable)).thenReturn(Optional.empty());
+        when(taskStore.findByFilter(eq(Set.of(TaskStatus.TO_DO)), eq(Set.of(TaskPriority.values())), any(), any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task), pageable, 1));
+        when(taskStore.countByStatusAndPriority(any(), any())).thenReturn(List.of(
+                new TaskFacetCount(TaskStatus.TO_DO, TaskPriority.MED, 1L),
+                new TaskFacetCount(TaskStatus.DONE, TaskPriority.HIGH, 2L)));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        TaskFacetPageDto result = taskService.searchTasks(filter, pageable);
+
+        // Then
+        assertEquals(List.of(taskResponseDto), result.getContent());
+        assertEquals(1, result.getTotalElements());
+        assertEquals(List.of(
+                new TaskFacetPageDto.FacetCount<>(TaskStatus.TO_DO, 1L),
+                new TaskFacetPageDto.FacetCount<>(TaskStatus.IN_PROGRESS, 0L),
+                new TaskFacetPageDto.FacetCount<>(TaskStatus.DONE, 2L)), result.getStatusCounts());
+        // Only TO_DO tasks count towards the priorities
+        assertEquals(List.of(
+                new TaskFacetPageDto.FacetCount<>(TaskPriority.LOW, 0L),
+                new TaskFacetPageDto.FacetCount<>(TaskPriority.MED, 1L),
+                new TaskFacetPageDto.FacetCount<>(TaskPriority.HIGH, 0L)), result.getPriorityCounts());
+    }
+
+    @Test
+    void searchTasks_FromIndex_LoadsOnlyThePageRows() {
+        // Given
+        TaskFilterDto filter = new TaskFilterDto();
+        Pageable pageable = PageRequest.of(0, 2);
+        Task other = Task.builder().id(2L).title("Other Task").status(TaskStatus.TO_DO).build();
+        TaskResponseDto otherDto = TaskResponseDto.builder().id(2L).build();
+        when(taskFacetIndex.search(filter, pageable)).thenReturn(Optional.of(new TaskFacetIndex.Result(
+                List.of(2L, 1L), 5, Map.of(TaskStatus.TO_DO, 5L), Map.of(TaskPriority.MED, 5L))));
+        when(taskStore.findAllById(List.of(2L, 1L))).thenReturn(List.of(task, other));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+        when(taskMapper.toDto(other)).thenReturn(otherDto);
+
+        // When
+        TaskFacetPageDto result = taskService.searchTasks(filter, pageable);
+
+        // Then
+        assertEquals(List.of(otherDto, taskResponseDto), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        verify(taskStore, never()).findByFilter(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void suggestTasks_QueriesStoreWithTrimmedText() {
+        // Given
+        TaskSuggestionDto suggestion = TaskSuggestionDto.builder().id(1L).title("Test Task").build();
+        when(taskStore.findByTitleWordPrefix("test", 5)).thenReturn(List.of(task));
+        when(taskMapper.toSuggestionDto(task)).thenReturn(suggestion);
+
+        // When
+        List<TaskSuggestionDto> result = taskService.suggestTasks("  test ", 5);
+
+        // Then
+        assertEquals(List.of(suggestion), result);
+        assertEquals(List.of(), taskService.suggestTasks("   ", 5));
+        verify(taskStore, times(1)).findByTitleWordPrefix(any(), anyInt());
+    }
+
+    @Test
+    void createTask_NonEmptyColumn_AppendsToBottom() {
+        // Given
+        Task last = Task.builder().id(2L).status(TaskStatus.TO_DO).rank("m").build();
+        when(taskMapper.toEntity(taskRequestDto)).thenReturn(task);
+        when(taskStore.findFirstByStatusOrderByRankDesc(TaskStatus.TO_DO)).thenReturn(Optional.of(last));
+        when(taskStore.save(any(Task.class))).thenReturn(task);
+
+        // When
+        taskService.createTask(taskRequestDto);
+
+        // Then
+        assertTrue(task.getRank().compareTo("m") > 0);
+    }
+
+    @Test
+    void batchPartialUpdateTasks_StatusChanges_AppendsInBatchOrder() {
+        // Given
+        Task other = Task.builder().id(2L).title("Other Task").status(TaskStatus.TO_DO).rank("j").build();
+        Task last = Task.builder().id(3L).status(TaskStatus.DONE).rank("m").build();
+        TaskRequestDto toDone = TaskRequestDto.builder().status(TaskStatus.DONE).build();
+        when(taskStore.findAllById(any())).thenReturn(List.of(task, other));
+        when(taskStore.findFirstByStatusOrderByRankDesc(TaskStatus.DONE)).thenReturn(Optional.of(last));
+        doAnswer(invocation -> {
+            invocation.<Task>getArgument(1).setStatus(TaskStatus.DONE);
+            return null;
+        }).when(taskMapper).partialUpdateEntityFromDto(eq(toDone), any(Task.class));
+        when(taskStore.saveAllAndFlush(any())).thenReturn(List.of(task, other));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+        when(taskMapper.toDto(other)).thenReturn(TaskResponseDto.builder().id(2L).build());
+
+        // When
+        TaskBatchUpdateResult result = taskService.batchPartialUpdateTasks(List.of(
+                TaskBatchUpdateDto.builder().id(1L).changes(toDone).build(),
+                TaskBatchUpdateDto.builder().id(2L).changes(toDone).build()));
+
+        // Then
+        assertEquals(List.of(TaskStatus.TO_DO, TaskStatus.TO_DO), result.tasks().stream().map(TaskResponseDto::getPreviousStatus).toList());
+        assertEquals(result.tasks(), result.changed());
+        assertTrue(task.getRank().compareTo("m") > 0);
+        assertTrue(other.getRank().compareTo(task.getRank()) > 0);
+        verify(taskStore).findFirstByStatusOrderByRankDesc(TaskStatus.DONE);
+        verify(taskStore).saveAllAndFlush(any());
+    }
+
+    @Test
+    void batchPartialUpdateTasks_NothingChanges_ReportsNoChangedTasksAndPublishesNothing() {
+        // Given
+        when(taskStore.findAllById(any())).thenReturn(List.of(task));
+        when(taskStore.saveAllAndFlush(any())).thenReturn(List.of());
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        TaskBatchUpdateResult result = taskService.batchPartialUpdateTasks(List.of(
+                TaskBatchUpdateDto.builder().id(1L).changes(taskRequestDto).build()));
+
+        // Then
+        assertEquals(List.of(taskResponseDto), result.tasks());
+        assertEquals(List.of(), result.changed());
+        verify(taskHistoryService, never()).record(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void batchPartialUpdateTasks_UnknownId_ThrowsException() {
+        // Given
+        when(taskStore.findAllById(any())).thenReturn(List.of(task));
+        List<TaskBatchUpdateDto> updates = List.of(
+                TaskBatchUpdateDto.builder().id(1L).changes(taskRequestDto).build(),
+                TaskBatchUpdateDto.builder().id(99L).changes(taskRequestDto).build());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> taskService.batchPartialUpdateTasks(updates));
+        verify(taskStore, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void moveTask_BetweenNeighbours_AssignsRankBetweenThem() {
+        // Given
+        Task after = Task.builder().id(2L).status(TaskStatus.IN_PROGRESS).rank("a").build();
+        Task before = Task.builder().id(3L).status(TaskStatus.IN_PROGRESS).rank("c").build();
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        when(taskStore.findById(2L)).thenReturn(Optional.of(after));
+        when(taskStore.findById(3L)).thenReturn(Optional.of(before));
+        when(taskStore.save(task)).thenReturn(task);
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+        TaskMoveRequestDto moveRequest = TaskMoveRequestDto.builder()
+                .status(TaskStatus.IN_PROGRESS)
+                .afterTaskId(2L)
+                .beforeTaskId(3L)
+                .build();
+
+        // When
+        taskService.moveTask(1L, moveRequest);
+
+        // Then
+        assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+        assertTrue(task.getRank().compareTo("a") > 0 && task.getRank().compareTo("c") < 0);
+        verify(taskStore).save(task);
+        verify(taskRankRebalancer).onRankAssigned(TaskStatus.IN_PROGRESS, task.getRank());
+        verify(taskHistoryService).record(task, TaskHistoryAction.MOVED, TaskStatus.TO_DO);
+    }
+
+    @Test
+    void moveTask_BetweenTiedNeighbours_SpreadsTiedRanksByIdFirst() {
+        // Given
+        Task after = Task.builder().id(2L).status(TaskStatus.IN_PROGRESS).rank("m").build();
+        Task before = Task.builder().id(3L).status(TaskStatus.IN_PROGRESS).rank("m").build();
+        Task alsoTied = Task.builder().id(4L).status(TaskStatus.IN_PROGRESS).rank("m").build();
+        Task next = Task.builder().id(5L).status(TaskStatus.IN_PROGRESS).rank("t").build();
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        when(taskStore.findById(2L)).thenReturn(Optional.of(after));
+        when(taskStore.findById(3L)).thenReturn(Optional.of(before));
+        when(taskStore.findByStatusForRebalance(TaskStatus.IN_PROGRESS)).thenReturn(List.of(after, before, alsoTied, next));
+        when(taskStore.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(taskStore.save(task)).thenReturn(task);
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+        TaskMoveRequestDto moveRequest = TaskMoveRequestDto.builder()
+                .status(TaskStatus.IN_PROGRESS)
+                .afterTaskId(2L)
+                .beforeTaskId(3L)
+                .build();
+
+        // When
+        taskService.moveTask(1L, moveRequest);
+
+        // Then
+        verify(taskStore).lockColumn(TaskStatus.IN_PROGRESS);
+        assertEquals("m", after.getRank());
+        assertTrue(task.getRank().compareTo("m") > 0);
+        assertTrue(task.getRank().compareTo(before.getRank()) < 0);
+        assertTrue(before.getRank().compareTo(alsoTied.getRank()) < 0);
+        assertTrue(alsoTied.getRank().compareTo("t") < 0);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.changed(List.of(before, alsoTied, task)));
+    }
+
+    @Test
+    void moveTask_NeighbourInOtherColumn_ThrowsException() {
+        // Given
+        Task after = Task.builder().id(2L).status(TaskStatus.DONE).rank("a").build();
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        when(taskStore.findById(2L)).thenReturn(Optional.of(after));
+        TaskMoveRequestDto moveRequest = TaskMoveRequestDto.builder()
+                .status(TaskStatus.IN_PROGRESS)
+                .afterTaskId(2L)
+                .build();
+
+        // When & Then
+        assertThrows(InvalidTaskMoveException.class, () -> taskService.moveTask(1L, moveRequest));
+        verify(taskStore, never()).save(any());
+    }
+
     @Test
     void deleteTask_ExistingId_DeletesTask() {
         // Given
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        when(taskStore.existsById(1L)).thenReturn(true);
 
         // When
         taskService.deleteTask(1L);
 
         // Then
-        verify(taskRepository).existsById(1L);
-        verify(taskRepository).deleteById(1L);
+        verify(taskStore).existsById(1L);
+        verify(taskStore).deleteById(1L);
+        verify(taskHistoryService).recordDeletion(1L);
+    }
+
+    @Test
+    void restoreTask_DeletedTask_ReturnsRestoredTask() {
+        // Given
+        when(taskStore.restoreById(1L, "default")).thenReturn(1);
+        when(taskStore.findById(1L)).thenReturn(Optional.of(task));
+        when(taskMapper.toDto(task)).thenReturn(taskResponseDto);
+
+        // When
+        TaskResponseDto result = taskService.restoreTask(1L);
+
+        // Then
+        assertEquals(1L, result.getId());
+        verify(taskHistoryService).record(task, TaskHistoryAction.RESTORED, null);
+    }
+
+    @Test
+    void restoreTask_NotDeleted_ThrowsException() {
+        // Given
+        when(taskStore.restoreById(1L, "default")).thenReturn(0);
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> taskService.restoreTask(1L));
+        verify(taskStore, never()).findById(any());
     }
 
     @Test
     void deleteTask_NonExistingId_ThrowsException() {
         // Given
-        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskStore.existsById(1L)).thenReturn(false);
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(1L));
-        verify(taskRepository).existsById(1L);
-        verify(taskRepository, never()).deleteById(any());
+        verify(taskStore).existsById(1L);
+        verify(taskStore, never()).deleteById(any());
     }
 }
 
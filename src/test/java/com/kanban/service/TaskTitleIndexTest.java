@@ -0,0 +1,199 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskSuggestionDto;
+import com.kanban.entity.Task;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import com.kanban.repository.EmbeddedTaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskTitleIndexTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskTitleIndex taskTitleIndex;
+
+    @BeforeEach
+    void setUp() {
+        taskTitleIndex = newIndex(true, DataSize.ofMegabytes(64));
+        // The mocked database is empty; tasks arrive through events
+        taskTitleIndex.loadOnStartup();
+    }
+
+    @Test
+    void suggest_NotLoaded_ReturnsEmpty() {
+        // Given
+        TaskTitleIndex notLoaded = newIndex(false, DataSize.ofMegabytes(1));
+
+        // When & Then
+        assertTrue(notLoaded.suggest("fix", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_EveryQueryWordPrefixesATitleWord() {
+        // Given
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, "Fix the login page", TaskPriority.MED, UPDATED_AT),
+                task(2L, "Login fails on Safari", TaskPriority.MED, UPDATED_AT),
+                task(3L, "Prefix search for logs", TaskPriority.MED, UPDATED_AT),
+                task(4L, "Write release notes", TaskPriority.MED, UPDATED_AT))));
+
+        // When
+        List<TaskSuggestionDto> suggestions = taskTitleIndex.suggest("LOG fi", 10).orElseThrow();
+
+        // Then
+        // "Prefix" contains but does not start with "fi"
+        assertEquals(List.of(2L, 1L), ids(suggestions));
+        assertEquals("Login fails on Safari", suggestions.get(0).getTitle());
+        assertEquals(List.of(), taskTitleIndex.suggest("  ", 10).orElseThrow());
+        assertEquals(List.of(), taskTitleIndex.suggest("zebra", 10).orElseThrow());
+    }
+
+    @Test
+    void suggest_RanksByPriorityThenRecency() {
+        // Given
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, "Deploy api", TaskPriority.LOW, UPDATED_AT.plusDays(3)),
+                task(2L, "Deploy web", TaskPriority.HIGH, UPDATED_AT),
+                task(3L, "Deploy docs", TaskPriority.MED, UPDATED_AT.plusDays(1)),
+                task(4L, "Deploy worker", TaskPriority.HIGH, UPDATED_AT.plusDays(2)))));
+
+        // When
+        List<TaskSuggestionDto> suggestions = taskTitleIndex.suggest("dep", 3).orElseThrow();
+
+        // Then
+        assertEquals(List.of(4L, 2L, 3L), ids(suggestions));
+    }
+
+    @Test
+    void suggest_CommonPrefix_WalksTasksInRankingOrder() {
+        // Given
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= TaskTitleIndex.RANKED_SCAN_THRESHOLD + 10; id++) {
+            tasks.add(task(id, "Task " + id, id % 2 == 0 ? TaskPriority.HIGH : TaskPriority.LOW, UPDATED_AT.plusMinutes(id)));
+        }
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(tasks));
+
+        // When
+        List<TaskSuggestionDto> suggestions = taskTitleIndex.suggest("task", 2).orElseThrow();
+
+        // Then
+        long newestHigh = (TaskTitleIndex.RANKED_SCAN_THRESHOLD + 10) / 2 * 2;
+        assertEquals(List.of(newestHigh, newestHigh - 2), ids(suggestions));
+    }
+
+    @Test
+    void onTaskChanged_RenamedAndDeletedTasks_LeaveTheirOldWords() {
+        // Given
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, "Old name", TaskPriority.MED, UPDATED_AT),
+                task(2L, "Old report", TaskPriority.MED, UPDATED_AT))));
+        Task renamed = task(1L, "New name", TaskPriority.MED, UPDATED_AT.plusHours(1));
+        renamed.setVersion(1L);
+
+        // When
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(renamed));
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.deleted(2L));
+        // An event of an older version arriving late is ignored
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(task(1L, "Old name", TaskPriority.MED, UPDATED_AT)));
+
+        // Then
+        assertEquals(List.of(), taskTitleIndex.suggest("old", 10).orElseThrow());
+        assertEquals(List.of(1L), ids(taskTitleIndex.suggest("new", 10).orElseThrow()));
+    }
+
+    @Test
+    void onTaskChanged_OverMemoryBudget_DropsTheIndex() {
+        // Given
+        TaskTitleIndex small = newIndex(true, DataSize.ofBytes(TaskTitleIndex.BASE_BYTES_PER_TASK * 3));
+        small.loadOnStartup();
+
+        // When
+        small.onTaskChanged(TaskChangedEvent.changed(List.of(
+                task(1L, "First", TaskPriority.MED, UPDATED_AT),
+                task(2L, "Second", TaskPriority.MED, UPDATED_AT),
+                task(3L, "Third", TaskPriority.MED, UPDATED_AT))));
+
+        // Then
+        assertFalse(small.isServing());
+        assertTrue(small.suggest("first", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_SameFixtures_FindsWhatTheStoreFallbackFinds(@TempDir Path directory) {
+        // Given
+        EmbeddedTaskStore store = new EmbeddedTaskStore(new SimpleMeterRegistry(), directory,
+                DataSize.ofKilobytes(64), false, 0.5);
+        List<Task> saved = new ArrayList<>();
+        for (String title : List.of("Fix the login page", "Login fails on Safari", "Prefix search for logs",
+                "fix-login: retry", "Résumé upload (v2)", "Release 2024.1 notes", "LOGGING overhaul")) {
+            saved.add(store.save(Task.builder()
+                    .title(title)
+                    .status(TaskStatus.TO_DO)
+                    .priority(title.length() % 2 == 0 ? TaskPriority.HIGH : TaskPriority.MED)
+                    .rank("i")
+                    .build()));
+        }
+        taskTitleIndex.onTaskChanged(TaskChangedEvent.changed(saved));
+
+        try {
+            for (String query : List.of("log fi", "LOG", "fix-log", "  the   fix ", "rés", "2024 notes", "v2",
+                    "fi", "zebra", "--")) {
+                // When
+                List<Long> fromIndex = ids(taskTitleIndex.suggest(query, 3).orElseThrow());
+                List<Long> fromStore = store.findByTitleWordPrefix(query, 3).stream().map(Task::getId).toList();
+
+                // Then
+                assertEquals(fromIndex, fromStore, "Suggestions for \"" + query + "\"");
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private TaskTitleIndex newIndex(boolean enabled, DataSize maxMemory) {
+        return new TaskTitleIndex(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), enabled, 100, maxMemory);
+    }
+
+    private static List<Long> ids(List<TaskSuggestionDto> suggestions) {
+        return suggestions.stream().map(TaskSuggestionDto::getId).toList();
+    }
+
+    private static Task task(Long id, String title, TaskPriority priority, LocalDateTime updatedAt) {
+        return Task.builder()
+                .id(id)
+                .title(title)
+                .status(TaskStatus.TO_DO)
+                .priority(priority)
+                .rank("i")
+                .version(0L)
+                .createdAt(UPDATED_AT)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
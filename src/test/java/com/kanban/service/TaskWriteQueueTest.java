@@ -0,0 +1,185 @@
+package com.kanban.service;
+
+import com.kanban.dto.TaskBatchUpdateDto;
+import com.kanban.dto.TaskMoveRequestDto;
+import com.kanban.dto.TaskRequestDto;
+import com.kanban.dto.TaskResponseDto;
+import com.kanban.exception.ConflictingUpdateException;
+import com.kanban.model.TaskPriority;
+import com.kanban.model.TaskStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskWriteQueueTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+    private final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstWrite.countDown();
+        requests.shutdownNow();
+    }
+
+    @Test
+    void partialUpdateTask_ConcurrentPatchesOfDifferentFields_AreWrittenOnce() throws Exception {
+        // Given
+        TaskWriteQueue writeQueue = new TaskWriteQueue(taskService, meterRegistry, true);
+        TaskResponseDto merged = task(TaskStatus.DONE);
+        blockFirstPartialUpdate(merged);
+        Future<TaskUpdateResult> first = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Renamed", null, null)));
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        Future<TaskUpdateResult> status = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch(null, TaskStatus.DONE, null)));
+        Future<TaskUpdateResult> priority = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch(null, null, TaskPriority.HIGH)));
+        Future<TaskUpdateResult> sameTitle = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Renamed", TaskStatus.DONE, null)));
+        awaitQueued(3);
+        releaseFirstWrite.countDown();
+
+        // Then
+        assertSame(merged, first.get(1, TimeUnit.SECONDS).task());
+        assertSame(merged, status.get(1, TimeUnit.SECONDS).task());
+        assertSame(merged, priority.get(1, TimeUnit.SECONDS).task());
+        assertSame(merged, sameTitle.get(1, TimeUnit.SECONDS).task());
+        // The merged write is announced by the request it was attributed to
+        assertTrue(status.get().changed());
+        assertFalse(priority.get().changed());
+        assertFalse(sameTitle.get().changed());
+        verify(taskService).partialUpdateTask(1L, patch("Renamed", TaskStatus.DONE, TaskPriority.HIGH));
+        verify(taskService, times(2)).partialUpdateTask(eq(1L), any());
+        assertEquals(2.0, meterRegistry.get("task_writes.conflicts_avoided").tag("how", "merged").counter().count());
+    }
+
+    @Test
+    void partialUpdateTask_ConcurrentPatchSettingSameFieldDifferently_IsRejected() throws Exception {
+        // Given
+        TaskWriteQueue writeQueue = new TaskWriteQueue(taskService, meterRegistry, true);
+        blockFirstPartialUpdate(task(TaskStatus.TO_DO));
+        requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("First", null, null)));
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        Future<TaskUpdateResult> accepted = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Second", null, null)));
+        awaitQueued(1);
+        Future<TaskUpdateResult> conflicting = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Third", null, null)));
+        awaitQueued(2);
+        releaseFirstWrite.countDown();
+
+        // Then
+        assertNotNull(accepted.get(1, TimeUnit.SECONDS));
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> conflicting.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(ConflictingUpdateException.class, thrown.getCause());
+        verify(taskService, never()).partialUpdateTask(1L, patch("Third", null, null));
+        assertEquals(1.0, meterRegistry.get("task_writes.conflicts_rejected").counter().count());
+    }
+
+    @Test
+    void moveTask_QueuedBehindUpdateOfSameTask_RunsAfterItWithoutMerging() throws Exception {
+        // Given
+        TaskWriteQueue writeQueue = new TaskWriteQueue(taskService, meterRegistry, true);
+        blockFirstPartialUpdate(task(TaskStatus.TO_DO));
+        TaskMoveRequestDto move = TaskMoveRequestDto.builder().status(TaskStatus.DONE).build();
+        when(taskService.moveTask(1L, move)).thenReturn(task(TaskStatus.DONE));
+        requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Renamed", null, null)));
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        Future<TaskResponseDto> moved = requests.submit(() -> writeQueue.moveTask(1L, move));
+        awaitQueued(1);
+        Future<TaskUpdateResult> otherTask = requests.submit(() -> writeQueue.partialUpdateTask(2L, patch("Other", null, null)));
+
+        // Then
+        assertEquals(task(TaskStatus.TO_DO), otherTask.get(1, TimeUnit.SECONDS).task());
+        assertFalse(moved.isDone());
+        releaseFirstWrite.countDown();
+        assertEquals(TaskStatus.DONE, moved.get(1, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void batchPartialUpdateTasks_QueuedBehindUpdateOfOneOfItsTasks_RunsBetweenItAndLaterWrites() throws Exception {
+        // Given
+        TaskWriteQueue writeQueue = new TaskWriteQueue(taskService, meterRegistry, true);
+        blockFirstPartialUpdate(task(TaskStatus.TO_DO));
+        List<TaskBatchUpdateDto> updates = List.of(
+                TaskBatchUpdateDto.builder().id(2L).changes(patch(null, TaskStatus.DONE, null)).build(),
+                TaskBatchUpdateDto.builder().id(1L).changes(patch(null, TaskStatus.DONE, null)).build());
+        TaskBatchUpdateResult batchResult = new TaskBatchUpdateResult(List.of(), List.of());
+        when(taskService.batchPartialUpdateTasks(updates)).thenReturn(batchResult);
+        requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Renamed", null, null)));
+        assertTrue(firstWriteStarted.await(1, TimeUnit.SECONDS));
+
+        // When
+        Future<TaskBatchUpdateResult> batch = requests.submit(() -> writeQueue.batchPartialUpdateTasks(updates));
+        awaitQueued(1);
+        Future<TaskUpdateResult> later = requests.submit(() -> writeQueue.partialUpdateTask(1L, patch("Other", null, null)));
+        awaitQueued(2);
+
+        // Then
+        assertFalse(batch.isDone());
+        verify(taskService, never()).batchPartialUpdateTasks(any());
+        releaseFirstWrite.countDown();
+        assertSame(batchResult, batch.get(1, TimeUnit.SECONDS));
+        assertNotNull(later.get(1, TimeUnit.SECONDS));
+        // The later patch is not merged into the write before the batch
+        InOrder inOrder = inOrder(taskService);
+        inOrder.verify(taskService).partialUpdateTask(1L, patch("Renamed", null, null));
+        inOrder.verify(taskService).batchPartialUpdateTasks(updates);
+        inOrder.verify(taskService).partialUpdateTask(1L, patch("Other", null, null));
+    }
+
+    /**
+     * Makes the first partial update of task 1 block until released; all partial updates return {@code result}
+     * with a changed title.
+     */
+    private void blockFirstPartialUpdate(TaskResponseDto result) {
+        when(taskService.partialUpdateTask(any(), any())).thenAnswer(invocation -> {
+            if (firstWriteStarted.getCount() > 0 && invocation.getArgument(0).equals(1L)) {
+                firstWriteStarted.countDown();
+                releaseFirstWrite.await();
+            }
+            return new TaskUpdateResult(result, Map.of("title", result.getTitle()));
+        });
+    }
+
+    private void awaitQueued(int writes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (meterRegistry.get("task_writes.conflicts_avoided").tag("how", "serialized").counter().count() < writes) {
+            assertTrue(System.nanoTime() < deadline, "writes were not queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static TaskRequestDto patch(String title, TaskStatus status, TaskPriority priority) {
+        return TaskRequestDto.builder().title(title).status(status).priority(priority).build();
+    }
+
+    private static TaskResponseDto task(TaskStatus status) {
+        return TaskResponseDto.builder().id(1L).title("Renamed").status(status).build();
+    }
+}